@@ -0,0 +1,119 @@
+#!/usr/bin/env python3
+"""Carga HTTP de leitura para comparar os modos de execução (threads de plataforma x virtuais).
+
+Uso:
+  python3 src/jmh/carga-http.py executar --rotulo plataforma --saida plataforma.json [--concorrencia 400] [--duracao 30]
+  python3 src/jmh/carga-http.py executar --rotulo virtual --saida virtual.json
+  python3 src/jmh/carga-http.py comparar plataforma.json virtual.json
+
+Cada cliente repete as requisições das URLs informadas (--url, padrão: lista e saldo do usuário 1) durante
+--duracao segundos e o resultado traz vazão, latências p50/p95/p99 e erros. A aplicação é iniciada à parte
+em cada modo (financas.execucao.modo=plataforma|virtual) contra o mesmo banco; a diferença só aparece quando
+o banco tem latência, por exemplo com 'tc qdisc add dev lo root netem delay 50ms' na porta do Postgres.
+"""
+import argparse
+import json
+import threading
+import time
+import urllib.error
+import urllib.request
+
+URLS_PADRAO = ["http://localhost:8090/api/lancamentos?usuario=1",
+               "http://localhost:8090/api/usuarios/1/saldo"]
+
+
+def percentil(valores, p):
+    if not valores:
+        return 0.0
+    indice = min(len(valores) - 1, int(round(p / 100.0 * (len(valores) - 1))))
+    return valores[indice]
+
+
+def executar(argumentos):
+    urls = argumentos.url or URLS_PADRAO
+    cabecalhos = dict((nome.strip(), valor.strip()) for nome, valor in (c.split(":", 1) for c in argumentos.header))
+    fim = time.monotonic() + argumentos.duracao
+    latencias = []
+    erros = [0]
+    trava = threading.Lock()
+
+    def cliente(indice):
+        locais = []
+        falhas = 0
+        requisicao = 0
+        while time.monotonic() < fim:
+            url = urls[(indice + requisicao) % len(urls)]
+            requisicao += 1
+            inicio = time.monotonic()
+            try:
+                with urllib.request.urlopen(urllib.request.Request(url, headers=cabecalhos), timeout=60) as resposta:
+                    resposta.read()
+                locais.append(time.monotonic() - inicio)
+            except (urllib.error.URLError, OSError):
+                falhas += 1
+        with trava:
+            latencias.extend(locais)
+            erros[0] += falhas
+
+    clientes = [threading.Thread(target=cliente, args=(i,), daemon=True) for i in range(argumentos.concorrencia)]
+    inicio = time.monotonic()
+    for thread in clientes:
+        thread.start()
+    for thread in clientes:
+        thread.join()
+    decorrido = time.monotonic() - inicio
+
+    latencias.sort()
+    resultado = {
+        "rotulo": argumentos.rotulo,
+        "concorrencia": argumentos.concorrencia,
+        "duracao": round(decorrido, 1),
+        "requisicoes": len(latencias),
+        "erros": erros[0],
+        "vazao": round(len(latencias) / decorrido, 1),
+        "p50_ms": round(percentil(latencias, 50) * 1000, 1),
+        "p95_ms": round(percentil(latencias, 95) * 1000, 1),
+        "p99_ms": round(percentil(latencias, 99) * 1000, 1),
+    }
+    print(json.dumps(resultado, ensure_ascii=False))
+    if argumentos.saida:
+        with open(argumentos.saida, "w", encoding="utf-8") as arquivo:
+            json.dump(resultado, arquivo, ensure_ascii=False)
+
+
+def comparar(argumentos):
+    with open(argumentos.base, encoding="utf-8") as arquivo:
+        base = json.load(arquivo)
+    with open(argumentos.atual, encoding="utf-8") as arquivo:
+        atual = json.load(arquivo)
+
+    print("%-8s %14s %14s %9s" % ("métrica", base["rotulo"], atual["rotulo"], "variação"))
+    for metrica in ("vazao", "p50_ms", "p95_ms", "p99_ms", "erros"):
+        variacao = (atual[metrica] - base[metrica]) / base[metrica] * 100 if base[metrica] else 0.0
+        print("%-8s %14s %14s %+8.1f%%" % (metrica, base[metrica], atual[metrica], variacao))
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    comandos = parser.add_subparsers(dest="comando", required=True)
+
+    execucao = comandos.add_parser("executar")
+    execucao.add_argument("--rotulo", default="execucao")
+    execucao.add_argument("--url", action="append", help="URL a consultar; pode ser repetida")
+    execucao.add_argument("--header", action="append", default=[], help="cabeçalho 'Nome: valor'; pode ser repetido")
+    execucao.add_argument("--concorrencia", type=int, default=400, help="clientes simultâneos (padrão: 400)")
+    execucao.add_argument("--duracao", type=float, default=30, help="segundos de carga (padrão: 30)")
+    execucao.add_argument("--saida", help="arquivo JSON com o resultado")
+    execucao.set_defaults(funcao=executar)
+
+    comparacao = comandos.add_parser("comparar")
+    comparacao.add_argument("base")
+    comparacao.add_argument("atual")
+    comparacao.set_defaults(funcao=comparar)
+
+    argumentos = parser.parse_args()
+    argumentos.funcao(argumentos)
+
+
+if __name__ == "__main__":
+    main()
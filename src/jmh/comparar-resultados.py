@@ -0,0 +1,67 @@
+#!/usr/bin/env python3
+"""Compara dois resultados JSON do JMH (-rf json) e aponta regressões.
+
+Uso: python3 src/jmh/comparar-resultados.py base.json atual.json [--limite 10]
+
+Para cada benchmark (nome + parâmetros) presente nos dois arquivos imprime o score, a variação
+percentual e se ela ultrapassa o limite. Em benchmarks de tempo médio um score maior é pior; em
+throughput, menor é pior. Termina com código 1 quando há alguma regressão acima do limite.
+"""
+import argparse
+import json
+import sys
+
+
+def carregar(caminho):
+    with open(caminho, encoding="utf-8") as arquivo:
+        resultados = {}
+        for resultado in json.load(arquivo):
+            parametros = ",".join("%s=%s" % item for item in sorted(resultado.get("params", {}).items()))
+            nome = resultado["benchmark"].rsplit(".", 2)
+            chave = ".".join(nome[-2:]) + ("(" + parametros + ")" if parametros else "")
+            metrica = resultado["primaryMetric"]
+            resultados[chave] = (resultado["mode"], metrica["score"], metrica["scoreError"], metrica["scoreUnit"])
+        return resultados
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("base")
+    parser.add_argument("atual")
+    parser.add_argument("--limite", type=float, default=10.0, help="variação percentual tolerada (padrão: 10)")
+    argumentos = parser.parse_args()
+
+    base = carregar(argumentos.base)
+    atual = carregar(argumentos.atual)
+    regressoes = 0
+
+    largura = max((len(chave) for chave in atual), default=10)
+    print("%-*s %14s %14s %9s  %s" % (largura, "benchmark", "base", "atual", "variação", "unidade"))
+    for chave in sorted(atual):
+        modo, score, erro, unidade = atual[chave]
+        if chave not in base:
+            print("%-*s %14s %14.3f %9s  %s  (novo)" % (largura, chave, "-", score, "-", unidade))
+            continue
+
+        score_base = base[chave][1]
+        variacao = (score - score_base) / score_base * 100 if score_base else 0.0
+        piora = variacao if modo in ("avgt", "sample", "ss") else -variacao
+        marcador = ""
+        if piora > argumentos.limite:
+            marcador = "  REGRESSÃO"
+            regressoes += 1
+        elif piora < -argumentos.limite:
+            marcador = "  melhora"
+        print("%-*s %14.3f %14.3f %+8.1f%%  %s%s" % (largura, chave, score_base, score, variacao, unidade, marcador))
+
+    for chave in sorted(set(base) - set(atual)):
+        print("%-*s %14.3f %14s %9s  %s  (removido)" % (largura, chave, base[chave][1], "-", "-", base[chave][3]))
+
+    if regressoes:
+        print("\n%d benchmark(s) com regressão acima de %.1f%%" % (regressoes, argumentos.limite))
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,67 @@
+package com.edson.financas.benchmark;
+
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.enums.AgrupamentoAnalise;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.TotalAnalitico;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.impl.ColunasLancamentos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totais por mês de um usuário com {@code linhas} lançamentos nas {@link ColunasLancamentos} e, para comparação,
+ * somando os valores da lista de {@link LancamentoEstado} de onde as colunas foram carregadas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnaliseLancamentosBenchmark {
+
+    @Param({"1000", "100000"})
+    private int linhas;
+
+    private List<LancamentoEstado> estados;
+
+    private ColunasLancamentos colunas;
+
+    @Setup
+    public void preparar() {
+        Usuario usuario = Dados.usuario();
+        estados = new ArrayList<>(linhas);
+        for (long id = 1; id <= linhas; id++) {
+            estados.add(LancamentoEstado.of(Dados.lancamento(id, usuario)));
+        }
+        colunas = ColunasLancamentos.de(estados);
+    }
+
+    @Benchmark
+    public List<TotalAnalitico> agruparDespesasPorMes() {
+        return colunas.agrupar(AgrupamentoAnalise.MES, 2021, null, TipoLancamento.DESPESA, null);
+    }
+
+    @Benchmark
+    public TotalAnalitico totalizarPendentes() {
+        return colunas.totalizar(2021, null, null, StatusLancamento.PENDENTE);
+    }
+
+    @Benchmark
+    public Dinheiro[] agruparDespesasPorMesNaLista() {
+        Dinheiro[] totais = new Dinheiro[12];
+        for (LancamentoEstado estado : estados) {
+            if (estado.getAno() == 2021 && estado.getTipo() == TipoLancamento.DESPESA) {
+                int mes = estado.getMes() - 1;
+                totais[mes] = totais[mes] == null ? estado.getValor() : totais[mes].somar(estado.getValor());
+            }
+        }
+        return totais;
+    }
+}
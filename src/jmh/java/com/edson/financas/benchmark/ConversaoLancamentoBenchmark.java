@@ -0,0 +1,86 @@
+package com.edson.financas.benchmark;
+
+import com.edson.financas.api.dto.LancamentoDTO;
+import com.edson.financas.api.resource.LancamentoResource;
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.projection.SessaoUsuario;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.UsuarioService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão do DTO recebido no POST/PUT para a entidade, incluindo a consulta do usuário. O método é
+ * privado no resource e é chamado por um {@link MethodHandle}, cujo custo é constante entre execuções.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversaoLancamentoBenchmark {
+
+    private LancamentoResource resource;
+
+    private MethodHandle converter;
+
+    private LancamentoDTO dto;
+
+    @Setup
+    public void preparar() throws ReflectiveOperationException {
+        Usuario usuario = Dados.usuario();
+        resource = new LancamentoResource(null, new UsuarioFixo(usuario), null, null, null, null);
+        converter = MethodHandles.privateLookupIn(LancamentoResource.class, MethodHandles.lookup())
+                                 .findVirtual(LancamentoResource.class, "converter",
+                                              MethodType.methodType(com.edson.financas.model.entity.Lancamento.class, LancamentoDTO.class,
+                                                                    SessaoUsuario.class));
+        dto = LancamentoDTO.builder()
+                           .descricao("Mercado")
+                           .ano(2021)
+                           .mes(3)
+                           .valor(Dinheiro.de("250.40"))
+                           .usuario(usuario.getId())
+                           .tipo("DESPESA")
+                           .status("PENDENTE")
+                           .build();
+    }
+
+    @Benchmark
+    public Object converter() throws Throwable {
+        return converter.invoke(resource, dto, (SessaoUsuario) null);
+    }
+
+    private static class UsuarioFixo implements UsuarioService {
+
+        private final Optional<Usuario> usuario;
+
+        UsuarioFixo(Usuario usuario) {
+            this.usuario = Optional.of(usuario);
+        }
+
+        @Override
+        public Usuario autenticar(String email, String senha) {
+            return usuario.get();
+        }
+
+        @Override
+        public Usuario salvarUsuario(Usuario usuario) {
+            return usuario;
+        }
+
+        @Override
+        public void validarEmail(String email) {
+        }
+
+        @Override
+        public Optional<Usuario> obterPorId(Long id) {
+            return usuario;
+        }
+    }
+}
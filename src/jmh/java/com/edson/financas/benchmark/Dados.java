@@ -0,0 +1,33 @@
+package com.edson.financas.benchmark;
+
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.valor.Dinheiro;
+
+import java.time.LocalDate;
+
+final class Dados {
+
+    private Dados() {
+    }
+
+    static Usuario usuario() {
+        return Usuario.builder().id(1L).nome("usuario").email("usuario@email.com").senha("senha").build();
+    }
+
+    static Lancamento lancamento(Long id, Usuario usuario) {
+        return Lancamento.builder()
+                         .id(id)
+                         .descricao("Lancamento " + id)
+                         .ano(2021)
+                         .mes((int) (id % 12) + 1)
+                         .valor(Dinheiro.deCentavos(id % 1000 + 1))
+                         .tipo(id % 3 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA)
+                         .status(StatusLancamento.PENDENTE)
+                         .dataCadastro(LocalDate.of(2021, 1, 1))
+                         .usuario(usuario)
+                         .build();
+    }
+}
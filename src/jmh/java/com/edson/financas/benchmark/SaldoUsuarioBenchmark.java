@@ -0,0 +1,95 @@
+package com.edson.financas.benchmark;
+
+import com.edson.financas.FinancasApplication;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.LancamentoService;
+import com.edson.financas.service.SaldoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saldo de um usuário com {@code linhas} lançamentos num H2 em memória com o perfil {@code test}, sem o
+ * reaproveitamento de resultados do H2 para que cada chamada realmente consulte as tabelas.
+ * {@code obterSaldoPorUsuario} lê o saldo materializado; {@code calcularSaldo} é a soma por tipo
+ * que era feita a cada chamada antes dele.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SaldoUsuarioBenchmark {
+
+    private static final int LOTE = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int linhas;
+
+    private ConfigurableApplicationContext contexto;
+
+    private LancamentoService lancamentoService;
+
+    private LancamentoRepository lancamentoRepository;
+
+    private Long idUsuario;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = SpringApplication.run(FinancasApplication.class,
+                                         "--spring.profiles.active=test",
+                                         "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE;"
+                                         + "INIT=CREATE SCHEMA IF NOT EXISTS financas",
+                                         "--spring.main.web-application-type=none",
+                                         "--spring.main.banner-mode=off",
+                                         "--logging.level.root=WARN",
+                                         "--logging.level.org.springframework.beans.factory.support.DisposableBeanAdapter=ERROR");
+        lancamentoService = contexto.getBean(LancamentoService.class);
+        lancamentoRepository = contexto.getBean(LancamentoRepository.class);
+
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        jdbc.update("insert into financas.usuario (nome, email, senha) values ('benchmark', 'benchmark@email.com', 'senha')");
+        idUsuario = jdbc.queryForObject("select id from financas.usuario where email = 'benchmark@email.com'", Long.class);
+
+        Date dataCadastro = Date.valueOf(LocalDate.of(2021, 1, 1));
+        List<Object[]> lote = new ArrayList<>(LOTE);
+        for (long id = 1; id <= linhas; id++) {
+            lote.add(new Object[]{id, "Lancamento " + id, (int) (id % 12) + 1, 2021, idUsuario,
+                                  BigDecimal.valueOf(id % 1000 + 1, 2), id % 3 == 0 ? "RECEITA" : "DESPESA",
+                                  "PENDENTE", dataCadastro});
+            if (lote.size() == LOTE || id == linhas) {
+                jdbc.batchUpdate("insert into financas.lancamento "
+                                 + "(id, descricao, mes, ano, id_usuario, valor, tipo, status, data_cadastro) "
+                                 + "values (?, ?, ?, ?, ?, ?, ?, ?, ?)", lote);
+                lote.clear();
+            }
+        }
+
+        contexto.getBean(SaldoService.class).verificarSaldos(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Dinheiro obterSaldoPorUsuario() {
+        return lancamentoService.obterSaldoPorUsuario(idUsuario);
+    }
+
+    @Benchmark
+    public Object calcularSaldo() {
+        return lancamentoRepository.calcularSaldoDoUsuario(idUsuario);
+    }
+}
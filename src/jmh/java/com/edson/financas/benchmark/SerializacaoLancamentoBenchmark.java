@@ -0,0 +1,83 @@
+package com.edson.financas.benchmark;
+
+import com.edson.financas.api.dto.LancamentoDTO;
+import com.edson.financas.api.json.DinheiroJson;
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.projection.LancamentoVisao;
+import com.edson.financas.model.valor.Dinheiro;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Serialização das listas devolvidas pela API, com o {@link ObjectMapper} configurado como no Spring.
+ * Compara a entidade, que arrasta o usuário, com a projeção de leitura, e mede a leitura do corpo recebido
+ * no POST/PUT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoLancamentoBenchmark {
+
+    @Param({"100", "1000"})
+    private int tamanho;
+
+    private ObjectMapper objectMapper;
+
+    private List<Lancamento> lancamentos;
+
+    private List<LancamentoVisao> visoes;
+
+    private byte[] dtos;
+
+    @Setup
+    public void preparar() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                                                  .serializerByType(Dinheiro.class, new DinheiroJson.Serializador())
+                                                  .deserializerByType(Dinheiro.class, new DinheiroJson.Desserializador())
+                                                  .build();
+        Usuario usuario = Dados.usuario();
+        lancamentos = LongStream.rangeClosed(1, tamanho)
+                                .mapToObj(id -> Dados.lancamento(id, usuario))
+                                .collect(Collectors.toList());
+        visoes = lancamentos.stream().map(LancamentoVisao::of).collect(Collectors.toList());
+        dtos = objectMapper.writeValueAsBytes(lancamentos.stream()
+                                                         .map(lancamento -> LancamentoDTO.builder()
+                                                                                         .descricao(lancamento.getDescricao())
+                                                                                         .ano(lancamento.getAno())
+                                                                                         .mes(lancamento.getMes())
+                                                                                         .valor(lancamento.getValor())
+                                                                                         .usuario(usuario.getId())
+                                                                                         .tipo(lancamento.getTipo().name())
+                                                                                         .status(lancamento.getStatus().name())
+                                                                                         .build())
+                                                         .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public byte[] serializarEntidades() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(lancamentos);
+    }
+
+    @Benchmark
+    public byte[] serializarVisoes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(visoes);
+    }
+
+    @Benchmark
+    public List<LancamentoDTO> desserializarDtos() throws IOException {
+        return objectMapper.readValue(dtos, new TypeReference<List<LancamentoDTO>>() {});
+    }
+}
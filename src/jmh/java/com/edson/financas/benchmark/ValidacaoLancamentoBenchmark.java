@@ -0,0 +1,33 @@
+package com.edson.financas.benchmark;
+
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.service.impl.LancamentoServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoLancamentoBenchmark {
+
+    private LancamentoServiceImpl service;
+
+    private Lancamento lancamento;
+
+    @Setup
+    public void preparar() {
+        service = new LancamentoServiceImpl();
+        lancamento = Dados.lancamento(1L, Dados.usuario());
+    }
+
+    @Benchmark
+    public void validar(Blackhole blackhole) {
+        service.validar(lancamento);
+        blackhole.consume(lancamento);
+    }
+}
@@ -2,8 +2,10 @@ package com.edson.financas;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+// o R2DBC atende apenas leituras; as transações continuam exclusivamente com o gerenciador do JPA
+@SpringBootApplication(exclude = R2dbcTransactionManagerAutoConfiguration.class)
 public class FinancasApplication {
 
 	public static void main(String[] args) {
@@ -1,12 +1,11 @@
 package com.edson.financas.api.dto;
 
+import com.edson.financas.model.valor.Dinheiro;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,7 +20,7 @@ public class LancamentoDTO {
 
     private Integer ano;
 
-    private BigDecimal valor;
+    private Dinheiro valor;
 
     private Long usuario;
 
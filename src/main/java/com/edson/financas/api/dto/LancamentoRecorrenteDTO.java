@@ -0,0 +1,33 @@
+package com.edson.financas.api.dto;
+
+import com.edson.financas.model.valor.Dinheiro;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LancamentoRecorrenteDTO {
+
+    private Long id;
+
+    private String descricao;
+
+    private Dinheiro valor;
+
+    private String tipo;
+
+    private Integer dia;
+
+    private String periodicidade;
+
+    private Integer mesInicio;
+
+    private Integer anoInicio;
+
+    private Long usuario;
+
+}
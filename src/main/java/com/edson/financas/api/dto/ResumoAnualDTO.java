@@ -0,0 +1,23 @@
+package com.edson.financas.api.dto;
+
+import com.edson.financas.model.projection.ResumoMes;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoAnualDTO {
+
+    private Long usuario;
+
+    private Integer ano;
+
+    private List<ResumoMes> meses;
+
+}
@@ -0,0 +1,22 @@
+package com.edson.financas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessaoDTO {
+
+    private Long id;
+
+    private String nome;
+
+    private String email;
+
+    private String token;
+
+}
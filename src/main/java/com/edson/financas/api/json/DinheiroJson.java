@@ -0,0 +1,58 @@
+package com.edson.financas.api.json;
+
+import com.edson.financas.model.valor.Dinheiro;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Valores monetários trafegam como número JSON com duas casas decimais. O texto do número é lido e escrito
+ * direto a partir dos centavos, sem criar um BigDecimal por valor.
+ */
+@JsonComponent
+public class DinheiroJson {
+
+    public static class Serializador extends JsonSerializer<Dinheiro> {
+
+        // o gerador copia o texto para o próprio buffer, então o mesmo array serve para todas as escritas da thread
+        private static final ThreadLocal<char[]> TEXTO = ThreadLocal.withInitial(() -> new char[Dinheiro.TAMANHO_MAXIMO_TEXTO]);
+
+        @Override
+        public void serialize(Dinheiro valor, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            char[] texto = TEXTO.get();
+            gerador.writeNumber(texto, 0, valor.escrever(texto));
+        }
+    }
+
+    public static class Desserializador extends JsonDeserializer<Dinheiro> {
+
+        @Override
+        public Dinheiro deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_STRING && parser.getTextLength() == 0) {
+                return null;
+            }
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Dinheiro) contexto.handleUnexpectedToken(Dinheiro.class, parser);
+            }
+
+            try {
+                if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                    return Dinheiro.de(parser.getLongValue());
+                }
+                return Dinheiro.ler(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw InvalidFormatException.from(parser, "Valor monetário inválido", parser.getText(), Dinheiro.class);
+            }
+        }
+    }
+}
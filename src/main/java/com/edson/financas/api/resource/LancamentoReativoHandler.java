@@ -0,0 +1,97 @@
+package com.edson.financas.api.resource;
+
+import com.edson.financas.model.projection.LancamentoVisao;
+import com.edson.financas.model.projection.SessaoUsuario;
+import com.edson.financas.model.repository.LancamentoReativoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Busca de lançamentos em NDJSON lida pelo R2DBC. Nenhuma thread do Tomcat fica presa durante a consulta: as
+ * linhas são pedidas ao banco em lotes de {@code financas.leitura-reativa.tamanho-lote} e o próximo lote só é
+ * lido depois que o anterior foi escrito para o cliente, então um cliente lento segura o banco em vez de
+ * acumular o resultado em memória.
+ */
+@Component
+@RequiredArgsConstructor
+public class LancamentoReativoHandler {
+
+    private static final MediaType NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+    private final LancamentoReativoRepository repository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${financas.leitura-reativa.tamanho-lote:256}")
+    private int tamanhoLote;
+
+    public ServerResponse buscar(ServerRequest request) {
+        Optional<Long> idUsuario = resolverUsuario(request);
+        if (!idUsuario.isPresent()){
+            return ServerResponse.badRequest().body("Não foi possível ralizar a consulta. Informe o usuário.");
+        }
+
+        Integer ano;
+        Integer mes;
+        try {
+            ano = parametroInteiro(request, "ano");
+            mes = parametroInteiro(request, "mes");
+        }catch (NumberFormatException e){
+            return ServerResponse.badRequest().body("Não foi possível ralizar a consulta. Ano e mês devem ser numéricos.");
+        }
+        String descricao = request.param("descricao")
+                                  .filter(d -> !d.trim().isEmpty())
+                                  .map(d -> "%" + d.toLowerCase() + "%")
+                                  .orElse(null);
+
+        // a escrita no response é bloqueante, por isso sai da thread do driver e vai para o boundedElastic
+        Flux<byte[]> lotes = repository.buscar(idUsuario.get(), ano, mes, descricao)
+                                       .buffer(tamanhoLote)
+                                       .map(this::escreverLote)
+                                       .publishOn(Schedulers.boundedElastic(), 1);
+
+        return ServerResponse.ok().contentType(NDJSON).body(lotes);
+    }
+
+    private Optional<Long> resolverUsuario(ServerRequest request) {
+        Optional<Object> sessao = request.attribute(SessaoUsuario.ATRIBUTO);
+        if (sessao.isPresent()){
+            return Optional.of(((SessaoUsuario) sessao.get()).getId());
+        }
+        try {
+            return request.param("usuario").map(Long::valueOf);
+        }catch (NumberFormatException e){
+            return Optional.empty();
+        }
+    }
+
+    private static Integer parametroInteiro(ServerRequest request, String nome) {
+        return request.param(nome).filter(valor -> !valor.isEmpty()).map(Integer::valueOf).orElse(null);
+    }
+
+    private byte[] escreverLote(List<LancamentoVisao> lancamentos) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(lancamentos.size() * 160);
+        try {
+            for (LancamentoVisao lancamento : lancamentos) {
+                objectMapper.writeValue(saida, lancamento);
+                saida.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,152 @@
+package com.edson.financas.api.resource;
+
+import com.edson.financas.api.dto.LancamentoRecorrenteDTO;
+import com.edson.financas.exception.RegraNegocioException;
+import com.edson.financas.model.entity.LancamentoRecorrente;
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.enums.Periodicidade;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.SessaoUsuario;
+import com.edson.financas.service.RecorrenciaService;
+import com.edson.financas.service.UsuarioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.DateTimeException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/lancamentos-recorrentes")
+@RequiredArgsConstructor
+public class LancamentoRecorrenteResource {
+
+    private final RecorrenciaService service;
+    private final UsuarioService usuarioService;
+
+    @GetMapping
+    public ResponseEntity buscar(@RequestParam(value = "usuario", required = false) Long idUsuario,
+                                 @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
+        Optional<Usuario> usuario = resolverUsuario(sessao, idUsuario);
+        if (!usuario.isPresent()){
+            return ResponseEntity.badRequest().body("Usuário não encontrado para o Id informado.");
+        }
+
+        List<LancamentoRecorrenteDTO> recorrentes = service.buscarPorUsuario(usuario.get().getId())
+                                                           .stream()
+                                                           .map(this::converter)
+                                                           .collect(Collectors.toList());
+        return ResponseEntity.ok(recorrentes);
+    }
+
+    @PostMapping
+    public ResponseEntity salvar(@RequestBody LancamentoRecorrenteDTO dto,
+                                 @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
+        try {
+            LancamentoRecorrente entidade = converter(dto, sessao);
+            entidade = service.salvar(entidade);
+            return new ResponseEntity(converter(entidade), HttpStatus.CREATED);
+        }catch (RegraNegocioException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.badRequest().body("Informe um tipo e uma periodicidade válidos.");
+        }
+    }
+
+    @DeleteMapping("{id}")
+    public ResponseEntity deletar(@PathVariable("id") Long id,
+                                  @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
+        return service.obterPorId(id).map(entity -> {
+            if (sessao != null && !sessao.getId().equals(entity.getUsuario().getId())){
+                return new ResponseEntity("O lançamento recorrente pertence a outro usuário.", HttpStatus.FORBIDDEN);
+            }
+
+            service.deletar(entity);
+            return new ResponseEntity(HttpStatus.NO_CONTENT);
+        }).orElseGet(() ->
+                new ResponseEntity("Lançamento recorrente não encontrado na base de Dados.", HttpStatus.BAD_REQUEST));
+    }
+
+    /**
+     * Geração sob demanda dos modelos do próprio usuário, para um mês que o agendamento não cobriu; o resultado é
+     * o número de lançamentos gerados. Meses futuros ficam para o agendamento.
+     */
+    @PostMapping("/gerar")
+    public ResponseEntity gerar(@RequestParam("ano") Integer ano, @RequestParam("mes") Integer mes,
+                                @RequestParam(value = "usuario", required = false) Long idUsuario,
+                                @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
+        YearMonth competencia;
+        try {
+            competencia = YearMonth.of(ano, mes);
+        }catch (DateTimeException e){
+            return ResponseEntity.badRequest().body("Informe um Mês e um Ano válidos.");
+        }
+        if (ano.toString().length() != 4 || competencia.isAfter(YearMonth.now())){
+            return ResponseEntity.badRequest().body("Informe um Mês e um Ano válidos, até o mês corrente.");
+        }
+
+        Optional<Usuario> usuario = resolverUsuario(sessao, idUsuario);
+        if (!usuario.isPresent()){
+            return ResponseEntity.badRequest().body("Usuário não encontrado para o Id informado.");
+        }
+
+        try {
+            return ResponseEntity.ok(service.gerar(usuario.get().getId(), competencia));
+        }catch (DataIntegrityViolationException e){
+            return new ResponseEntity("Os lançamentos deste mês estão sendo gerados por outra requisição.", HttpStatus.CONFLICT);
+        }
+    }
+
+    private Optional<Usuario> resolverUsuario(SessaoUsuario sessao, Long idUsuario){
+        if (sessao != null){
+            return Optional.of(Usuario.builder()
+                                      .id(sessao.getId())
+                                      .nome(sessao.getNome())
+                                      .email(sessao.getEmail())
+                                      .build());
+        }
+        if (idUsuario == null){
+            return Optional.empty();
+        }
+        return usuarioService.obterPorId(idUsuario);
+    }
+
+    private LancamentoRecorrente converter(LancamentoRecorrenteDTO dto, SessaoUsuario sessao){
+        if (sessao != null && dto.getUsuario() != null && !sessao.getId().equals(dto.getUsuario())){
+            throw new RegraNegocioException("O usuário do lançamento não corresponde ao usuário autenticado.");
+        }
+
+        Usuario usuario = resolverUsuario(sessao, dto.getUsuario())
+                .orElseThrow( () -> new RegraNegocioException("Usuário não encontrado para o Id informado."));
+
+        return LancamentoRecorrente.builder()
+                                   .descricao(dto.getDescricao())
+                                   .valor(dto.getValor())
+                                   .tipo(dto.getTipo() == null ? null : TipoLancamento.valueOf(dto.getTipo()))
+                                   .dia(dto.getDia())
+                                   .periodicidade(dto.getPeriodicidade() == null ? null : Periodicidade.valueOf(dto.getPeriodicidade()))
+                                   .mesInicio(dto.getMesInicio())
+                                   .anoInicio(dto.getAnoInicio())
+                                   .usuario(usuario)
+                                   .build();
+    }
+
+    private LancamentoRecorrenteDTO converter(LancamentoRecorrente entidade){
+        return LancamentoRecorrenteDTO.builder()
+                                      .id(entidade.getId())
+                                      .descricao(entidade.getDescricao())
+                                      .valor(entidade.getValor())
+                                      .tipo(entidade.getTipo().name())
+                                      .dia(entidade.getDia())
+                                      .periodicidade(entidade.getPeriodicidade().name())
+                                      .mesInicio(entidade.getMesInicio())
+                                      .anoInicio(entidade.getAnoInicio())
+                                      .usuario(entidade.getUsuario().getId())
+                                      .build();
+    }
+}
@@ -1,21 +1,42 @@
 package com.edson.financas.api.resource;
 
 import com.edson.financas.api.dto.AtualizaStatusDTO;
+import com.edson.financas.api.dto.AtualizaStatusLoteDTO;
 import com.edson.financas.api.dto.LancamentoDTO;
+import com.edson.financas.exception.GravacaoIndisponivelException;
 import com.edson.financas.exception.RegraNegocioException;
 import com.edson.financas.model.entity.Lancamento;
 import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.enums.FormatoExportacao;
+import com.edson.financas.model.enums.FormatoExtrato;
 import com.edson.financas.model.enums.StatusLancamento;
 import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.LancamentoVisao;
+import com.edson.financas.model.projection.PaginaLancamentos;
+import com.edson.financas.model.projection.SessaoUsuario;
+import com.edson.financas.service.ExportacaoService;
+import com.edson.financas.service.ImportacaoService;
 import com.edson.financas.service.LancamentoService;
 import com.edson.financas.service.UsuarioService;
+import com.edson.financas.service.VersaoService;
+import com.edson.financas.service.importacao.ResultadoImportacao;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @RestController
@@ -23,71 +44,239 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class LancamentoResource {
 
+    private static final String MENSAGEM_OUTRO_USUARIO = "O lançamento pertence a outro usuário.";
+
     private final LancamentoService service;
     private final UsuarioService usuarioService;
+    private final ImportacaoService importacaoService;
+    private final ExportacaoService exportacaoService;
+    private final VersaoService versaoService;
+    private final RespostasIdempotentes respostasIdempotentes;
 
     @GetMapping
     public ResponseEntity buscar(
             @RequestParam(value = "descricao", required = false) String descricao,
             @RequestParam(value = "mes", required = false) Integer mes,
             @RequestParam(value = "ano", required = false) Integer ano,
-            @RequestParam(value = "usuario") Long idUsuario
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao,
+            WebRequest request
             ) {
         Lancamento lancamentoFiltro = new Lancamento();
         lancamentoFiltro.setDescricao(descricao);
         lancamentoFiltro.setMes(mes);
         lancamentoFiltro.setAno(ano);
 
-        Optional<Usuario> usuario = usuarioService.obterPorId(idUsuario);
+        Optional<Usuario> usuario = resolverUsuario(sessao, idUsuario);
         if (!usuario.isPresent()){
             return ResponseEntity.badRequest()
                     .body("Não foi possível ralizar a consulta. Usuário não encontrado para o Id informado.");
         }else {
             lancamentoFiltro.setUsuario(usuario.get());
         }
-        List<Lancamento> lancamentos = service.buscar(lancamentoFiltro);
-        return ResponseEntity.ok(lancamentos);
+
+        // a versão é lida antes da consulta: uma escrita concorrente só pode deixar o ETag mais antigo que os dados
+        long versao = versaoService.obterVersao(usuario.get().getId());
+        if (request.checkNotModified(usuario.get().getId() + "-" + versao)){
+            return null;
+        }
+
+        try {
+            List<LancamentoVisao> lancamentos = service.buscar(lancamentoFiltro);
+            return ResponseEntity.ok()
+                                 .header("Deprecation", "true")
+                                 .header(HttpHeaders.LINK, "</api/lancamentos/pagina>; rel=\"successor-version\"")
+                                 .body(lancamentos);
+        }catch (RegraNegocioException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/pagina")
+    public ResponseEntity buscarPagina(
+            @RequestParam(value = "descricao", required = false) String descricao,
+            @RequestParam(value = "mes", required = false) Integer mes,
+            @RequestParam(value = "ano", required = false) Integer ano,
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamanho", required = false) Integer tamanho,
+            @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao
+            ) {
+        Lancamento lancamentoFiltro = new Lancamento();
+        lancamentoFiltro.setDescricao(descricao);
+        lancamentoFiltro.setMes(mes);
+        lancamentoFiltro.setAno(ano);
+
+        Optional<Usuario> usuario = resolverUsuario(sessao, idUsuario);
+        if (!usuario.isPresent()){
+            return ResponseEntity.badRequest()
+                    .body("Não foi possível ralizar a consulta. Usuário não encontrado para o Id informado.");
+        }
+        lancamentoFiltro.setUsuario(usuario.get());
+
+        try {
+            PaginaLancamentos pagina = service.buscarPagina(lancamentoFiltro, cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        }catch (RegraNegocioException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/buscar-todos")
     public ResponseEntity buscarTodos(){
         Lancamento lancamento = new Lancamento();
 
-        List<Lancamento> lancamentos = service.buscarTodos(lancamento);
+        List<LancamentoVisao> lancamentos = service.buscarTodos(lancamento);
         return ResponseEntity.ok(lancamentos);
     }
 
+    @GetMapping("{id}")
+    public ResponseEntity obterLancamento(@PathVariable("id") Long id,
+                                          @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
+        return service.obterVisaoPorId(id)
+                .map(lancamento -> {
+                    if (!pertenceASessao(lancamento.getUsuario(), sessao)){
+                        return new ResponseEntity(HttpStatus.FORBIDDEN);
+                    }
+                    return ResponseEntity.ok().eTag(String.valueOf(lancamento.getVersao())).body(lancamento);
+                })
+                .orElseGet(() -> new ResponseEntity(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * O corpo é sempre um {@link StreamingResponseBody} declarado no tipo de retorno, que é o que o Spring
+     * usa para escrever a resposta de forma assíncrona; as mensagens de erro seguem pelo mesmo caminho.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(value = "usuario", required = false) Long idUsuario,
+                                                          @RequestParam(value = "formato", defaultValue = "csv") String formato,
+                                                          @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
+        Optional<Usuario> usuario = resolverUsuario(sessao, idUsuario);
+        if (!usuario.isPresent()){
+            return erroExportacao("Usuário não encontrado para o Id informado.");
+        }
+
+        FormatoExportacao formatoExportacao;
+        try {
+            formatoExportacao = FormatoExportacao.valueOf(formato.toUpperCase(Locale.ROOT));
+        }catch (IllegalArgumentException e){
+            return erroExportacao("Formato de exportação não suportado. Use csv ou ndjson.");
+        }
+
+        Long id = usuario.get().getId();
+        StreamingResponseBody corpo = saida -> exportacaoService.exportar(id, formatoExportacao, saida);
+        String extensao = formatoExportacao.name().toLowerCase(Locale.ROOT);
+        return ResponseEntity.ok()
+                .contentType(formatoExportacao == FormatoExportacao.CSV
+                             ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                             : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=lancamentos-" + id + "." + extensao)
+                .body(corpo);
+    }
+
+    /**
+     * Com {@code Idempotency-Key} a repetição da mesma inclusão devolve a resposta da primeira, sem gravar de novo.
+     */
     @PostMapping
-    public ResponseEntity salvar(@RequestBody LancamentoDTO dto){
+    public ResponseEntity salvar(@RequestBody LancamentoDTO dto,
+                                 @RequestHeader(value = RespostasIdempotentes.CABECALHO, required = false) String chaveIdempotencia,
+                                 @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
+        return respostasIdempotentes.executar(chaveIdempotencia, "POST /api/lancamentos", usuarioDaRequisicao(dto, sessao), dto, () -> {
+            try {
+                Lancamento entidade = converter(dto, sessao);
+                entidade = service.salvar(entidade);
+
+                return new ResponseEntity(LancamentoVisao.of(entidade), HttpStatus.CREATED);
+            }catch (RegraNegocioException e){
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }catch (GravacaoIndisponivelException e){
+                return new ResponseEntity(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+            }
+        });
+    }
+
+    @PostMapping("/importar")
+    public ResponseEntity importar(@RequestParam("arquivo") MultipartFile arquivo,
+                                   @RequestParam(value = "usuario", required = false) Long idUsuario,
+                                   @RequestParam(value = "formato", required = false) String formato,
+                                   @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
+        Optional<Usuario> usuario = resolverUsuario(sessao, idUsuario);
+        if (!usuario.isPresent()){
+            return ResponseEntity.badRequest().body("Usuário não encontrado para o Id informado.");
+        }
+
+        String nomeFormato = formato != null ? formato : extensao(arquivo.getOriginalFilename());
+        FormatoExtrato formatoExtrato;
         try {
-            Lancamento entidade = converter(dto);
-            entidade = service.salvar(entidade);
+            formatoExtrato = FormatoExtrato.valueOf(nomeFormato.toUpperCase(Locale.ROOT));
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.badRequest().body("Formato de extrato não suportado. Envie um arquivo CSV ou OFX.");
+        }
 
-            return new ResponseEntity(entidade, HttpStatus.CREATED);
+        try (InputStream extrato = arquivo.getInputStream()) {
+            ResultadoImportacao resultado = importacaoService.importar(usuario.get(), formatoExtrato, extrato);
+            return ResponseEntity.ok(resultado);
         }catch (RegraNegocioException e){
             return ResponseEntity.badRequest().body(e.getMessage());
+        }catch (IOException e){
+            return ResponseEntity.badRequest().body("Não foi possível ler o extrato enviado.");
         }
-
     }
 
     @PutMapping("{id}")
-    public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto){
+    public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                    @RequestHeader(value = RespostasIdempotentes.CABECALHO, required = false) String chaveIdempotencia,
+                                    @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
+        return respostasIdempotentes.executar(chaveIdempotencia, "PUT /api/lancamentos/" + id, usuarioDaRequisicao(dto, sessao), dto,
+                                              () -> atualizar(id, dto, ifMatch, sessao));
+    }
+
+    private ResponseEntity atualizar(Long id, LancamentoDTO dto, String ifMatch, SessaoUsuario sessao){
         return service.obterPorId(id).map(entity -> {
+            if (!pertenceASessao(entity.getUsuario().getId(), sessao)){
+                return new ResponseEntity(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+            }
+
+            if (dto.getUsuario() != null && !dto.getUsuario().equals(entity.getUsuario().getId())){
+                return ResponseEntity.badRequest().body("Não é possível transferir o lançamento para outro usuário.");
+            }
+
+            if (!confereVersao(ifMatch, entity)){
+                return new ResponseEntity("O lançamento foi alterado desde a última leitura.", HttpStatus.PRECONDITION_FAILED);
+            }
+
             try {
-            Lancamento lancamento = converter(dto);
+            Lancamento lancamento = converter(dto, sessao);
             lancamento.setId(entity.getId());
-            service.atualizar(lancamento);
-            return ResponseEntity.ok(lancamento);
+            lancamento.setVersao(entity.getVersao());
+            lancamento.setUsuario(entity.getUsuario());
+            Lancamento lancamentoAtualizado = service.atualizar(lancamento);
+            return ResponseEntity.ok()
+                                 .eTag(String.valueOf(lancamentoAtualizado.getVersao()))
+                                 .body(LancamentoVisao.of(lancamentoAtualizado));
             }catch (RegraNegocioException e){
                 return ResponseEntity.badRequest().body(e.getMessage());
+            }catch (OptimisticLockingFailureException e){
+                return new ResponseEntity("O lançamento foi alterado por outra requisição.", HttpStatus.CONFLICT);
             }
         }).orElseGet(() ->
                 new ResponseEntity("Lançamento não encontrado na base de Dados.", HttpStatus.BAD_REQUEST));
     }
 
     @PutMapping("{id}/atualiza-status")
-    public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto){
+    public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
         return service.obterPorId(id).map(entity -> {
+            if (!pertenceASessao(entity.getUsuario().getId(), sessao)){
+                return new ResponseEntity(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+            }
+
+            if (!confereVersao(ifMatch, entity)){
+                return new ResponseEntity("O lançamento foi alterado desde a última leitura.", HttpStatus.PRECONDITION_FAILED);
+            }
+
             StatusLancamento statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
 
             if (statusSelecionado == null){
@@ -96,25 +285,123 @@ public class LancamentoResource {
 
             try {
                 entity.setStatus(statusSelecionado);
-                service.atualizar(entity);
-                return ResponseEntity.ok(entity);
+                Lancamento lancamentoAtualizado = service.atualizar(entity);
+                return ResponseEntity.ok()
+                                     .eTag(String.valueOf(lancamentoAtualizado.getVersao()))
+                                     .body(LancamentoVisao.of(lancamentoAtualizado));
             }catch (RegraNegocioException e){
                 return ResponseEntity.badRequest().body(e.getMessage());
+            }catch (OptimisticLockingFailureException e){
+                return new ResponseEntity("O lançamento foi alterado por outra requisição.", HttpStatus.CONFLICT);
             }
         }).orElseGet(() ->
                 new ResponseEntity("Lançamento não encontrado na base de Dados.", HttpStatus.BAD_REQUEST));
     }
 
+    @PutMapping("/atualiza-status")
+    public ResponseEntity atualizarStatusEmLote(@RequestBody AtualizaStatusLoteDTO dto,
+                                                @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
+        if (sessao != null && dto.getUsuario() != null && !sessao.getId().equals(dto.getUsuario())){
+            return new ResponseEntity("O usuário informado não corresponde ao token.", HttpStatus.FORBIDDEN);
+        }
+
+        Optional<Usuario> usuario = resolverUsuario(sessao, dto.getUsuario());
+        if (!usuario.isPresent()){
+            return ResponseEntity.badRequest().body("Usuário não encontrado para o Id informado.");
+        }
+
+        Lancamento lancamentoFiltro = new Lancamento();
+        lancamentoFiltro.setUsuario(usuario.get());
+        lancamentoFiltro.setAno(dto.getAno());
+        lancamentoFiltro.setMes(dto.getMes());
+
+        try {
+            if (dto.getTipo() != null){
+                lancamentoFiltro.setTipo(TipoLancamento.valueOf(dto.getTipo()));
+            }
+            StatusLancamento status = dto.getStatus() == null ? null : StatusLancamento.valueOf(dto.getStatus());
+
+            int atualizados = service.atualizarStatusEmLote(lancamentoFiltro, dto.getIds(), status);
+            return ResponseEntity.ok(atualizados);
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.badRequest().body("Nao foi possível atualizar o status dos lançamentos, envie um tipo e um status válidos.");
+        }catch (RegraNegocioException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @DeleteMapping("{id}")
-    public ResponseEntity deletar(@PathVariable("id") Long id){
+    public ResponseEntity deletar(@PathVariable("id") Long id,
+                                  @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
         return service.obterPorId(id).map(entity -> {
+            if (!pertenceASessao(entity.getUsuario().getId(), sessao)){
+                return new ResponseEntity(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+            }
+
             service.deletar(entity);
             return new ResponseEntity(HttpStatus.NO_CONTENT);
         }).orElseGet(() ->
                 new ResponseEntity("Lançamento não encontrado na base de Dados.", HttpStatus.BAD_REQUEST));
     }
 
-    private Lancamento converter(LancamentoDTO dto){
+    /**
+     * Sem If-Match (ou com {@code *}) não há pré-condição; do contrário o valor precisa ser a versão atual,
+     * a mesma devolvida no ETag do {@code GET /api/lancamentos/{id}}.
+     */
+    private boolean confereVersao(String ifMatch, Lancamento lancamento){
+        if (ifMatch == null || ifMatch.trim().equals("*")){
+            return true;
+        }
+        String esperada = ifMatch.trim();
+        if (esperada.length() > 1 && esperada.startsWith("\"") && esperada.endsWith("\"")){
+            esperada = esperada.substring(1, esperada.length() - 1);
+        }
+        return esperada.equals(String.valueOf(lancamento.getVersao()));
+    }
+
+    /**
+     * Com token, só o dono do lançamento pode lê-lo ou alterá-lo; sem token não há a quem comparar.
+     */
+    private boolean pertenceASessao(Long idUsuario, SessaoUsuario sessao){
+        return sessao == null || sessao.getId().equals(idUsuario);
+    }
+
+    private ResponseEntity<StreamingResponseBody> erroExportacao(String mensagem){
+        return ResponseEntity.badRequest()
+                .contentType(new MediaType("text", "plain", StandardCharsets.UTF_8))
+                .body(saida -> saida.write(mensagem.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String extensao(String nomeArquivo){
+        if (nomeArquivo == null || !nomeArquivo.contains(".")){
+            return "";
+        }
+        return nomeArquivo.substring(nomeArquivo.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Com token válido o usuário vem das claims já verificadas pelo {@code AutenticacaoTokenFilter}, sem ida ao banco;
+     * sem token mantém a consulta pelo id informado.
+     */
+    private Optional<Usuario> resolverUsuario(SessaoUsuario sessao, Long idUsuario){
+        if (sessao != null){
+            return Optional.of(Usuario.builder()
+                                      .id(sessao.getId())
+                                      .nome(sessao.getNome())
+                                      .email(sessao.getEmail())
+                                      .build());
+        }
+        if (idUsuario == null){
+            return Optional.empty();
+        }
+        return usuarioService.obterPorId(idUsuario);
+    }
+
+    private Long usuarioDaRequisicao(LancamentoDTO dto, SessaoUsuario sessao){
+        return sessao != null ? sessao.getId() : dto.getUsuario();
+    }
+
+    private Lancamento converter(LancamentoDTO dto, SessaoUsuario sessao){
         Lancamento lancamento = new Lancamento();
         lancamento.setId(dto.getId());
         lancamento.setDescricao(dto.getDescricao());
@@ -122,8 +409,11 @@ public class LancamentoResource {
         lancamento.setMes(dto.getMes());
         lancamento.setValor(dto.getValor());
 
-        Usuario usuario = usuarioService
-                .obterPorId(dto.getUsuario())
+        if (sessao != null && dto.getUsuario() != null && !sessao.getId().equals(dto.getUsuario())){
+            throw new RegraNegocioException("O usuário do lançamento não corresponde ao usuário autenticado.");
+        }
+
+        Usuario usuario = resolverUsuario(sessao, dto.getUsuario())
                 .orElseThrow( () -> new RegraNegocioException("Usuário não encontrado para o Id informado."));
 
         lancamento.setUsuario(usuario);
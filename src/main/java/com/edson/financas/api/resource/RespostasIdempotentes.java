@@ -0,0 +1,150 @@
+package com.edson.financas.api.resource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Respostas das escritas feitas com o cabeçalho {@code Idempotency-Key}, guardadas por usuário, operação e chave
+ * durante {@code financas.idempotencia.expiracao-horas}, até {@code maximo-chaves} chaves. A repetição de uma
+ * requisição já respondida recebe a mesma resposta, marcada com {@code Idempotent-Replayed}; a que chega enquanto
+ * a original ainda executa espera por ela, até {@code espera-segundos}. Respostas 5xx e exceções não ficam
+ * guardadas, para que o cliente possa repetir. O armazenamento é local a cada instância.
+ */
+@Component
+@NoArgsConstructor
+@AllArgsConstructor
+public class RespostasIdempotentes {
+
+    public static final String CABECALHO = "Idempotency-Key";
+
+    public static final String CABECALHO_REPETICAO = "Idempotent-Replayed";
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    @Value("${financas.idempotencia.maximo-chaves:100000}")
+    private long maximoChaves;
+
+    @Value("${financas.idempotencia.expiracao-horas:24}")
+    private long expiracaoHoras;
+
+    @Value("${financas.idempotencia.espera-segundos:30}")
+    private long esperaSegundos;
+
+    private Cache<Chave, Registro> registros;
+
+    private Counter repeticoes;
+
+    @PostConstruct
+    public void iniciar() {
+        registros = Caffeine.newBuilder()
+                            .maximumSize(maximoChaves)
+                            .expireAfterWrite(expiracaoHoras, TimeUnit.HOURS)
+                            .build();
+        repeticoes = Counter.builder("idempotencia.repeticoes").register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Sem chave a execução segue normalmente. Com chave, só a primeira requisição executa; {@code requisicao} é
+     * comparada com a original, e uma chave reaproveitada com outro conteúdo é recusada com 422.
+     */
+    public ResponseEntity executar(String chave, String operacao, Long idUsuario, Object requisicao,
+                                   Supplier<ResponseEntity> execucao) {
+        if (chave == null) {
+            return execucao.get();
+        }
+        if (chave.trim().isEmpty() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            return ResponseEntity.badRequest().body("Informe uma chave de idempotência com até 255 caracteres.");
+        }
+
+        Chave id = new Chave(chave, operacao, idUsuario);
+        Registro registro = new Registro(requisicao, new CompletableFuture<>());
+        Registro existente = registros.asMap().putIfAbsent(id, registro);
+        if (existente != null) {
+            return repetir(existente, requisicao);
+        }
+
+        try {
+            ResponseEntity resposta = execucao.get();
+            if (resposta.getStatusCode().is5xxServerError()) {
+                registros.asMap().remove(id, registro);
+            }
+            registro.resposta.complete(resposta);
+            return resposta;
+        } catch (Throwable e) {
+            // também com Error: sem isso a chave ficaria presa e as repetições esperariam até o fim do prazo
+            registros.asMap().remove(id, registro);
+            registro.resposta.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private ResponseEntity repetir(Registro registro, Object requisicao) {
+        if (!Objects.equals(registro.requisicao, requisicao)) {
+            return new ResponseEntity("A chave de idempotência já foi usada com outra requisição.",
+                                      HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+
+        ResponseEntity<?> resposta;
+        try {
+            resposta = registro.resposta.get(esperaSegundos, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            return new ResponseEntity("A requisição com esta chave de idempotência ainda está em processamento.",
+                                      HttpStatus.CONFLICT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ResponseEntity("A requisição com esta chave de idempotência ainda está em processamento.",
+                                      HttpStatus.CONFLICT);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+
+        repeticoes.increment();
+        HttpHeaders cabecalhos = new HttpHeaders();
+        cabecalhos.putAll(resposta.getHeaders());
+        cabecalhos.set(CABECALHO_REPETICAO, "true");
+        return new ResponseEntity(resposta.getBody(), cabecalhos, resposta.getStatusCode());
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Chave {
+
+        final String chave;
+
+        final String operacao;
+
+        final Long idUsuario;
+    }
+
+    @AllArgsConstructor
+    private static class Registro {
+
+        final Object requisicao;
+
+        final CompletableFuture<ResponseEntity> resposta;
+    }
+}
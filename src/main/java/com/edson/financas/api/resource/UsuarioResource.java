@@ -1,19 +1,36 @@
 package com.edson.financas.api.resource;
 
+import com.edson.financas.api.dto.ResumoAnualDTO;
+import com.edson.financas.api.dto.SessaoDTO;
+import com.edson.financas.api.dto.UsuarioCadastradoDTO;
 import com.edson.financas.api.dto.UsuarioDTO;
+import com.edson.financas.exception.AutenticacaoIndisponivelException;
 import com.edson.financas.exception.ErroAutenticacao;
 import com.edson.financas.exception.RegraNegocioException;
 import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.enums.AgrupamentoAnalise;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.SessaoUsuario;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.AnaliseService;
 import com.edson.financas.service.LancamentoService;
+import com.edson.financas.service.NotificacaoService;
+import com.edson.financas.service.ResumoService;
+import com.edson.financas.service.TokenService;
 import com.edson.financas.service.UsuarioService;
+import com.edson.financas.service.VersaoService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.math.BigDecimal;
-import java.util.Optional;
+import java.time.YearMonth;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/usuarios")
@@ -22,15 +39,28 @@ public class UsuarioResource {
 
     private final UsuarioService service;
     private final LancamentoService lancamentoService;
+    private final ResumoService resumoService;
+    private final TokenService tokenService;
+    private final VersaoService versaoService;
+    private final AnaliseService analiseService;
+    private final NotificacaoService notificacaoService;
 
     @PostMapping("/autenticar")
     public ResponseEntity autenticar(@RequestBody UsuarioDTO dto){
 
         try {
             Usuario usuarioAutenticado = service.autenticar(dto.getEmail(), dto.getSenha());
-            return ResponseEntity.ok(usuarioAutenticado);
+            SessaoDTO sessao = SessaoDTO.builder()
+                                        .id(usuarioAutenticado.getId())
+                                        .nome(usuarioAutenticado.getNome())
+                                        .email(usuarioAutenticado.getEmail())
+                                        .token(tokenService.emitir(usuarioAutenticado))
+                                        .build();
+            return ResponseEntity.ok(sessao);
         }catch (ErroAutenticacao e){
             return ResponseEntity.badRequest().body(e.getMessage());
+        }catch (AutenticacaoIndisponivelException e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
         }
     }
 
@@ -44,22 +74,134 @@ public class UsuarioResource {
 
         try {
             Usuario usuarioSalvo = service.salvarUsuario(usuario);
-            return new ResponseEntity(usuarioSalvo, HttpStatus.CREATED);
+            UsuarioCadastradoDTO cadastrado = UsuarioCadastradoDTO.builder()
+                                                                  .id(usuarioSalvo.getId())
+                                                                  .nome(usuarioSalvo.getNome())
+                                                                  .email(usuarioSalvo.getEmail())
+                                                                  .build();
+            return new ResponseEntity(cadastrado, HttpStatus.CREATED);
         }catch (RegraNegocioException e){
             return ResponseEntity.badRequest().body(e.getMessage());
+        }catch (AutenticacaoIndisponivelException e){
+            return new ResponseEntity(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
         }
     }
 
     @GetMapping("{id}/saldo")
-    public ResponseEntity obterSaldo(@PathVariable("id") Long id){
-        Optional<Usuario> usuario = service.obterPorId(id);
+    public ResponseEntity obterSaldo(@PathVariable("id") Long id,
+                                     @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao,
+                                     WebRequest request){
+        if (sessao != null && !sessao.getId().equals(id)){
+            return new ResponseEntity(HttpStatus.FORBIDDEN);
+        }
 
-        if (!usuario.isPresent()){
+        if (sessao == null && !service.obterPorId(id).isPresent()){
             return new ResponseEntity(HttpStatus.NOT_FOUND);
         }
 
-        BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(id);
+        if (request.checkNotModified(id + "-" + versaoService.obterVersao(id))){
+            return null;
+        }
+
+        Dinheiro saldo = lancamentoService.obterSaldoPorUsuario(id);
         return ResponseEntity.ok(saldo);
     }
 
+    @GetMapping("{id}/resumo")
+    public ResponseEntity obterResumo(@PathVariable("id") Long id, @RequestParam("ano") Integer ano,
+                                      @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
+        if (sessao != null && !sessao.getId().equals(id)){
+            return new ResponseEntity(HttpStatus.FORBIDDEN);
+        }
+
+        if (sessao == null && !service.obterPorId(id).isPresent()){
+            return new ResponseEntity(HttpStatus.NOT_FOUND);
+        }
+
+        ResumoAnualDTO resumo = ResumoAnualDTO.builder()
+                                              .usuario(id)
+                                              .ano(ano)
+                                              .meses(resumoService.obterResumoAnual(id, ano))
+                                              .build();
+        return ResponseEntity.ok(resumo);
+    }
+
+    /**
+     * Saldo, receitas e despesas do mês corrente, quantidade por status e últimos lançamentos numa só chamada.
+     */
+    @GetMapping("{id}/dashboard")
+    public ResponseEntity obterPainel(@PathVariable("id") Long id,
+                                      @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao,
+                                      WebRequest request){
+        if (sessao != null && !sessao.getId().equals(id)){
+            return new ResponseEntity(HttpStatus.FORBIDDEN);
+        }
+
+        if (sessao == null && !service.obterPorId(id).isPresent()){
+            return new ResponseEntity(HttpStatus.NOT_FOUND);
+        }
+
+        YearMonth referencia = YearMonth.now();
+        if (request.checkNotModified(id + "-" + versaoService.obterVersao(id) + "-" + referencia)){
+            return null;
+        }
+
+        return ResponseEntity.ok(lancamentoService.obterPainel(id, referencia));
+    }
+
+    /**
+     * Fluxo de Server-Sent Events com o saldo atual e, a cada escrita confirmada, um resumo da alteração e o novo
+     * saldo; substitui a consulta periódica de {@code /saldo}.
+     */
+    @GetMapping(value = "{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> inscrever(@PathVariable("id") Long id,
+                                                @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
+        if (sessao != null && !sessao.getId().equals(id)){
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+
+        if (sessao == null && !service.obterPorId(id).isPresent()){
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        return ResponseEntity.ok(notificacaoService.inscrever(id));
+    }
+
+    /**
+     * Totais dos lançamentos do usuário, filtrados por ano, mês, tipo e status. Com {@code agrupar} (mes, tipo ou
+     * status) responde um total por grupo.
+     */
+    @GetMapping("{id}/totais")
+    public ResponseEntity obterTotais(@PathVariable("id") Long id,
+                                      @RequestParam(value = "agrupar", required = false) String agrupar,
+                                      @RequestParam(value = "ano", required = false) Integer ano,
+                                      @RequestParam(value = "mes", required = false) Integer mes,
+                                      @RequestParam(value = "tipo", required = false) String tipo,
+                                      @RequestParam(value = "status", required = false) String status,
+                                      @RequestAttribute(name = SessaoUsuario.ATRIBUTO, required = false) SessaoUsuario sessao){
+        if (sessao != null && !sessao.getId().equals(id)){
+            return new ResponseEntity(HttpStatus.FORBIDDEN);
+        }
+
+        if (sessao == null && !service.obterPorId(id).isPresent()){
+            return new ResponseEntity(HttpStatus.NOT_FOUND);
+        }
+
+        AgrupamentoAnalise agrupamento;
+        TipoLancamento tipoLancamento;
+        StatusLancamento statusLancamento;
+        try {
+            agrupamento = agrupar == null ? null : AgrupamentoAnalise.valueOf(agrupar.toUpperCase(Locale.ROOT));
+            tipoLancamento = tipo == null ? null : TipoLancamento.valueOf(tipo.toUpperCase(Locale.ROOT));
+            statusLancamento = status == null ? null : StatusLancamento.valueOf(status.toUpperCase(Locale.ROOT));
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.badRequest().body("Agrupamento, tipo ou status inválido.");
+        }
+
+        if (agrupamento == null){
+            return ResponseEntity.ok(analiseService.totalizar(id, ano, mes, tipoLancamento, statusLancamento));
+        }
+        return ResponseEntity.ok(analiseService.agrupar(id, agrupamento, ano, mes, tipoLancamento, statusLancamento));
+    }
+
 }
@@ -0,0 +1,79 @@
+package com.edson.financas.config;
+
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.ResumoCalculado;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.LancamentosIncluidosEvent;
+import com.edson.financas.service.event.StatusLancamentosAlteradoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.event.EventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Garante que o usuário leia as próprias escritas enquanto a réplica ainda não as recebeu: durante
+ * {@code financas.replica.aderencia-segundos} depois de alterar lançamentos, as transações somente leitura da
+ * requisição feita em nome dele continuam no primário. O usuário da requisição é informado por
+ * {@link UsuarioDaRequisicaoInterceptor}.
+ */
+public class AderenciaPrimario {
+
+    private static final ThreadLocal<Long> USUARIO_DA_REQUISICAO = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> escritasRecentes;
+
+    public AderenciaPrimario(long janelaSegundos, long maximoUsuarios) {
+        this.escritasRecentes = Caffeine.newBuilder()
+                                        .maximumSize(maximoUsuarios)
+                                        .expireAfterWrite(janelaSegundos, TimeUnit.SECONDS)
+                                        .build();
+    }
+
+    public static void definirUsuario(Long idUsuario) {
+        if (idUsuario == null) {
+            USUARIO_DA_REQUISICAO.remove();
+        } else {
+            USUARIO_DA_REQUISICAO.set(idUsuario);
+        }
+    }
+
+    public static void limparUsuario() {
+        USUARIO_DA_REQUISICAO.remove();
+    }
+
+    @EventListener
+    public void aoAlterarLancamento(LancamentoAlteradoEvent event) {
+        registrar(event.getAnterior());
+        registrar(event.getAtual());
+    }
+
+    @EventListener
+    public void aoIncluirLancamentos(LancamentosIncluidosEvent event) {
+        event.getIncluidos().forEach(this::registrar);
+    }
+
+    @EventListener
+    public void aoAlterarStatus(StatusLancamentosAlteradoEvent event) {
+        event.getAnteriores().stream()
+             .map(ResumoCalculado::getIdUsuario)
+             .forEach(this::registrarEscrita);
+    }
+
+    public void registrarEscrita(Long idUsuario) {
+        if (idUsuario != null) {
+            escritasRecentes.put(idUsuario, Boolean.TRUE);
+        }
+    }
+
+    public boolean exigePrimario() {
+        Long idUsuario = USUARIO_DA_REQUISICAO.get();
+        return idUsuario != null && escritasRecentes.getIfPresent(idUsuario) != null;
+    }
+
+    private void registrar(LancamentoEstado estado) {
+        if (estado != null) {
+            registrarEscrita(estado.getIdUsuario());
+        }
+    }
+}
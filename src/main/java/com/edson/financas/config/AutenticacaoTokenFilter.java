@@ -0,0 +1,90 @@
+package com.edson.financas.config;
+
+import com.edson.financas.model.projection.SessaoUsuario;
+import com.edson.financas.service.TokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Valida o token {@code Authorization: Bearer} em memória e publica a {@link SessaoUsuario} como atributo da
+ * requisição, para que os endpoints resolvam o usuário sem consultar o banco. Um parâmetro {@code usuario}
+ * diferente do id do token é recusado. Com {@code financas.token.obrigatorio=true} o token passa a ser exigido
+ * em toda a {@code /api}, exceto no cadastro e na autenticação.
+ */
+@Component
+@Order(AutenticacaoTokenFilter.ORDEM)
+@RequiredArgsConstructor
+public class AutenticacaoTokenFilter extends OncePerRequestFilter {
+
+    public static final int ORDEM = Ordered.LOWEST_PRECEDENCE - 10;
+
+    private static final String PREFIXO = "Bearer ";
+
+    private final TokenService tokenService;
+
+    @Value("${financas.token.obrigatorio:false}")
+    private boolean obrigatorio;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String autorizacao = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+        if (autorizacao == null || !autorizacao.startsWith(PREFIXO)) {
+            if (obrigatorio && !isPublico(request)) {
+                recusar(response, HttpStatus.UNAUTHORIZED, "Token de autenticação não informado.");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Optional<SessaoUsuario> sessao = tokenService.validar(autorizacao.substring(PREFIXO.length()).trim());
+        if (!sessao.isPresent()) {
+            recusar(response, HttpStatus.UNAUTHORIZED, "Token inválido ou expirado.");
+            return;
+        }
+
+        String usuario = request.getParameter("usuario");
+        if (usuario != null && !usuario.equals(String.valueOf(sessao.get().getId()))) {
+            recusar(response, HttpStatus.FORBIDDEN, "O usuário informado não corresponde ao token.");
+            return;
+        }
+
+        request.setAttribute(SessaoUsuario.ATRIBUTO, sessao.get());
+        chain.doFilter(request, response);
+    }
+
+    private boolean isPublico(HttpServletRequest request) {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        return HttpMethod.POST.matches(request.getMethod())
+               && (caminho.equals("/api/usuarios") || caminho.equals("/api/usuarios/autenticar"));
+    }
+
+    private void recusar(HttpServletResponse response, HttpStatus status, String mensagem) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(new MediaType("text", "plain", StandardCharsets.UTF_8).toString());
+        response.getOutputStream().write(mensagem.getBytes(StandardCharsets.UTF_8));
+    }
+}
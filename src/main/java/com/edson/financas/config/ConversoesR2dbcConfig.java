@@ -0,0 +1,44 @@
+package com.edson.financas.config;
+
+import com.edson.financas.model.valor.Dinheiro;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversões da leitura reativa para os tipos de valor do modelo, que o R2DBC trataria como entidades aninhadas.
+ */
+@Configuration
+public class ConversoesR2dbcConfig {
+
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions(ConnectionFactory connectionFactory) {
+        return R2dbcCustomConversions.of(DialectResolver.getDialect(connectionFactory),
+                                         new LerDinheiro(), new GravarDinheiro());
+    }
+
+    @ReadingConverter
+    static class LerDinheiro implements Converter<BigDecimal, Dinheiro> {
+
+        @Override
+        public Dinheiro convert(BigDecimal valor) {
+            return Dinheiro.de(valor);
+        }
+    }
+
+    @WritingConverter
+    static class GravarDinheiro implements Converter<Dinheiro, BigDecimal> {
+
+        @Override
+        public BigDecimal convert(Dinheiro valor) {
+            return valor.toBigDecimal();
+        }
+    }
+}
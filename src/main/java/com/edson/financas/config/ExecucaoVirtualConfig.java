@@ -0,0 +1,63 @@
+package com.edson.financas.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Com {@code financas.execucao.modo=virtual} as requisições do Tomcat, as respostas assíncronas do MVC e as tarefas
+ * {@code @Async} rodam numa thread virtual por tarefa, e o limite de concorrência passa a ser o pool de conexões.
+ * A API de threads virtuais é obtida por reflexão para que o código continue compilando com {@code java.version} 11;
+ * o modo exige executar a aplicação num JDK 21 ou superior.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "financas.execucao", name = "modo", havingValue = "virtual")
+public class ExecucaoVirtualConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService executorVirtual() {
+        ExecutorService executor = criarExecutorVirtual("requisicao-virtual-");
+        log.info("Requisições e tarefas assíncronas em threads virtuais.");
+        return executor;
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> protocoloEmThreadsVirtuais(ExecutorService executorVirtual) {
+        return protocolHandler -> protocolHandler.setExecutor(executorVirtual);
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+                  AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor executorDeTarefas(ExecutorService executorVirtual) {
+        return new TaskExecutorAdapter(executorVirtual);
+    }
+
+    static ExecutorService criarExecutorVirtual(String prefixo) {
+        try {
+            Object construtor = Thread.class.getMethod("ofVirtual").invoke(null);
+            construtor = Class.forName("java.lang.Thread$Builder$OfVirtual")
+                              .getMethod("name", String.class, long.class)
+                              .invoke(construtor, prefixo, 0L);
+            ThreadFactory fabrica = (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+                                                         .getMethod("factory")
+                                                         .invoke(construtor);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                                                    .invoke(null, fabrica);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("financas.execucao.modo=virtual exige um JDK 21 ou superior; em execução: "
+                                            + System.getProperty("java.version"), e);
+        }
+    }
+}
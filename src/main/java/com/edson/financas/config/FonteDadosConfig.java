@@ -0,0 +1,61 @@
+package com.edson.financas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * O Spring Boot deixa de criar o {@code DataSource} quando existe um {@code ConnectionFactory} do R2DBC no
+ * contexto. Como a escrita continua no JPA, o pool JDBC é declarado aqui com as mesmas propriedades
+ * {@code spring.datasource.*} de antes.
+ * <p>
+ * Com {@code financas.replica.jdbc-url} configurado, um segundo pool aponta para a réplica e o
+ * {@code DataSource} usado pelo JPA passa a rotear as transações somente leitura para ela.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class FonteDadosConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        HikariDataSource dataSource = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("financas.replica")
+    @ConditionalOnProperty(prefix = "financas.replica", name = "jdbc-url")
+    public HikariDataSource dataSourceReplica() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "financas.replica", name = "jdbc-url")
+    public AderenciaPrimario aderenciaPrimario(@Value("${financas.replica.aderencia-segundos:5}") long janelaSegundos,
+                                               @Value("${financas.usuario.cache.tamanho-maximo:10000}") long maximoUsuarios) {
+        return new AderenciaPrimario(janelaSegundos, maximoUsuarios);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "financas.replica", name = "jdbc-url")
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario,
+                                 @Qualifier("dataSourceReplica") DataSource replica,
+                                 AderenciaPrimario aderencia) {
+        return new LazyConnectionDataSourceProxy(new RoteamentoDataSource(primario, replica, aderencia));
+    }
+}
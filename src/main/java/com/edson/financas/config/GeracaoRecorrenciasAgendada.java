@@ -0,0 +1,49 @@
+package com.edson.financas.config;
+
+import com.edson.financas.service.RecorrenciaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.YearMonth;
+
+/**
+ * Gera os lançamentos recorrentes do mês corrente todo dia no horário de {@code financas.recorrencia.cron} e,
+ * com {@code financas.recorrencia.gerar-na-inicializacao}, também na inicialização, o que não deve ficar ligado
+ * em várias instâncias que sobem juntas. A geração é idempotente: uma execução retoma a geração interrompida, e
+ * as diárias pegam os modelos cadastrados depois da primeira execução do mês.
+ */
+@Slf4j
+@Configuration
+@EnableScheduling
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "financas.recorrencia", name = "agendada", havingValue = "true")
+public class GeracaoRecorrenciasAgendada implements ApplicationRunner {
+
+    private final RecorrenciaService recorrenciaService;
+
+    @Value("${financas.recorrencia.gerar-na-inicializacao:false}")
+    private boolean gerarNaInicializacao;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (gerarNaInicializacao) {
+            gerarMesCorrente();
+        }
+    }
+
+    @Scheduled(cron = "${financas.recorrencia.cron:0 0 3 * * *}")
+    public void gerarMesCorrente() {
+        YearMonth competencia = YearMonth.now();
+        long inicio = System.nanoTime();
+        long gerados = recorrenciaService.gerar(competencia);
+        log.info("Geração de lançamentos recorrentes de {} concluída: {} lançamento(s) em {} ms.",
+                 competencia, gerados, (System.nanoTime() - inicio) / 1_000_000);
+    }
+}
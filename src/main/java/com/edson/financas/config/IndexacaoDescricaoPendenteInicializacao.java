@@ -0,0 +1,59 @@
+package com.edson.financas.config;
+
+import com.edson.financas.service.impl.IndiceDescricaoTrigrama;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Com o índice de trigramas, indexa em segundo plano os lançamentos que ainda não têm trigramas, como os
+ * incluídos antes de o índice existir, sem atrasar a subida da aplicação. Retoma de onde parou a cada subida e
+ * pode ser desligado com {@code financas.busca.indexar-pendentes-na-inicializacao=false}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "financas.busca", name = "indice-descricao", havingValue = "trigrama", matchIfMissing = true)
+public class IndexacaoDescricaoPendenteInicializacao implements ApplicationRunner {
+
+    private final IndiceDescricaoTrigrama indiceDescricao;
+
+    @Value("${financas.busca.indexar-pendentes-na-inicializacao:true}")
+    private boolean habilitada;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!habilitada) {
+            return;
+        }
+        CustomizableThreadFactory fabrica = new CustomizableThreadFactory("indexacao-descricao-");
+        fabrica.setDaemon(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor(fabrica);
+        executor.execute(this::indexarPendentes);
+        executor.shutdown();
+    }
+
+    void indexarPendentes() {
+        long inicio = System.nanoTime();
+        long lotes = 0;
+        try {
+            Long ultimoId = indiceDescricao.indexarPendentes(0L);
+            while (ultimoId != null) {
+                lotes++;
+                ultimoId = indiceDescricao.indexarPendentes(ultimoId);
+            }
+            log.info("Indexação das descrições pendentes concluída: {} lote(s) em {} ms.",
+                     lotes, (System.nanoTime() - inicio) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Indexação das descrições pendentes interrompida após {} lote(s).", lotes, e);
+        }
+    }
+}
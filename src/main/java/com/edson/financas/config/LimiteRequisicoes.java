@@ -0,0 +1,56 @@
+package com.edson.financas.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Baldes de fichas de uma classe de endpoint, guardados num vetor fixo de faixas: a chave escolhe a faixa pelo
+ * hash, e chaves que caem na mesma faixa dividem o limite. Cada faixa guarda só o instante em que o seu balde
+ * volta a ficar cheio e é atualizada por compare-and-set, sem travas e sem alocação por requisição.
+ */
+public class LimiteRequisicoes {
+
+    private final long intervaloNanos;
+
+    private final long rajadaNanos;
+
+    private final long origem = System.nanoTime();
+
+    private final AtomicLongArray faixas;
+
+    private final int mascara;
+
+    public LimiteRequisicoes(int capacidade, double porSegundo, int quantidadeFaixas) {
+        this.intervaloNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / porSegundo));
+        this.rajadaNanos = Math.multiplyExact(intervaloNanos, (long) capacidade);
+
+        int tamanho = 1;
+        while (tamanho < quantidadeFaixas) {
+            tamanho <<= 1;
+        }
+        this.faixas = new AtomicLongArray(tamanho);
+        this.mascara = tamanho - 1;
+    }
+
+    /**
+     * Retira uma ficha do balde da chave. Devolve zero quando havia ficha ou, sem ficha, quantos nanossegundos
+     * faltam para a próxima.
+     */
+    public long consumir(Object chave) {
+        int hash = chave.hashCode();
+        int faixa = (hash ^ (hash >>> 16)) & mascara;
+        long agora = System.nanoTime() - origem;
+
+        while (true) {
+            long cheio = faixas.get(faixa);
+            long novoCheio = Math.max(cheio, agora) + intervaloNanos;
+            long excesso = novoCheio - agora - rajadaNanos;
+            if (excesso > 0) {
+                return excesso;
+            }
+            if (faixas.compareAndSet(faixa, cheio, novoCheio)) {
+                return 0;
+            }
+        }
+    }
+}
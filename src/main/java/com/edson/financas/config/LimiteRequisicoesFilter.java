@@ -0,0 +1,152 @@
+package com.edson.financas.config;
+
+import com.edson.financas.model.projection.SessaoUsuario;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita as requisições às APIs de lançamentos, lançamentos recorrentes e usuários por cliente e por classe de
+ * endpoint, com os baldes de {@code financas.limite.<classe>.capacidade} fichas repostas a {@code .por-segundo}.
+ * Sem ficha a requisição é recusada antes de chegar ao banco, com 429 e {@code Retry-After}, e contada em
+ * {@code requisicoes.recusadas}. O cliente é o usuário do token, já validado pelo {@link AutenticacaoTokenFilter};
+ * sem token, o endereço de origem, já que um id informado na requisição pode ser trocado a cada chamada.
+ */
+@Component
+@Order(AutenticacaoTokenFilter.ORDEM + 1)
+public class LimiteRequisicoesFilter extends OncePerRequestFilter {
+
+    enum ClasseEndpoint {
+        LEITURA,
+        LEITURA_PESADA,
+        ESCRITA
+    }
+
+    private static final String[] PREFIXOS = {"/api/lancamentos", "/api/lancamentos-recorrentes",
+                                              "/api/reativo/lancamentos", "/api/usuarios"};
+
+    @Value("${financas.limite.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${financas.limite.faixas:65536}")
+    private int faixas;
+
+    @Value("${financas.limite.leitura.capacidade:100}")
+    private int capacidadeLeitura;
+
+    @Value("${financas.limite.leitura.por-segundo:50}")
+    private double porSegundoLeitura;
+
+    @Value("${financas.limite.leitura-pesada.capacidade:10}")
+    private int capacidadeLeituraPesada;
+
+    @Value("${financas.limite.leitura-pesada.por-segundo:1}")
+    private double porSegundoLeituraPesada;
+
+    @Value("${financas.limite.escrita.capacidade:50}")
+    private int capacidadeEscrita;
+
+    @Value("${financas.limite.escrita.por-segundo:20}")
+    private double porSegundoEscrita;
+
+    private Map<ClasseEndpoint, LimiteRequisicoes> limites;
+
+    private Map<ClasseEndpoint, Counter> recusadas;
+
+    @PostConstruct
+    public void iniciar() {
+        limites = new EnumMap<>(ClasseEndpoint.class);
+        limites.put(ClasseEndpoint.LEITURA, new LimiteRequisicoes(capacidadeLeitura, porSegundoLeitura, faixas));
+        limites.put(ClasseEndpoint.LEITURA_PESADA,
+                    new LimiteRequisicoes(capacidadeLeituraPesada, porSegundoLeituraPesada, faixas));
+        limites.put(ClasseEndpoint.ESCRITA, new LimiteRequisicoes(capacidadeEscrita, porSegundoEscrita, faixas));
+
+        recusadas = new EnumMap<>(ClasseEndpoint.class);
+        for (ClasseEndpoint classe : ClasseEndpoint.values()) {
+            recusadas.put(classe, Counter.builder("requisicoes.recusadas")
+                                         .tag("classe", classe.name().toLowerCase(Locale.ROOT))
+                                         .register(Metrics.globalRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!habilitado) {
+            return true;
+        }
+        String caminho = caminho(request);
+        for (String prefixo : PREFIXOS) {
+            if (dentroDe(caminho, prefixo)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ClasseEndpoint classe = classificar(request);
+        long esperaNanos = limites.get(classe).consumir(identificar(request));
+        if (esperaNanos > 0) {
+            recusadas.get(classe).increment();
+            long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+            response.setContentType(new MediaType("text", "plain", StandardCharsets.UTF_8).toString());
+            response.getOutputStream().write("Limite de requisições excedido. Tente novamente em instantes."
+                                                     .getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * As leituras pesadas percorrem todos os lançamentos de um usuário ou da base.
+     */
+    private ClasseEndpoint classificar(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return ClasseEndpoint.ESCRITA;
+        }
+        String caminho = caminho(request);
+        if (caminho.endsWith("/buscar-todos") || caminho.endsWith("/export") || caminho.endsWith("/totais")) {
+            return ClasseEndpoint.LEITURA_PESADA;
+        }
+        return ClasseEndpoint.LEITURA;
+    }
+
+    private String identificar(HttpServletRequest request) {
+        Object sessao = request.getAttribute(SessaoUsuario.ATRIBUTO);
+        if (sessao instanceof SessaoUsuario) {
+            return "usuario:" + ((SessaoUsuario) sessao).getId();
+        }
+        return "endereco:" + request.getRemoteAddr();
+    }
+
+    private static boolean dentroDe(String caminho, String prefixo) {
+        return caminho.equals(prefixo) || caminho.startsWith(prefixo + "/");
+    }
+
+    private static String caminho(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
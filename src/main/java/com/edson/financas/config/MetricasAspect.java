@@ -0,0 +1,130 @@
+package com.edson.financas.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Tempo de cada método dos serviços de lançamento e usuário ({@code financas.servico}) e de cada consulta
+ * do {@code LancamentoRepository} ({@code financas.repositorio}), com o número de linhas devolvidas em
+ * {@code financas.repositorio.linhas}. A latência por endpoint vem do {@code http.server.requests} do actuator.
+ * Os medidores ficam guardados por método, sem montar tags nem consultar o registro a cada chamada; só as
+ * chamadas que terminam em exceção, raras, montam a chave com a classe da exceção.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MetricasAspect {
+
+    private final MeterRegistry registry;
+
+    private final Map<Method, Timer> temposPorMetodo = new ConcurrentHashMap<>();
+
+    private final Map<List<Object>, Timer> temposComExcecao = new ConcurrentHashMap<>();
+
+    private final Map<Method, DistributionSummary> linhasPorMetodo = new ConcurrentHashMap<>();
+
+    @Around("execution(* com.edson.financas.service.LancamentoService.*(..))"
+            + " || execution(* com.edson.financas.service.UsuarioService.*(..))")
+    public Object medirServico(ProceedingJoinPoint joinPoint) throws Throwable {
+        String servico = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        return medir("financas.servico", joinPoint, "servico", servico);
+    }
+
+    @Around("target(com.edson.financas.model.repository.LancamentoRepository)"
+            + " && execution(public * *(..)) && !execution(* java.lang.Object.*(..))")
+    public Object medirRepositorio(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object resultado = medir("financas.repositorio", joinPoint, "repositorio", "LancamentoRepository");
+        return contarLinhas(((MethodSignature) joinPoint.getSignature()).getMethod(), resultado);
+    }
+
+    private Object medir(String nome, ProceedingJoinPoint joinPoint, String chave, String valor) throws Throwable {
+        Method metodo = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timer.Sample inicio = Timer.start(registry);
+        try {
+            Object resultado = joinPoint.proceed();
+            inicio.stop(tempo(nome, chave, valor, metodo));
+            return resultado;
+        } catch (Throwable e) {
+            String excecao = e.getClass().getSimpleName();
+            inicio.stop(temposComExcecao.computeIfAbsent(Arrays.asList(metodo, excecao),
+                                                         k -> registrarTempo(nome, chave, valor, metodo, excecao)));
+            throw e;
+        }
+    }
+
+    private Timer tempo(String nome, String chave, String valor, Method metodo) {
+        Timer tempo = temposPorMetodo.get(metodo);
+        if (tempo == null) {
+            tempo = temposPorMetodo.computeIfAbsent(metodo, m -> registrarTempo(nome, chave, valor, m, "none"));
+        }
+        return tempo;
+    }
+
+    private Timer registrarTempo(String nome, String chave, String valor, Method metodo, String excecao) {
+        return Timer.builder(nome)
+                    .tag(chave, valor)
+                    .tag("metodo", metodo.getName())
+                    .tag("excecao", excecao)
+                    .publishPercentileHistogram()
+                    .register(registry);
+    }
+
+    /**
+     * Streams só têm o total conhecido ao serem fechados; a contagem é registrada nesse momento. O stream do
+     * Hibernate não repassa handlers de {@code onClose}, por isso é envolvido num stream que o fecha.
+     */
+    private Object contarLinhas(Method metodo, Object resultado) {
+        DistributionSummary linhas = linhas(metodo);
+        if (resultado instanceof Collection) {
+            linhas.record(((Collection<?>) resultado).size());
+        } else if (resultado instanceof Optional) {
+            linhas.record(((Optional<?>) resultado).isPresent() ? 1 : 0);
+        } else if (resultado instanceof Integer) {
+            linhas.record((Integer) resultado);
+        } else if (resultado instanceof Stream) {
+            Stream<?> original = (Stream<?>) resultado;
+            AtomicLong contador = new AtomicLong();
+            return StreamSupport.stream(original.spliterator(), false)
+                                .peek(linha -> contador.incrementAndGet())
+                                .onClose(() -> {
+                                    try {
+                                        original.close();
+                                    } finally {
+                                        linhas.record(contador.get());
+                                    }
+                                });
+        } else if (resultado != null && !(resultado instanceof Number)) {
+            linhas.record(1);
+        }
+        return resultado;
+    }
+
+    private DistributionSummary linhas(Method metodo) {
+        DistributionSummary linhas = linhasPorMetodo.get(metodo);
+        if (linhas == null) {
+            linhas = linhasPorMetodo.computeIfAbsent(metodo, m -> DistributionSummary.builder("financas.repositorio.linhas")
+                                                                                     .tag("repositorio", "LancamentoRepository")
+                                                                                     .tag("metodo", m.getName())
+                                                                                     .register(registry));
+        }
+        return linhas;
+    }
+}
@@ -0,0 +1,24 @@
+package com.edson.financas.config;
+
+import com.edson.financas.service.IndiceDescricao;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "financas.busca", name = "reconstruir-indice-na-inicializacao", havingValue = "true")
+public class ReconstrucaoIndiceDescricaoInicializacao implements ApplicationRunner {
+
+    private final IndiceDescricao indiceDescricao;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        indiceDescricao.reconstruir();
+        log.info("Índice de descrição dos lançamentos reconstruído.");
+    }
+}
@@ -0,0 +1,24 @@
+package com.edson.financas.config;
+
+import com.edson.financas.service.ResumoService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "financas.resumo", name = "reconstruir-na-inicializacao", havingValue = "true")
+public class ReconstrucaoResumoInicializacao implements ApplicationRunner {
+
+    private final ResumoService resumoService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        resumoService.reconstruirResumos();
+        log.info("Resumos mensais reconstruídos a partir dos lançamentos.");
+    }
+}
@@ -0,0 +1,24 @@
+package com.edson.financas.config;
+
+import com.edson.financas.api.resource.LancamentoReativoHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * Rotas funcionais do caminho de leitura reativo. Ficam fora de {@code /api/lancamentos} para não disputar
+ * com o mapeamento {@code /{id}} do {@code LancamentoResource}, mas continuam sob {@code /api} e passam pelo
+ * filtro de token.
+ */
+@Configuration
+public class RotasReativasConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> rotasLeituraReativa(LancamentoReativoHandler handler) {
+        return RouterFunctions.route()
+                .GET("/api/reativo/lancamentos", handler::buscar)
+                .build();
+    }
+}
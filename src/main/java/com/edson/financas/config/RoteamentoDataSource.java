@@ -0,0 +1,41 @@
+package com.edson.financas.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Envia as transações {@code readOnly} para a réplica e todo o resto para o primário. A decisão depende da
+ * transação já estar sincronizada quando a conexão é pedida, por isso o roteamento só é usado por trás de um
+ * {@code LazyConnectionDataSourceProxy}, que adia a obtenção da conexão até o primeiro comando.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    enum Destino {
+        PRIMARIO,
+        REPLICA
+    }
+
+    private final AderenciaPrimario aderencia;
+
+    public RoteamentoDataSource(DataSource primario, DataSource replica, AderenciaPrimario aderencia) {
+        this.aderencia = aderencia;
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(Destino.PRIMARIO, primario);
+        destinos.put(Destino.REPLICA, replica);
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !aderencia.exigePrimario()) {
+            return Destino.REPLICA;
+        }
+        return Destino.PRIMARIO;
+    }
+}
@@ -0,0 +1,68 @@
+package com.edson.financas.config;
+
+import com.edson.financas.model.projection.SessaoUsuario;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+/**
+ * Informa à {@link AderenciaPrimario} em nome de qual usuário a requisição lê: o da sessão, quando há token;
+ * senão a variável de caminho {@code usuario}, ou {@code id} sob {@code /api/usuarios}; por último o parâmetro
+ * {@code usuario}.
+ */
+public class UsuarioDaRequisicaoInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PREFIXO_USUARIOS = "/api/usuarios/";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        AderenciaPrimario.definirUsuario(resolverUsuario(request));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        AderenciaPrimario.limparUsuario();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        AderenciaPrimario.limparUsuario();
+    }
+
+    private static Long resolverUsuario(HttpServletRequest request) {
+        Object sessao = request.getAttribute(SessaoUsuario.ATRIBUTO);
+        if (sessao instanceof SessaoUsuario) {
+            return ((SessaoUsuario) sessao).getId();
+        }
+        String usuario = variavelDeCaminho(request);
+        if (usuario == null) {
+            usuario = request.getParameter("usuario");
+        }
+        if (usuario == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(usuario);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String variavelDeCaminho(HttpServletRequest request) {
+        Object atributo = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (!(atributo instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> variaveis = (Map<?, ?>) atributo;
+        Object usuario = variaveis.get("usuario");
+        if (usuario == null && request.getRequestURI().substring(request.getContextPath().length())
+                                      .startsWith(PREFIXO_USUARIOS)) {
+            usuario = variaveis.get("id");
+        }
+        return usuario == null ? null : usuario.toString();
+    }
+}
@@ -0,0 +1,30 @@
+package com.edson.financas.config;
+
+import com.edson.financas.model.projection.DivergenciaSaldo;
+import com.edson.financas.service.SaldoService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "financas.saldo", name = "verificar-na-inicializacao", havingValue = "true")
+public class VerificacaoSaldoInicializacao implements ApplicationRunner {
+
+    private final SaldoService saldoService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<DivergenciaSaldo> divergencias = saldoService.verificarSaldos(true);
+        divergencias.forEach(divergencia ->
+                log.warn("Saldo do usuário {} divergente: armazenado {}, calculado {}. Saldo corrigido.",
+                         divergencia.getIdUsuario(), divergencia.getSaldoArmazenado(), divergencia.getSaldoCalculado()));
+        log.info("Verificação de saldos concluída com {} divergência(s).", divergencias.size());
+    }
+}
@@ -0,0 +1,8 @@
+package com.edson.financas.exception;
+
+public class AutenticacaoIndisponivelException extends RuntimeException {
+
+    public AutenticacaoIndisponivelException(String mensagem) {
+        super(mensagem);
+    }
+}
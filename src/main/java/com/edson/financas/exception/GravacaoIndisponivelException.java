@@ -0,0 +1,8 @@
+package com.edson.financas.exception;
+
+public class GravacaoIndisponivelException extends RuntimeException {
+
+    public GravacaoIndisponivelException(String mensagem) {
+        super(mensagem);
+    }
+}
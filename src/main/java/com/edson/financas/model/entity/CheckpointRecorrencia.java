@@ -0,0 +1,45 @@
+package com.edson.financas.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+
+/**
+ * Progresso da geração dos lançamentos recorrentes de um mês numa faixa de ids de usuário: o último modelo
+ * processado é gravado na mesma transação que os lançamentos gerados a partir dele. Modelos criados depois
+ * recebem ids maiores e entram na próxima execução.
+ */
+@Entity
+@Table(name = "checkpoint_recorrencia", schema = "financas",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"ano", "mes", "faixa"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckpointRecorrencia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "ano")
+    private Integer ano;
+
+    @Column(name = "mes")
+    private Integer mes;
+
+    @Column(name = "faixa")
+    private Long faixa;
+
+    @Column(name = "ultimo_id_recorrente")
+    private Long ultimoIdRecorrente;
+
+    @Column(name = "gerados")
+    private Long gerados;
+
+}
@@ -2,6 +2,8 @@ package com.edson.financas.model.entity;
 
 import com.edson.financas.model.enums.StatusLancamento;
 import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.model.valor.DinheiroConverter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,12 +11,15 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
 
 import javax.persistence.*;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 
 @Entity
-@Table(name = "lancamento", schema = "financas")
+@Table(name = "lancamento", schema = "financas",
+       indexes = {@Index(name = "uq_lancamento_usuario_hash", columnList = "id_usuario, hash_importacao", unique = true),
+                  @Index(name = "idx_lancamento_usuario_ano_mes", columnList = "id_usuario, ano, mes"),
+                  @Index(name = "idx_lancamento_usuario_tipo", columnList = "id_usuario, tipo")},
+       uniqueConstraints = @UniqueConstraint(name = "uq_lancamento_recorrente_mes", columnNames = {"id_recorrente", "ano", "mes"}))
 @Data
 @Builder
 @NoArgsConstructor
@@ -22,7 +27,8 @@ import java.time.LocalDate;
 public class Lancamento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq")
+    @SequenceGenerator(name = "lancamento_seq", schema = "financas", sequenceName = "lancamento_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -40,9 +46,10 @@ public class Lancamento {
     private Usuario usuario;
 
     @Column(name = "valor")
-    private BigDecimal valor;
+    @Convert(converter = DinheiroConverter.class)
+    private Dinheiro valor;
 
-    @Column(name = "data_cadastro")
+    @Column(name = "data_cadastro", columnDefinition = "date")
     @Convert(converter = Jsr310JpaConverters.LocalDateConverter.class)
     private LocalDate dataCadastro;
 
@@ -54,4 +61,14 @@ public class Lancamento {
     @Enumerated(value = EnumType.STRING)
     private StatusLancamento status;
 
+    @Column(name = "hash_importacao", length = 64)
+    private String hashImportacao;
+
+    @Column(name = "id_recorrente")
+    private Long idRecorrente;
+
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
 }
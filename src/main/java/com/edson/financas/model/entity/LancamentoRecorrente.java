@@ -0,0 +1,61 @@
+package com.edson.financas.model.entity;
+
+import com.edson.financas.model.enums.Periodicidade;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.model.valor.DinheiroConverter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+
+/**
+ * Modelo de um lançamento que se repete (aluguel, salário, assinatura): a partir do mês de início, a cada
+ * {@link Periodicidade} é gerado um {@link Lancamento} com data de cadastro no dia informado do mês.
+ */
+@Entity
+@Table(name = "lancamento_recorrente", schema = "financas",
+       indexes = @Index(name = "idx_lancamento_recorrente_usuario", columnList = "id_usuario, id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LancamentoRecorrente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "id_usuario")
+    private Usuario usuario;
+
+    @Column(name = "descricao")
+    private String descricao;
+
+    @Column(name = "valor")
+    @Convert(converter = DinheiroConverter.class)
+    private Dinheiro valor;
+
+    @Column(name = "tipo")
+    @Enumerated(value = EnumType.STRING)
+    private TipoLancamento tipo;
+
+    @Column(name = "dia")
+    private Integer dia;
+
+    @Column(name = "periodicidade")
+    @Enumerated(value = EnumType.STRING)
+    private Periodicidade periodicidade;
+
+    @Column(name = "mes_inicio")
+    private Integer mesInicio;
+
+    @Column(name = "ano_inicio")
+    private Integer anoInicio;
+
+}
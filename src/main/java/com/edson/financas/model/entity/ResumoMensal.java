@@ -0,0 +1,53 @@
+package com.edson.financas.model.entity;
+
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.model.valor.DinheiroConverter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+
+@Entity
+@Table(name = "resumo_mensal", schema = "financas",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"id_usuario", "ano", "mes", "tipo", "status"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMensal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "ano")
+    private Integer ano;
+
+    @Column(name = "mes")
+    private Integer mes;
+
+    @Column(name = "tipo")
+    @Enumerated(value = EnumType.STRING)
+    private TipoLancamento tipo;
+
+    @Column(name = "status")
+    @Enumerated(value = EnumType.STRING)
+    private StatusLancamento status;
+
+    @Column(name = "total")
+    @Convert(converter = DinheiroConverter.class)
+    private Dinheiro total;
+
+    @Column(name = "quantidade")
+    private Long quantidade;
+
+}
@@ -0,0 +1,41 @@
+package com.edson.financas.model.entity;
+
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.model.valor.DinheiroConverter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+
+@Entity
+@Table(name = "saldo_usuario", schema = "financas")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoUsuario {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "receitas")
+    @Convert(converter = DinheiroConverter.class)
+    private Dinheiro receitas;
+
+    @Column(name = "despesas")
+    @Convert(converter = DinheiroConverter.class)
+    private Dinheiro despesas;
+
+    public Dinheiro getSaldo() {
+        return receitas.subtrair(despesas);
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.edson.financas.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+
+@Entity
+@Table(name = "trigrama_descricao", schema = "financas",
+       indexes = {@Index(name = "idx_trigrama_usuario_trigrama", columnList = "id_usuario, trigrama"),
+                  @Index(name = "idx_trigrama_lancamento", columnList = "id_lancamento")})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrigramaDescricao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trigrama_descricao_seq")
+    @SequenceGenerator(name = "trigrama_descricao_seq", schema = "financas", sequenceName = "trigrama_descricao_seq",
+                       allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "trigrama", length = 3)
+    private String trigrama;
+
+    @Column(name = "id_lancamento")
+    private Long idLancamento;
+
+}
@@ -9,7 +9,8 @@ import javax.persistence.*;
 
 
 @Entity
-@Table(name = "usuario", schema = "financas")
+@Table(name = "usuario", schema = "financas",
+       uniqueConstraints = @UniqueConstraint(name = "uq_usuario_email", columnNames = "email"))
 @Builder
 @Data
 @NoArgsConstructor
@@ -0,0 +1,8 @@
+package com.edson.financas.model.enums;
+
+public enum AgrupamentoAnalise {
+
+    MES,
+    TIPO,
+    STATUS
+}
@@ -0,0 +1,7 @@
+package com.edson.financas.model.enums;
+
+public enum FormatoExportacao {
+
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,7 @@
+package com.edson.financas.model.enums;
+
+public enum FormatoExtrato {
+
+    CSV,
+    OFX
+}
@@ -0,0 +1,10 @@
+package com.edson.financas.model.enums;
+
+public enum OperacaoLancamento {
+
+    INCLUSAO,
+    ALTERACAO,
+    EXCLUSAO,
+    INCLUSAO_EM_LOTE,
+    STATUS_EM_LOTE
+}
@@ -0,0 +1,38 @@
+package com.edson.financas.model.projection;
+
+import com.edson.financas.model.enums.OperacaoLancamento;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.valor.Dinheiro;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Registro resumido de uma escrita enviado aos clientes conectados. Numa inclusão ou atualização de status em lote
+ * vem um registro por mês, tipo e status, sem {@code id}, com a soma e a quantidade dos lançamentos do lote.
+ */
+@Value
+@AllArgsConstructor
+public class AlteracaoLancamento {
+
+    OperacaoLancamento operacao;
+
+    Long id;
+
+    Integer ano;
+
+    Integer mes;
+
+    TipoLancamento tipo;
+
+    StatusLancamento status;
+
+    Dinheiro valor;
+
+    Long quantidade;
+
+    public static AlteracaoLancamento of(OperacaoLancamento operacao, LancamentoEstado estado) {
+        return new AlteracaoLancamento(operacao, estado.getId(), estado.getAno(), estado.getMes(), estado.getTipo(),
+                                       estado.getStatus(), estado.getValor(), 1l);
+    }
+}
@@ -0,0 +1,46 @@
+package com.edson.financas.model.projection;
+
+import com.edson.financas.exception.RegraNegocioException;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição de continuação da busca paginada, ordenada por (ano, mes, id).
+ */
+@Value
+@AllArgsConstructor
+public class CursorLancamento {
+
+    public static final CursorLancamento INICIO = new CursorLancamento(Integer.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE);
+
+    Integer ano;
+
+    Integer mes;
+
+    Long id;
+
+    public static CursorLancamento apos(LancamentoVisao lancamento) {
+        return new CursorLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+    }
+
+    public String codificar() {
+        String valor = ano + ":" + mes + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorLancamento decodificar(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return INICIO;
+        }
+
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            return new CursorLancamento(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]), Long.valueOf(partes[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new RegraNegocioException("Cursor de paginação inválido.");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.edson.financas.model.projection;
+
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.valor.Dinheiro;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+
+@Value
+@AllArgsConstructor
+public class LancamentoEstado {
+
+    Long id;
+
+    Long idUsuario;
+
+    String descricao;
+
+    Integer ano;
+
+    Integer mes;
+
+    TipoLancamento tipo;
+
+    StatusLancamento status;
+
+    Dinheiro valor;
+
+    public static LancamentoEstado of(Lancamento lancamento) {
+        Long idUsuario = lancamento.getUsuario() != null ? lancamento.getUsuario().getId() : null;
+        return new LancamentoEstado(lancamento.getId(), idUsuario, lancamento.getDescricao(), lancamento.getAno(),
+                                    lancamento.getMes(), lancamento.getTipo(), lancamento.getStatus(), lancamento.getValor());
+    }
+}
@@ -0,0 +1,46 @@
+package com.edson.financas.model.projection;
+
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.valor.Dinheiro;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Visão de leitura do lançamento servida pela API. Referencia o usuário apenas pelo id, lido da própria
+ * chave estrangeira, sem junção com a tabela de usuários.
+ */
+@Value
+@AllArgsConstructor
+public class LancamentoVisao {
+
+    Long id;
+
+    String descricao;
+
+    Integer mes;
+
+    Integer ano;
+
+    Dinheiro valor;
+
+    TipoLancamento tipo;
+
+    StatusLancamento status;
+
+    LocalDate dataCadastro;
+
+    Long usuario;
+
+    Long versao;
+
+    public static LancamentoVisao of(Lancamento lancamento) {
+        Long idUsuario = lancamento.getUsuario() != null ? lancamento.getUsuario().getId() : null;
+        return new LancamentoVisao(lancamento.getId(), lancamento.getDescricao(), lancamento.getMes(), lancamento.getAno(),
+                                   lancamento.getValor(), lancamento.getTipo(), lancamento.getStatus(),
+                                   lancamento.getDataCadastro(), idUsuario, lancamento.getVersao());
+    }
+}
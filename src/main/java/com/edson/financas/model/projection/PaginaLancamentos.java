@@ -0,0 +1,16 @@
+package com.edson.financas.model.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@AllArgsConstructor
+public class PaginaLancamentos {
+
+    List<LancamentoVisao> itens;
+
+    String proximoCursor;
+
+}
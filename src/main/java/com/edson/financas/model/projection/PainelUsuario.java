@@ -0,0 +1,31 @@
+package com.edson.financas.model.projection;
+
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.valor.Dinheiro;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+@Value
+@AllArgsConstructor
+public class PainelUsuario {
+
+    Long usuario;
+
+    Integer ano;
+
+    Integer mes;
+
+    Dinheiro saldo;
+
+    Dinheiro receitasMes;
+
+    Dinheiro despesasMes;
+
+    Map<StatusLancamento, Long> quantidadePorStatus;
+
+    List<LancamentoVisao> ultimosLancamentos;
+
+}
@@ -0,0 +1,28 @@
+package com.edson.financas.model.projection;
+
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.valor.Dinheiro;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+
+@Value
+@AllArgsConstructor
+public class ResumoCalculado {
+
+    Long idUsuario;
+
+    Integer ano;
+
+    Integer mes;
+
+    TipoLancamento tipo;
+
+    StatusLancamento status;
+
+    Dinheiro total;
+
+    Long quantidade;
+
+}
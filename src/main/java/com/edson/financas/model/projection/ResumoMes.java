@@ -0,0 +1,24 @@
+package com.edson.financas.model.projection;
+
+import com.edson.financas.model.valor.Dinheiro;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+
+@Value
+@AllArgsConstructor
+public class ResumoMes {
+
+    Integer mes;
+
+    Dinheiro receitas;
+
+    Dinheiro despesas;
+
+    Dinheiro saldo;
+
+    Long quantidadeLancamentos;
+
+    Long quantidadePendentes;
+
+}
@@ -0,0 +1,18 @@
+package com.edson.financas.model.projection;
+
+import com.edson.financas.model.valor.Dinheiro;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+
+@Value
+@AllArgsConstructor
+public class SaldoCalculado {
+
+    Long idUsuario;
+
+    Dinheiro receitas;
+
+    Dinheiro despesas;
+
+}
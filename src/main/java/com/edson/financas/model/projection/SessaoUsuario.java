@@ -0,0 +1,25 @@
+package com.edson.financas.model.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Usuário autenticado, obtido das claims do token sem consulta ao banco.
+ */
+@Value
+@AllArgsConstructor
+public class SessaoUsuario {
+
+    public static final String ATRIBUTO = "com.edson.financas.sessao";
+
+    Long id;
+
+    String nome;
+
+    String email;
+
+    Instant expiraEm;
+
+}
@@ -0,0 +1,29 @@
+package com.edson.financas.model.projection;
+
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.valor.Dinheiro;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+
+/**
+ * Soma e quantidade de lançamentos de um grupo. Só vêm preenchidas as dimensões do agrupamento ou do filtro.
+ */
+@Value
+@AllArgsConstructor
+public class TotalAnalitico {
+
+    Integer ano;
+
+    Integer mes;
+
+    TipoLancamento tipo;
+
+    StatusLancamento status;
+
+    Dinheiro total;
+
+    Long quantidade;
+
+}
@@ -0,0 +1,28 @@
+package com.edson.financas.model.projection;
+
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.valor.Dinheiro;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+
+/**
+ * Totais dos lançamentos do usuário num status: receitas e despesas de todos os meses e só do mês de referência.
+ */
+@Value
+@AllArgsConstructor
+public class TotalPorStatus {
+
+    StatusLancamento status;
+
+    Long quantidade;
+
+    Dinheiro receitas;
+
+    Dinheiro despesas;
+
+    Dinheiro receitasMes;
+
+    Dinheiro despesasMes;
+
+}
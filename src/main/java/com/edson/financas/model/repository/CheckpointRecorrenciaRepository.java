@@ -0,0 +1,25 @@
+package com.edson.financas.model.repository;
+
+import com.edson.financas.model.entity.CheckpointRecorrencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+public interface CheckpointRecorrenciaRepository extends JpaRepository<CheckpointRecorrencia, Long> {
+
+    boolean existsByAnoAndMesAndFaixa(Integer ano, Integer mes, Long faixa);
+
+    /**
+     * Bloqueia a faixa até o fim da transação: outra instância gerando o mesmo mês espera e continua do checkpoint.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = " select c from CheckpointRecorrencia c where c.ano = :ano and c.mes = :mes and c.faixa = :faixa ")
+    Optional<CheckpointRecorrencia> obterParaAtualizacao(@Param("ano") Integer ano,
+                                                         @Param("mes") Integer mes,
+                                                         @Param("faixa") Long faixa);
+
+}
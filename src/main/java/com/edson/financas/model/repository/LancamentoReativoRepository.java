@@ -0,0 +1,29 @@
+package com.edson.financas.model.repository;
+
+import com.edson.financas.model.projection.LancamentoVisao;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+
+/**
+ * Caminho de leitura não bloqueante sobre a mesma tabela do {@link LancamentoRepository}. Só consultas
+ * declaradas aqui devem ser usadas: as gravações continuam no JPA, que mantém saldo, resumo e versões.
+ */
+public interface LancamentoReativoRepository extends R2dbcRepository<LancamentoVisao, Long> {
+
+    String VISAO =
+            " select l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.data_cadastro, "
+           +" l.id_usuario as usuario, l.versao from financas.lancamento l ";
+
+    @Query(value = VISAO
+           +" where l.id_usuario = :idUsuario "
+           +" and (:ano is null or l.ano = :ano) and (:mes is null or l.mes = :mes) "
+           +" and (:descricao is null or lower(l.descricao) like :descricao) "
+           +" order by l.ano, l.mes, l.id ")
+    Flux<LancamentoVisao> buscar(@Param("idUsuario") Long idUsuario,
+                                 @Param("ano") Integer ano,
+                                 @Param("mes") Integer mes,
+                                 @Param("descricao") String descricao);
+
+}
@@ -0,0 +1,34 @@
+package com.edson.financas.model.repository;
+
+import com.edson.financas.model.entity.LancamentoRecorrente;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface LancamentoRecorrenteRepository extends JpaRepository<LancamentoRecorrente, Long> {
+
+    List<LancamentoRecorrente> findByUsuarioIdOrderById(Long idUsuario);
+
+    @Query(value = " select max(r.usuario.id) from LancamentoRecorrente r ")
+    Optional<Long> obterMaiorIdUsuario();
+
+    @Query(value = " select min(r.usuario.id) from LancamentoRecorrente r ")
+    Optional<Long> obterMenorIdUsuario();
+
+    /**
+     * Próximo trecho de modelos de uma faixa de usuários, em ordem de id para que o checkpoint seja só o último id.
+     */
+    @Query(value =
+            " select r from LancamentoRecorrente r join fetch r.usuario u "
+           +" where u.id between :idUsuarioInicial and :idUsuarioFinal and r.id > :idRecorrente "
+           +" order by r.id ")
+    List<LancamentoRecorrente> listarDaFaixaAposId(@Param("idUsuarioInicial") Long idUsuarioInicial,
+                                                   @Param("idUsuarioFinal") Long idUsuarioFinal,
+                                                   @Param("idRecorrente") Long idRecorrente,
+                                                   Pageable pageable);
+
+}
@@ -1,18 +1,275 @@
 package com.edson.financas.model.repository;
 
 import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.enums.StatusLancamento;
 import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.LancamentoVisao;
+import com.edson.financas.model.projection.ResumoCalculado;
+import com.edson.financas.model.projection.SaldoCalculado;
+import com.edson.financas.model.projection.TotalPorStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
 
+    /**
+     * Padrão {@code like} das consultas por trecho da descrição, que declaram {@code escape '\'}: o trecho vai em
+     * minúsculas e os curingas {@code %} e {@code _} digitados pelo usuário valem como texto.
+     */
+    static String contendo(String trecho) {
+        String minusculo = trecho.toLowerCase(Locale.ROOT);
+        StringBuilder padrao = new StringBuilder(minusculo.length() + 2).append('%');
+        for (int i = 0; i < minusculo.length(); i++) {
+            char c = minusculo.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                padrao.append('\\');
+            }
+            padrao.append(c);
+        }
+        return padrao.append('%').toString();
+    }
+
+    String SOMA_POR_TIPO =
+            " select new com.edson.financas.model.projection.SaldoCalculado(u.id, "
+           +" sum(case when l.tipo = com.edson.financas.model.enums.TipoLancamento.RECEITA then l.valor else 0 end), "
+           +" sum(case when l.tipo = com.edson.financas.model.enums.TipoLancamento.DESPESA then l.valor else 0 end)) "
+           +" from Lancamento l join l.usuario u ";
+
+    @Query(value = SOMA_POR_TIPO + " where u.id = :idUsuario group by u.id ")
+    Optional<SaldoCalculado> calcularSaldoDoUsuario(@Param("idUsuario") Long idUsuario);
+
+    @Query(value = SOMA_POR_TIPO + " group by u.id ")
+    List<SaldoCalculado> calcularSaldos();
+
+    /**
+     * Uma passada pelos lançamentos do usuário, agrupada por status, com as somas do saldo e do mês informado.
+     */
+    @Query(value =
+            " select new com.edson.financas.model.projection.TotalPorStatus(l.status, count(l), "
+           +" sum(case when l.tipo = com.edson.financas.model.enums.TipoLancamento.RECEITA then l.valor else 0 end), "
+           +" sum(case when l.tipo = com.edson.financas.model.enums.TipoLancamento.DESPESA then l.valor else 0 end), "
+           +" sum(case when l.tipo = com.edson.financas.model.enums.TipoLancamento.RECEITA "
+           +"     and l.ano = :ano and l.mes = :mes then l.valor else 0 end), "
+           +" sum(case when l.tipo = com.edson.financas.model.enums.TipoLancamento.DESPESA "
+           +"     and l.ano = :ano and l.mes = :mes then l.valor else 0 end)) "
+           +" from Lancamento l where l.usuario.id = :idUsuario group by l.status ")
+    List<TotalPorStatus> totalizarPorStatus(@Param("idUsuario") Long idUsuario,
+                                            @Param("ano") Integer ano,
+                                            @Param("mes") Integer mes);
+
+    String SOMA_POR_MES =
+            " select new com.edson.financas.model.projection.ResumoCalculado(l.usuario.id, l.ano, l.mes, l.tipo, l.status, "
+           +" sum(l.valor), count(l)) from Lancamento l ";
+
+    String AGRUPAMENTO_POR_MES = " group by l.usuario.id, l.ano, l.mes, l.tipo, l.status ";
+
+    @Query(value = SOMA_POR_MES
+           +" where l.usuario.id = :idUsuario and l.ano = :ano and l.mes = :mes and l.tipo = :tipo "
+           +" and (l.status = :status or (l.status is null and :status is null)) "
+           + AGRUPAMENTO_POR_MES)
+    Optional<ResumoCalculado> calcularResumo(@Param("idUsuario") Long idUsuario,
+                                             @Param("ano") Integer ano,
+                                             @Param("mes") Integer mes,
+                                             @Param("tipo") TipoLancamento tipo,
+                                             @Param("status") StatusLancamento status);
+
+    @Query(value = SOMA_POR_MES + AGRUPAMENTO_POR_MES)
+    List<ResumoCalculado> calcularResumos();
+
+    String LOTE_POR_FILTRO =
+            " where l.usuario.id = :idUsuario "
+           +" and (:ano is null or l.ano = :ano) and (:mes is null or l.mes = :mes) and (:tipo is null or l.tipo = :tipo) "
+           +" and (l.status is null or l.status <> :status) ";
+
+    String LOTE_POR_IDS =
+            " where l.usuario.id = :idUsuario and l.id in :ids and (l.status is null or l.status <> :status) ";
+
+    /**
+     * Trava ({@code for update}) os lançamentos do usuário que atendem ao filtro e ainda não estão no status
+     * informado. Os totais do lote saem destas linhas e o UPDATE é restrito aos seus ids, então outra alteração
+     * de status ou um lançamento incluído no meio do caminho não entram numa etapa sem entrar na outra.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = ESTADO + LOTE_POR_FILTRO)
+    List<LancamentoEstado> travarLote(@Param("idUsuario") Long idUsuario,
+                                      @Param("ano") Integer ano,
+                                      @Param("mes") Integer mes,
+                                      @Param("tipo") TipoLancamento tipo,
+                                      @Param("status") StatusLancamento status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = ESTADO + LOTE_POR_IDS)
+    List<LancamentoEstado> travarLotePorIds(@Param("idUsuario") Long idUsuario,
+                                            @Param("ids") Collection<Long> ids,
+                                            @Param("status") StatusLancamento status);
+
+    /**
+     * Um único UPDATE para os lançamentos informados do usuário; os que já estão no status informado não entram
+     * na contagem.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = " update Lancamento l set l.status = :status, l.versao = l.versao + 1 " + LOTE_POR_IDS)
+    int atualizarStatusDoLotePorIds(@Param("idUsuario") Long idUsuario,
+                                    @Param("ids") Collection<Long> ids,
+                                    @Param("status") StatusLancamento status);
+
+    String VISAO =
+            " select new com.edson.financas.model.projection.LancamentoVisao(l.id, l.descricao, l.mes, l.ano, "
+           +" l.valor, l.tipo, l.status, l.dataCadastro, l.usuario.id, l.versao) from Lancamento l ";
+
+    @Query(value = VISAO
+           +" where l.usuario.id = :idUsuario "
+           +" and (:ano is null or l.ano = :ano) and (:mes is null or l.mes = :mes) "
+           +" order by l.ano, l.mes, l.id ")
+    List<LancamentoVisao> listarVisoes(@Param("idUsuario") Long idUsuario,
+                                       @Param("ano") Integer ano,
+                                       @Param("mes") Integer mes,
+                                       Pageable pageable);
+
+    /**
+     * Sem usuário não há índice que atenda o filtro: percorre a tabela inteira.
+     */
+    @Query(value = VISAO
+           +" where (:ano is null or l.ano = :ano) and (:mes is null or l.mes = :mes) "
+           +" order by l.ano, l.mes, l.id ")
+    List<LancamentoVisao> listarVisoesDeTodosUsuarios(@Param("ano") Integer ano, @Param("mes") Integer mes,
+                                                      Pageable pageable);
+
+    @Query(value = VISAO
+           +" where l.usuario.id = :idUsuario "
+           +" order by l.ano desc, l.mes desc, l.id desc ")
+    List<LancamentoVisao> listarUltimasVisoes(@Param("idUsuario") Long idUsuario, Pageable pageable);
+
+    @Query(value = VISAO + " order by l.id ")
+    List<LancamentoVisao> listarTodasVisoes();
+
+    @Query(value = VISAO + " where l.id = :id ")
+    Optional<LancamentoVisao> obterVisao(@Param("id") Long id);
+
+    @Query(value = VISAO
+           +" where l.usuario.id = :idUsuario "
+           +" and (:ano is null or l.ano = :ano) and (:mes is null or l.mes = :mes) "
+           +" and (:descricao is null or lower(l.descricao) like :descricao escape '\\') "
+           +" and (l.ano > :cursorAno or (l.ano = :cursorAno and (l.mes > :cursorMes "
+           +"      or (l.mes = :cursorMes and l.id > :cursorId)))) "
+           +" order by l.ano, l.mes, l.id ")
+    List<LancamentoVisao> buscarAposCursor(@Param("idUsuario") Long idUsuario,
+                                           @Param("ano") Integer ano,
+                                           @Param("mes") Integer mes,
+                                           @Param("descricao") String descricao,
+                                           @Param("cursorAno") Integer cursorAno,
+                                           @Param("cursorMes") Integer cursorMes,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
+
+    @Query(value = VISAO
+           +" where l.usuario.id = :idUsuario and l.id in ( "
+           +"   select t.idLancamento from TrigramaDescricao t "
+           +"   where t.idUsuario = :idUsuario and t.trigrama in :trigramas "
+           +"   group by t.idLancamento having count(distinct t.trigrama) = :quantidade) "
+           +" and (:ano is null or l.ano = :ano) and (:mes is null or l.mes = :mes) ")
+    List<LancamentoVisao> buscarPorTrigramas(@Param("idUsuario") Long idUsuario,
+                                             @Param("trigramas") Collection<String> trigramas,
+                                             @Param("quantidade") long quantidade,
+                                             @Param("ano") Integer ano,
+                                             @Param("mes") Integer mes);
+
+    /**
+     * Página da busca por trigramas: o {@code like} confere o trecho no banco, para que os falsos positivos do
+     * índice não encurtem a página nem interrompam a continuação.
+     */
+    @Query(value = VISAO
+           +" where l.usuario.id = :idUsuario and l.id in ( "
+           +"   select t.idLancamento from TrigramaDescricao t "
+           +"   where t.idUsuario = :idUsuario and t.trigrama in :trigramas "
+           +"   group by t.idLancamento having count(distinct t.trigrama) = :quantidade) "
+           +" and lower(l.descricao) like :descricao escape '\\' "
+           +" and (:ano is null or l.ano = :ano) and (:mes is null or l.mes = :mes) "
+           +" and (l.ano > :cursorAno or (l.ano = :cursorAno and (l.mes > :cursorMes "
+           +"      or (l.mes = :cursorMes and l.id > :cursorId)))) "
+           +" order by l.ano, l.mes, l.id ")
+    List<LancamentoVisao> buscarPorTrigramasAposCursor(@Param("idUsuario") Long idUsuario,
+                                                       @Param("trigramas") Collection<String> trigramas,
+                                                       @Param("quantidade") long quantidade,
+                                                       @Param("descricao") String descricao,
+                                                       @Param("ano") Integer ano,
+                                                       @Param("mes") Integer mes,
+                                                       @Param("cursorAno") Integer cursorAno,
+                                                       @Param("cursorMes") Integer cursorMes,
+                                                       @Param("cursorId") Long cursorId,
+                                                       Pageable pageable);
+
+    @Query(value = VISAO
+           +" where l.usuario.id = :idUsuario and lower(l.descricao) like :descricao escape '\\' "
+           +" and (:ano is null or l.ano = :ano) and (:mes is null or l.mes = :mes) ")
+    List<LancamentoVisao> buscarPorDescricao(@Param("idUsuario") Long idUsuario,
+                                             @Param("descricao") String descricao,
+                                             @Param("ano") Integer ano,
+                                             @Param("mes") Integer mes);
+
+    String ESTADO =
+            " select new com.edson.financas.model.projection.LancamentoEstado(l.id, l.usuario.id, l.descricao, "
+           +" l.ano, l.mes, l.tipo, l.status, l.valor) from Lancamento l ";
+
+    @Query(value = ESTADO + " where l.id > :id order by l.id ")
+    List<LancamentoEstado> listarEstadosAposId(@Param("id") Long id, Pageable pageable);
+
+    @Query(value = ESTADO + " where l.id > :id and l.descricao is not null "
+           +" and not exists (select t.id from TrigramaDescricao t where t.idLancamento = l.id) order by l.id ")
+    List<LancamentoEstado> listarEstadosSemTrigramasAposId(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Carga de um cache que passa a ser mantido pelos eventos de escrita, por isso lê do primário e não da réplica.
+     */
+    @Transactional
+    @Query(value = ESTADO + " where l.usuario.id = :idUsuario order by l.id ")
+    List<LancamentoEstado> listarEstadosDoUsuario(@Param("idUsuario") Long idUsuario);
+
+    @Query(value =
+            " select l.hashImportacao from Lancamento l "
+           +" where l.usuario.id = :idUsuario and l.hashImportacao in :hashes ")
+    Set<String> buscarHashesImportados(@Param("idUsuario") Long idUsuario, @Param("hashes") Collection<String> hashes);
+
     @Query(value =
-            " select sum(l.valor) from Lancamento l join l.usuario u "
-           +" where u.id = :idUsuario and l.tipo = :tipo group by u ")
-    BigDecimal obterSaldoPorTipoLancamentoEUsuario(@Param("idUsuario") Long idUsuario, @Param("tipo") TipoLancamento tipo);
+            " select l.idRecorrente from Lancamento l "
+           +" where l.idRecorrente in :idsRecorrentes and l.ano = :ano and l.mes = :mes ")
+    Set<Long> buscarRecorrenciasGeradas(@Param("idsRecorrentes") Collection<Long> idsRecorrentes,
+                                        @Param("ano") Integer ano,
+                                        @Param("mes") Integer mes);
+
+    /**
+     * Percorre os lançamentos do usuário com um cursor do banco; deve ser consumido dentro de uma transação.
+     */
+    @QueryHints({@QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")})
+    @Query(value = " select l from Lancamento l where l.usuario.id = :idUsuario order by l.ano, l.mes, l.id ")
+    Stream<Lancamento> percorrerPorUsuario(@Param("idUsuario") Long idUsuario);
+
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+    @Query(value = " select l.versao from Lancamento l where l.id = :id ")
+    Optional<Long> obterVersao(@Param("id") Long id);
+
+    /**
+     * Lê o estado gravado no banco sem disparar o flush de alterações pendentes no contexto de persistência.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+    @Query(value = ESTADO + " where l.id = :id ")
+    Optional<LancamentoEstado> obterEstadoPersistido(@Param("id") Long id);
 
 }
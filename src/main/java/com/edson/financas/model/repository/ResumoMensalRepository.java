@@ -0,0 +1,38 @@
+package com.edson.financas.model.repository;
+
+import com.edson.financas.model.entity.ResumoMensal;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.valor.Dinheiro;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, Long> {
+
+    List<ResumoMensal> findByIdUsuarioAndAno(Long idUsuario, Integer ano);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+    @Query(value =
+            " update ResumoMensal r set r.total = r.total + :valor, r.quantidade = r.quantidade + :quantidade "
+           +" where r.idUsuario = :idUsuario and r.ano = :ano and r.mes = :mes and r.tipo = :tipo "
+           +" and (r.status = :status or (r.status is null and :status is null)) ")
+    int acumular(@Param("idUsuario") Long idUsuario,
+                 @Param("ano") Integer ano,
+                 @Param("mes") Integer mes,
+                 @Param("tipo") TipoLancamento tipo,
+                 @Param("status") StatusLancamento status,
+                 @Param("valor") Dinheiro valor,
+                 @Param("quantidade") Long quantidade);
+
+    @Modifying
+    @Query(value = " delete from ResumoMensal r ")
+    int excluirTodos();
+
+}
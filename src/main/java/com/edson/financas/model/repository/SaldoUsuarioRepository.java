@@ -0,0 +1,21 @@
+package com.edson.financas.model.repository;
+
+import com.edson.financas.model.entity.SaldoUsuario;
+import com.edson.financas.model.valor.Dinheiro;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+    @Query(value =
+            " update SaldoUsuario s set s.receitas = s.receitas + :receitas, s.despesas = s.despesas + :despesas "
+           +" where s.idUsuario = :idUsuario ")
+    int acumular(@Param("idUsuario") Long idUsuario, @Param("receitas") Dinheiro receitas, @Param("despesas") Dinheiro despesas);
+
+}
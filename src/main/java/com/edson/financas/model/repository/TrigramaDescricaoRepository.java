@@ -0,0 +1,23 @@
+package com.edson.financas.model.repository;
+
+import com.edson.financas.model.entity.TrigramaDescricao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+
+public interface TrigramaDescricaoRepository extends JpaRepository<TrigramaDescricao, Long> {
+
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+    @Query(value = " delete from TrigramaDescricao t where t.idLancamento = :idLancamento ")
+    int excluirPorLancamento(@Param("idLancamento") Long idLancamento);
+
+    @Modifying
+    @Query(value = " delete from TrigramaDescricao t ")
+    int excluirTodos();
+
+}
@@ -2,13 +2,34 @@ package com.edson.financas.model.repository;
 
 import com.edson.financas.model.entity.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
+    // verificação de unicidade antes do cadastro: lê do primário, nunca da réplica
+    @Transactional
     boolean existsByEmail(String email);
 
     Optional<Usuario> findByEmail(String email);
 
+    /**
+     * Trava ({@code for update}) as linhas dos usuários, sempre em ordem de id. É a trava que serializa a escrita
+     * das tabelas derivadas de um usuário com a primeira gravação de uma chave e com as reconstruções.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = " select u.id from Usuario u where u.id in :ids order by u.id ")
+    List<Long> travar(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = " select u.id from Usuario u order by u.id ")
+    List<Long> travarTodos();
+
 }
@@ -0,0 +1,19 @@
+package com.edson.financas.model.repository;
+
+import com.edson.financas.model.entity.VersaoUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+
+public interface VersaoUsuarioRepository extends JpaRepository<VersaoUsuario, Long> {
+
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+    @Query(value = " update VersaoUsuario v set v.versao = v.versao + 1 where v.idUsuario = :idUsuario ")
+    int incrementar(@Param("idUsuario") Long idUsuario);
+
+}
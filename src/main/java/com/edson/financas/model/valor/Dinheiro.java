@@ -0,0 +1,175 @@
+package com.edson.financas.model.valor;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valor monetário com duas casas decimais guardado como um long de centavos. As operações verificam estouro
+ * e lançam {@link ArithmeticException} em vez de dar a volta. Frações de centavo são arredondadas para cima
+ * a partir da metade, como a coluna numeric do banco faria.
+ */
+@Getter
+@EqualsAndHashCode
+public final class Dinheiro implements Comparable<Dinheiro>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final Dinheiro ZERO = new Dinheiro(0);
+
+    public static final int ESCALA = 2;
+
+    /**
+     * Sinal, 19 dígitos e o ponto decimal.
+     */
+    public static final int TAMANHO_MAXIMO_TEXTO = 21;
+
+    private final long centavos;
+
+    private Dinheiro(long centavos) {
+        this.centavos = centavos;
+    }
+
+    public static Dinheiro deCentavos(long centavos) {
+        return centavos == 0 ? ZERO : new Dinheiro(centavos);
+    }
+
+    public static Dinheiro de(long reais) {
+        return deCentavos(Math.multiplyExact(reais, 100L));
+    }
+
+    public static Dinheiro de(BigDecimal valor) {
+        if (valor == null) {
+            return null;
+        }
+        return deCentavos(valor.setScale(ESCALA, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public static Dinheiro de(String texto) {
+        return texto == null ? null : ler(texto.toCharArray(), 0, texto.length());
+    }
+
+    /**
+     * Lê um número decimal ({@code -12}, {@code 12.5}, {@code 0.125}) direto do buffer, sem passar por
+     * {@link BigDecimal}. Notação científica, rara em valores monetários, cai no caminho do BigDecimal.
+     */
+    public static Dinheiro ler(char[] texto, int inicio, int tamanho) {
+        int fim = inicio + tamanho;
+        int posicao = inicio;
+        boolean negativo = false;
+        if (posicao < fim && (texto[posicao] == '-' || texto[posicao] == '+')) {
+            negativo = texto[posicao] == '-';
+            posicao++;
+        }
+
+        long centavos = 0;
+        int digitos = 0;
+        while (posicao < fim && texto[posicao] >= '0' && texto[posicao] <= '9') {
+            centavos = Math.addExact(Math.multiplyExact(centavos, 10L), texto[posicao] - '0');
+            posicao++;
+            digitos++;
+        }
+        centavos = Math.multiplyExact(centavos, 100L);
+
+        if (posicao < fim && texto[posicao] == '.') {
+            posicao++;
+            long fator = 10;
+            boolean arredondar = false;
+            while (posicao < fim && texto[posicao] >= '0' && texto[posicao] <= '9') {
+                int digito = texto[posicao] - '0';
+                if (fator > 0) {
+                    centavos = Math.addExact(centavos, digito * fator);
+                    fator /= 10;
+                } else if (fator == 0) {
+                    arredondar = digito >= 5;
+                    fator = -1;
+                }
+                posicao++;
+                digitos++;
+            }
+            if (arredondar) {
+                centavos = Math.addExact(centavos, 1L);
+            }
+        }
+
+        if (posicao < fim && (texto[posicao] == 'e' || texto[posicao] == 'E') && digitos > 0) {
+            return de(new BigDecimal(texto, inicio, tamanho));
+        }
+        if (posicao != fim || digitos == 0) {
+            throw new NumberFormatException("Valor monetário inválido: " + new String(texto, inicio, tamanho));
+        }
+        return deCentavos(negativo ? -centavos : centavos);
+    }
+
+    public Dinheiro somar(Dinheiro outro) {
+        return deCentavos(Math.addExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro subtrair(Dinheiro outro) {
+        return deCentavos(Math.subtractExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro negar() {
+        return deCentavos(Math.negateExact(centavos));
+    }
+
+    public Dinheiro abs() {
+        return centavos < 0 ? negar() : this;
+    }
+
+    public int signum() {
+        return Long.signum(centavos);
+    }
+
+    public boolean isPositivo() {
+        return centavos > 0;
+    }
+
+    public boolean isZero() {
+        return centavos == 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+
+    /**
+     * Escreve o valor com duas casas decimais no buffer, a partir do início, e devolve quantos caracteres
+     * foram usados. O buffer precisa ter ao menos {@link #TAMANHO_MAXIMO_TEXTO} posições.
+     */
+    public int escrever(char[] destino) {
+        // o módulo é acumulado em negativo para que Long.MIN_VALUE também caiba
+        long restante = centavos < 0 ? centavos : -centavos;
+        int posicao = TAMANHO_MAXIMO_TEXTO;
+        for (int casa = 0; casa < ESCALA; casa++) {
+            destino[--posicao] = (char) ('0' - restante % 10);
+            restante /= 10;
+        }
+        destino[--posicao] = '.';
+        do {
+            destino[--posicao] = (char) ('0' - restante % 10);
+            restante /= 10;
+        } while (restante != 0);
+        if (centavos < 0) {
+            destino[--posicao] = '-';
+        }
+
+        int tamanho = TAMANHO_MAXIMO_TEXTO - posicao;
+        System.arraycopy(destino, posicao, destino, 0, tamanho);
+        return tamanho;
+    }
+
+    @Override
+    public int compareTo(Dinheiro outro) {
+        return Long.compare(centavos, outro.centavos);
+    }
+
+    @Override
+    public String toString() {
+        char[] texto = new char[TAMANHO_MAXIMO_TEXTO];
+        return new String(texto, 0, escrever(texto));
+    }
+}
@@ -0,0 +1,27 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.enums.AgrupamentoAnalise;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.TotalAnalitico;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.LancamentosIncluidosEvent;
+import com.edson.financas.service.event.StatusLancamentosAlteradoEvent;
+
+import java.util.List;
+
+
+public interface AnaliseService {
+
+    TotalAnalitico totalizar(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status);
+
+    List<TotalAnalitico> agrupar(Long idUsuario, AgrupamentoAnalise agrupamento, Integer ano, Integer mes,
+                                 TipoLancamento tipo, StatusLancamento status);
+
+    void aoAlterarLancamento(LancamentoAlteradoEvent event);
+
+    void aoIncluirLancamentos(LancamentosIncluidosEvent event);
+
+    void aoAlterarStatus(StatusLancamentosAlteradoEvent event);
+
+}
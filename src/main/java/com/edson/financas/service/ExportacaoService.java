@@ -0,0 +1,13 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.enums.FormatoExportacao;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+public interface ExportacaoService {
+
+    void exportar(Long idUsuario, FormatoExportacao formato, OutputStream saida) throws IOException;
+
+}
@@ -0,0 +1,14 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.enums.FormatoExtrato;
+import com.edson.financas.service.importacao.ResultadoImportacao;
+
+import java.io.InputStream;
+
+
+public interface ImportacaoService {
+
+    ResultadoImportacao importar(Usuario usuario, FormatoExtrato formato, InputStream extrato);
+
+}
@@ -0,0 +1,25 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.projection.CursorLancamento;
+import com.edson.financas.model.projection.LancamentoVisao;
+
+import java.util.List;
+
+
+/**
+ * Busca por trecho da descrição dos lançamentos de um usuário, servida por um índice em vez de
+ * uma varredura com {@code like '%termo%'}.
+ */
+public interface IndiceDescricao {
+
+    List<LancamentoVisao> buscar(Long idUsuario, String descricao, Integer ano, Integer mes);
+
+    /**
+     * Até {@code limite} lançamentos depois do cursor, na ordem (ano, mes, id) da busca paginada.
+     */
+    List<LancamentoVisao> buscarAposCursor(Long idUsuario, String descricao, Integer ano, Integer mes,
+                                           CursorLancamento cursor, int limite);
+
+    void reconstruir();
+
+}
@@ -2,9 +2,14 @@ package com.edson.financas.service;
 
 import com.edson.financas.model.entity.Lancamento;
 import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.projection.LancamentoVisao;
+import com.edson.financas.model.projection.PaginaLancamentos;
+import com.edson.financas.model.projection.PainelUsuario;
+import com.edson.financas.model.valor.Dinheiro;
 
 
-import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,20 +18,30 @@ public interface LancamentoService {
 
     Lancamento salvar(Lancamento lancamento);
 
+    List<Lancamento> salvarTodos(List<Lancamento> lancamentos);
+
     Lancamento atualizar(Lancamento lancamento);
 
     void deletar(Lancamento lancamento);
 
-    List<Lancamento> buscar(Lancamento lancamentoFiltro);
+    List<LancamentoVisao> buscar(Lancamento lancamentoFiltro);
+
+    List<LancamentoVisao> buscarTodos(Lancamento lancamento);
 
-    List<Lancamento> buscarTodos(Lancamento lancamento);
+    PaginaLancamentos buscarPagina(Lancamento lancamentoFiltro, String cursor, Integer tamanho);
 
     void atualizarStatus(Lancamento lancamento, StatusLancamento status);
 
+    int atualizarStatusEmLote(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento status);
+
     void validar(Lancamento lancamento);
 
     Optional<Lancamento> obterPorId(Long id);
 
-    BigDecimal obterSaldoPorUsuario(Long id);
+    Optional<LancamentoVisao> obterVisaoPorId(Long id);
+
+    Dinheiro obterSaldoPorUsuario(Long id);
+
+    PainelUsuario obterPainel(Long idUsuario, YearMonth referencia);
 
 }
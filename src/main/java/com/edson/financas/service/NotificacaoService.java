@@ -0,0 +1,19 @@
+package com.edson.financas.service;
+
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.LancamentosIncluidosEvent;
+import com.edson.financas.service.event.StatusLancamentosAlteradoEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+
+public interface NotificacaoService {
+
+    SseEmitter inscrever(Long idUsuario);
+
+    void aoAlterarLancamento(LancamentoAlteradoEvent event);
+
+    void aoIncluirLancamentos(LancamentosIncluidosEvent event);
+
+    void aoAlterarStatus(StatusLancamentosAlteradoEvent event);
+
+}
@@ -0,0 +1,27 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.entity.LancamentoRecorrente;
+
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+
+public interface RecorrenciaService {
+
+    LancamentoRecorrente salvar(LancamentoRecorrente recorrente);
+
+    void deletar(LancamentoRecorrente recorrente);
+
+    List<LancamentoRecorrente> buscarPorUsuario(Long idUsuario);
+
+    Optional<LancamentoRecorrente> obterPorId(Long id);
+
+    void validar(LancamentoRecorrente recorrente);
+
+    long gerar(YearMonth competencia);
+
+    long gerar(Long idUsuario, YearMonth competencia);
+
+}
@@ -0,0 +1,23 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.projection.ResumoMes;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.LancamentosIncluidosEvent;
+import com.edson.financas.service.event.StatusLancamentosAlteradoEvent;
+
+import java.util.List;
+
+
+public interface ResumoService {
+
+    List<ResumoMes> obterResumoAnual(Long idUsuario, Integer ano);
+
+    void aoAlterarLancamento(LancamentoAlteradoEvent event);
+
+    void aoIncluirLancamentos(LancamentosIncluidosEvent event);
+
+    void aoAlterarStatus(StatusLancamentosAlteradoEvent event);
+
+    void reconstruirResumos();
+
+}
@@ -0,0 +1,21 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.projection.DivergenciaSaldo;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.LancamentosIncluidosEvent;
+
+import java.util.List;
+
+
+public interface SaldoService {
+
+    Dinheiro obterSaldo(Long idUsuario);
+
+    void aoAlterarLancamento(LancamentoAlteradoEvent event);
+
+    void aoIncluirLancamentos(LancamentosIncluidosEvent event);
+
+    List<DivergenciaSaldo> verificarSaldos(boolean corrigir);
+
+}
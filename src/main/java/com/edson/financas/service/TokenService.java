@@ -0,0 +1,15 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.projection.SessaoUsuario;
+
+import java.util.Optional;
+
+
+public interface TokenService {
+
+    String emitir(Usuario usuario);
+
+    Optional<SessaoUsuario> validar(String token);
+
+}
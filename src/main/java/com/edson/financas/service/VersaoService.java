@@ -0,0 +1,18 @@
+package com.edson.financas.service;
+
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.LancamentosIncluidosEvent;
+import com.edson.financas.service.event.StatusLancamentosAlteradoEvent;
+
+
+public interface VersaoService {
+
+    long obterVersao(Long idUsuario);
+
+    void aoAlterarLancamento(LancamentoAlteradoEvent event);
+
+    void aoIncluirLancamentos(LancamentosIncluidosEvent event);
+
+    void aoAlterarStatus(StatusLancamentosAlteradoEvent event);
+
+}
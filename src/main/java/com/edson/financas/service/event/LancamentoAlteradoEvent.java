@@ -0,0 +1,31 @@
+package com.edson.financas.service.event;
+
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Publicado pelo LancamentoService a cada escrita. {@code anterior} é nulo numa inclusão
+ * e {@code atual} é nulo numa exclusão.
+ */
+@Value
+@AllArgsConstructor
+public class LancamentoAlteradoEvent {
+
+    LancamentoEstado anterior;
+
+    LancamentoEstado atual;
+
+    public static LancamentoAlteradoEvent inclusao(Lancamento lancamento) {
+        return new LancamentoAlteradoEvent(null, LancamentoEstado.of(lancamento));
+    }
+
+    public static LancamentoAlteradoEvent alteracao(LancamentoEstado anterior, Lancamento lancamento) {
+        return new LancamentoAlteradoEvent(anterior, LancamentoEstado.of(lancamento));
+    }
+
+    public static LancamentoAlteradoEvent exclusao(LancamentoEstado anterior) {
+        return new LancamentoAlteradoEvent(anterior, null);
+    }
+}
@@ -0,0 +1,19 @@
+package com.edson.financas.service.event;
+
+import com.edson.financas.model.projection.LancamentoEstado;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Publicado uma vez por lote de inclusões, seja um único lançamento, um lote da fila de gravação, um extrato
+ * importado ou as recorrências de uma faixa. Os ouvintes acumulam os totais do lote e gravam uma vez por chave.
+ */
+@Value
+@AllArgsConstructor
+public class LancamentosIncluidosEvent {
+
+    List<LancamentoEstado> incluidos;
+
+}
@@ -0,0 +1,22 @@
+package com.edson.financas.service.event;
+
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.projection.ResumoCalculado;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Publicado pela atualização de status em lote. {@code anteriores} agrupa os lançamentos alterados pela
+ * chave do resumo mensal, ainda com o status antigo; todos passaram para {@code status}.
+ */
+@Value
+@AllArgsConstructor
+public class StatusLancamentosAlteradoEvent {
+
+    List<ResumoCalculado> anteriores;
+
+    StatusLancamento status;
+
+}
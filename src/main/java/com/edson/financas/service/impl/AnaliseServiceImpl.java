@@ -0,0 +1,174 @@
+package com.edson.financas.service.impl;
+
+import com.edson.financas.model.enums.AgrupamentoAnalise;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.ResumoCalculado;
+import com.edson.financas.model.projection.TotalAnalitico;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.service.AnaliseService;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.LancamentosIncluidosEvent;
+import com.edson.financas.service.event.StatusLancamentosAlteradoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mantém em memória as {@link ColunasLancamentos} dos usuários consultados recentemente. A carga é feita na
+ * primeira consulta; as inclusões em lote são aplicadas nas colunas depois do commit e as demais escritas do
+ * {@code LancamentoService} as descartam. Uma carga que coincide com uma escrita do mesmo usuário responde a
+ * consulta mas não fica guardada, para que um resultado lido antes do commit não seja reaproveitado.
+ */
+@Service
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnaliseServiceImpl implements AnaliseService {
+
+    private static final int FAIXAS = 64;
+
+    @Autowired
+    private LancamentoRepository repository;
+
+    @Value("${financas.analise.lancamentos-maximo:2000000}")
+    private long lancamentosMaximo;
+
+    @Value("${financas.analise.expiracao-minutos:30}")
+    private long expiracaoMinutos;
+
+    private Cache<Long, ColunasLancamentos> colunasPorUsuario;
+
+    private AtomicLongArray alteracoes;
+
+    /**
+     * O limite é em lançamentos, não em usuários: cada usuário pesa as linhas das suas colunas, de modo que
+     * poucos usuários com muitos lançamentos não estouram a memória.
+     */
+    @PostConstruct
+    public void iniciarCache() {
+        colunasPorUsuario = Caffeine.newBuilder()
+                                    .maximumWeight(lancamentosMaximo)
+                                    .weigher((Long idUsuario, ColunasLancamentos colunas) -> Math.max(1, colunas.tamanho()))
+                                    .expireAfterAccess(expiracaoMinutos, TimeUnit.MINUTES)
+                                    .recordStats()
+                                    .build();
+        alteracoes = new AtomicLongArray(FAIXAS);
+
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, colunasPorUsuario, "analise.lancamentos");
+    }
+
+    @Override
+    public TotalAnalitico totalizar(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status) {
+        return obterColunas(idUsuario).totalizar(ano, mes, tipo, status);
+    }
+
+    @Override
+    public List<TotalAnalitico> agrupar(Long idUsuario, AgrupamentoAnalise agrupamento, Integer ano, Integer mes,
+                                        TipoLancamento tipo, StatusLancamento status) {
+        return obterColunas(idUsuario).agrupar(agrupamento, ano, mes, tipo, status);
+    }
+
+    /**
+     * Os ouvintes pós-commit de duas escritas do mesmo lançamento podem rodar fora de ordem, e aplicar o estado
+     * do evento deixaria nas colunas o valor mais antigo. Descartar as colunas não depende da ordem: a próxima
+     * consulta recarrega o que está gravado.
+     */
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarLancamento(LancamentoAlteradoEvent event) {
+        LancamentoEstado anterior = event.getAnterior();
+        LancamentoEstado atual = event.getAtual();
+
+        if (anterior != null && (atual == null || !Objects.equals(anterior.getIdUsuario(), atual.getIdUsuario()))) {
+            descartar(anterior.getIdUsuario());
+        }
+        if (atual != null) {
+            descartar(atual.getIdUsuario());
+        }
+    }
+
+    /**
+     * Depois do lote, as colunas que cresceram são regravadas nelas mesmas para que o cache volte a pesá-las.
+     */
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoIncluirLancamentos(LancamentosIncluidosEvent event) {
+        Map<Long, ColunasLancamentos> alteradas = new HashMap<>();
+        for (LancamentoEstado incluido : event.getIncluidos()) {
+            registrarAlteracao(incluido.getIdUsuario());
+            ColunasLancamentos colunas = colunasPorUsuario.getIfPresent(incluido.getIdUsuario());
+            if (colunas != null) {
+                colunas.gravar(incluido);
+                alteradas.put(incluido.getIdUsuario(), colunas);
+            }
+        }
+        alteradas.forEach((idUsuario, colunas) -> colunasPorUsuario.asMap().replace(idUsuario, colunas, colunas));
+    }
+
+    /**
+     * O evento traz os totais de cada grupo e não os lançamentos alterados, por isso as colunas do usuário são
+     * descartadas e recarregadas na próxima consulta.
+     */
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarStatus(StatusLancamentosAlteradoEvent event) {
+        event.getAnteriores().stream()
+             .map(ResumoCalculado::getIdUsuario)
+             .distinct()
+             .forEach(this::descartar);
+    }
+
+    private void descartar(Long idUsuario) {
+        if (idUsuario != null) {
+            registrarAlteracao(idUsuario);
+            colunasPorUsuario.invalidate(idUsuario);
+        }
+    }
+
+    private ColunasLancamentos obterColunas(Long idUsuario) {
+        ColunasLancamentos colunas = colunasPorUsuario.getIfPresent(idUsuario);
+        if (colunas != null) {
+            return colunas;
+        }
+
+        int faixa = faixa(idUsuario);
+        long alteracaoAntesDaCarga = alteracoes.get(faixa);
+        colunas = ColunasLancamentos.de(repository.listarEstadosDoUsuario(idUsuario));
+
+        ColunasLancamentos existentes = colunasPorUsuario.asMap().putIfAbsent(idUsuario, colunas);
+        if (existentes != null) {
+            return existentes;
+        }
+        // conferido depois de publicar: uma escrita posterior já encontra as colunas e é aplicada nelas
+        if (alteracoes.get(faixa) != alteracaoAntesDaCarga) {
+            colunasPorUsuario.asMap().remove(idUsuario, colunas);
+        }
+        return colunas;
+    }
+
+    private void registrarAlteracao(Long idUsuario) {
+        if (idUsuario != null) {
+            alteracoes.incrementAndGet(faixa(idUsuario));
+        }
+    }
+
+    private static int faixa(Long idUsuario) {
+        return (int) (idUsuario & (FAIXAS - 1));
+    }
+}
@@ -0,0 +1,85 @@
+package com.edson.financas.service.impl;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Hash de senha com PBKDF2-HMAC-SHA256, gravado como {@code pbkdf2$iteracoes$sal$hash}. O número de
+ * iterações fica no próprio valor, então aumentá-lo não invalida as senhas já gravadas.
+ */
+class CodificadorSenha {
+
+    private static final String PREFIXO = "pbkdf2";
+
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+
+    private static final int TAMANHO_SAL = 16;
+
+    private static final int TAMANHO_HASH = 256;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final int iteracoes;
+
+    CodificadorSenha(int iteracoes) {
+        this.iteracoes = iteracoes;
+    }
+
+    String codificar(String senha) {
+        byte[] sal = new byte[TAMANHO_SAL];
+        random.nextBytes(sal);
+        return PREFIXO + "$" + iteracoes + "$" + Base64.getEncoder().encodeToString(sal)
+               + "$" + Base64.getEncoder().encodeToString(derivar(senha, sal, iteracoes));
+    }
+
+    boolean isCodificada(String armazenada) {
+        return armazenada != null && armazenada.startsWith(PREFIXO + "$");
+    }
+
+    /**
+     * Senhas gravadas antes do hash, em texto puro, ainda são aceitas para que possam ser recodificadas
+     * no próximo login.
+     */
+    boolean confere(String senha, String armazenada) {
+        if (senha == null || armazenada == null) {
+            return false;
+        }
+
+        if (!isCodificada(armazenada)) {
+            return MessageDigest.isEqual(senha.getBytes(StandardCharsets.UTF_8), armazenada.getBytes(StandardCharsets.UTF_8));
+        }
+
+        String[] partes = armazenada.split("\\$");
+        if (partes.length != 4) {
+            return false;
+        }
+
+        try {
+            byte[] sal = Base64.getDecoder().decode(partes[2]);
+            byte[] esperado = Base64.getDecoder().decode(partes[3]);
+            return MessageDigest.isEqual(derivar(senha, sal, Integer.parseInt(partes[1])), esperado);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    boolean precisaRecodificar(String armazenada) {
+        return !isCodificada(armazenada) || !armazenada.startsWith(PREFIXO + "$" + iteracoes + "$");
+    }
+
+    private static byte[] derivar(String senha, byte[] sal, int iteracoes) {
+        PBEKeySpec especificacao = new PBEKeySpec(senha.toCharArray(), sal, iteracoes, TAMANHO_HASH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(especificacao).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            especificacao.clearPassword();
+        }
+    }
+}
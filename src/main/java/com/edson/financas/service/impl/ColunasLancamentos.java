@@ -0,0 +1,206 @@
+package com.edson.financas.service.impl;
+
+import com.edson.financas.model.enums.AgrupamentoAnalise;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.TotalAnalitico;
+import com.edson.financas.model.valor.Dinheiro;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lançamentos de um usuário em colunas de tipos primitivos, ordenadas pelo id: valor em centavos, ano e mês
+ * empacotados num int ({@code ano << 4 | mes}) e tipo e status como o ordinal num byte. As consultas percorrem
+ * os arrays sem criar objetos por linha; só o resultado de cada grupo é alocado. O acesso é sincronizado na
+ * própria instância.
+ */
+public class ColunasLancamentos {
+
+    private static final byte NULO = -1;
+
+    private static final int TODOS = -2;
+
+    private static final TipoLancamento[] TIPOS = TipoLancamento.values();
+
+    private static final StatusLancamento[] STATUS = StatusLancamento.values();
+
+    private long[] ids;
+
+    private long[] centavos;
+
+    private int[] periodos;
+
+    private byte[] tipos;
+
+    private byte[] status;
+
+    private int tamanho;
+
+    public ColunasLancamentos(int capacidade) {
+        int capacidadeInicial = Math.max(capacidade, 16);
+        ids = new long[capacidadeInicial];
+        centavos = new long[capacidadeInicial];
+        periodos = new int[capacidadeInicial];
+        tipos = new byte[capacidadeInicial];
+        status = new byte[capacidadeInicial];
+    }
+
+    public static ColunasLancamentos de(List<LancamentoEstado> lancamentos) {
+        ColunasLancamentos colunas = new ColunasLancamentos(lancamentos.size());
+        lancamentos.forEach(colunas::gravar);
+        return colunas;
+    }
+
+    /**
+     * Inclui ou substitui o lançamento pelo id; reaplicar o mesmo estado não altera os totais.
+     */
+    public synchronized void gravar(LancamentoEstado lancamento) {
+        int posicao = Arrays.binarySearch(ids, 0, tamanho, lancamento.getId());
+        if (posicao < 0) {
+            posicao = -posicao - 1;
+            abrirEspaco(posicao);
+            ids[posicao] = lancamento.getId();
+        }
+        centavos[posicao] = lancamento.getValor() == null ? 0 : lancamento.getValor().getCentavos();
+        periodos[posicao] = periodo(lancamento.getAno(), lancamento.getMes());
+        tipos[posicao] = codigo(lancamento.getTipo());
+        status[posicao] = codigo(lancamento.getStatus());
+    }
+
+    public synchronized int tamanho() {
+        return tamanho;
+    }
+
+    public synchronized TotalAnalitico totalizar(Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status) {
+        int filtroAno = ano == null ? TODOS : ano;
+        int filtroMes = mes == null ? TODOS : mes;
+        int filtroTipo = tipo == null ? TODOS : tipo.ordinal();
+        int filtroStatus = status == null ? TODOS : status.ordinal();
+
+        long total = 0;
+        long quantidade = 0;
+        for (int i = 0; i < tamanho; i++) {
+            if (atende(i, filtroAno, filtroMes, filtroTipo, filtroStatus)) {
+                total += centavos[i];
+                quantidade++;
+            }
+        }
+        return new TotalAnalitico(ano, mes, tipo, status, Dinheiro.deCentavos(total), quantidade);
+    }
+
+    public synchronized List<TotalAnalitico> agrupar(AgrupamentoAnalise agrupamento, Integer ano, Integer mes,
+                                                     TipoLancamento tipo, StatusLancamento status) {
+        int filtroAno = ano == null ? TODOS : ano;
+        int filtroMes = mes == null ? TODOS : mes;
+        int filtroTipo = tipo == null ? TODOS : tipo.ordinal();
+        int filtroStatus = status == null ? TODOS : status.ordinal();
+
+        if (agrupamento == AgrupamentoAnalise.MES) {
+            return agruparPorMes(filtroAno, filtroMes, filtroTipo, filtroStatus, tipo, status);
+        }
+
+        // uma posição por valor do enum e a última para o nulo
+        boolean porTipo = agrupamento == AgrupamentoAnalise.TIPO;
+        byte[] codigos = porTipo ? tipos : this.status;
+        int grupos = (porTipo ? TIPOS.length : STATUS.length) + 1;
+        long[] totais = new long[grupos];
+        long[] quantidades = new long[grupos];
+        for (int i = 0; i < tamanho; i++) {
+            if (atende(i, filtroAno, filtroMes, filtroTipo, filtroStatus)) {
+                int grupo = codigos[i] == NULO ? grupos - 1 : codigos[i];
+                totais[grupo] += centavos[i];
+                quantidades[grupo]++;
+            }
+        }
+
+        List<TotalAnalitico> resultado = new ArrayList<>(grupos);
+        for (int grupo = 0; grupo < grupos; grupo++) {
+            if (quantidades[grupo] == 0) {
+                continue;
+            }
+            Dinheiro total = Dinheiro.deCentavos(totais[grupo]);
+            if (porTipo) {
+                TipoLancamento tipoDoGrupo = grupo < TIPOS.length ? TIPOS[grupo] : null;
+                resultado.add(new TotalAnalitico(ano, mes, tipoDoGrupo, status, total, quantidades[grupo]));
+            } else {
+                StatusLancamento statusDoGrupo = grupo < STATUS.length ? STATUS[grupo] : null;
+                resultado.add(new TotalAnalitico(ano, mes, tipo, statusDoGrupo, total, quantidades[grupo]));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Os grupos são os períodos empacotados entre o menor e o maior da coluna, 16 posições por ano.
+     */
+    private List<TotalAnalitico> agruparPorMes(int filtroAno, int filtroMes, int filtroTipo, int filtroStatus,
+                                               TipoLancamento tipo, StatusLancamento status) {
+        if (tamanho == 0) {
+            return new ArrayList<>();
+        }
+        int menorPeriodo = Integer.MAX_VALUE;
+        int maiorPeriodo = Integer.MIN_VALUE;
+        for (int i = 0; i < tamanho; i++) {
+            menorPeriodo = Math.min(menorPeriodo, periodos[i]);
+            maiorPeriodo = Math.max(maiorPeriodo, periodos[i]);
+        }
+
+        int grupos = maiorPeriodo - menorPeriodo + 1;
+        long[] totais = new long[grupos];
+        long[] quantidades = new long[grupos];
+        for (int i = 0; i < tamanho; i++) {
+            if (atende(i, filtroAno, filtroMes, filtroTipo, filtroStatus)) {
+                int grupo = periodos[i] - menorPeriodo;
+                totais[grupo] += centavos[i];
+                quantidades[grupo]++;
+            }
+        }
+
+        List<TotalAnalitico> resultado = new ArrayList<>();
+        for (int grupo = 0; grupo < grupos; grupo++) {
+            if (quantidades[grupo] > 0) {
+                int periodo = menorPeriodo + grupo;
+                resultado.add(new TotalAnalitico(periodo >>> 4, periodo & 0xF, tipo, status,
+                                                 Dinheiro.deCentavos(totais[grupo]), quantidades[grupo]));
+            }
+        }
+        return resultado;
+    }
+
+    private boolean atende(int i, int ano, int mes, int tipo, int status) {
+        int periodo = periodos[i];
+        return (ano == TODOS || periodo >>> 4 == ano)
+               && (mes == TODOS || (periodo & 0xF) == mes)
+               && (tipo == TODOS || tipos[i] == tipo)
+               && (status == TODOS || this.status[i] == status);
+    }
+
+    private void abrirEspaco(int posicao) {
+        if (tamanho == ids.length) {
+            int capacidade = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacidade);
+            centavos = Arrays.copyOf(centavos, capacidade);
+            periodos = Arrays.copyOf(periodos, capacidade);
+            tipos = Arrays.copyOf(tipos, capacidade);
+            status = Arrays.copyOf(status, capacidade);
+        }
+        int seguintes = tamanho - posicao;
+        System.arraycopy(ids, posicao, ids, posicao + 1, seguintes);
+        System.arraycopy(centavos, posicao, centavos, posicao + 1, seguintes);
+        System.arraycopy(periodos, posicao, periodos, posicao + 1, seguintes);
+        System.arraycopy(tipos, posicao, tipos, posicao + 1, seguintes);
+        System.arraycopy(status, posicao, status, posicao + 1, seguintes);
+        tamanho++;
+    }
+
+    private static int periodo(Integer ano, Integer mes) {
+        return (ano == null ? 0 : ano) << 4 | (mes == null ? 0 : mes);
+    }
+
+    private static byte codigo(Enum<?> valor) {
+        return valor == null ? NULO : (byte) valor.ordinal();
+    }
+}
@@ -0,0 +1,130 @@
+package com.edson.financas.service.impl;
+
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.enums.FormatoExportacao;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.ExportacaoService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+@Service
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportacaoServiceImpl implements ExportacaoService {
+
+    /**
+     * Sem o separador padrão (um espaço) entre valores raiz, que deslocaria cada linha do NDJSON após a primeira.
+     */
+    private static final JsonFactory JSON = new JsonFactoryBuilder().rootValueSeparator((String) null).build();
+
+    private static final String CABECALHO_CSV = "id;data;descricao;valor;tipo;status";
+
+    @Autowired
+    private LancamentoRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Cada lançamento é escrito e desanexado do contexto de persistência assim que lido, de modo que o
+     * consumo de memória não depende do tamanho do extrato.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportar(Long idUsuario, FormatoExportacao formato, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        JsonGenerator json = formato == FormatoExportacao.NDJSON ? JSON.createGenerator(writer) : null;
+        char[] valor = new char[Dinheiro.TAMANHO_MAXIMO_TEXTO];
+
+        if (formato == FormatoExportacao.CSV) {
+            writer.write(CABECALHO_CSV);
+            writer.write('\n');
+        }
+
+        try (Stream<Lancamento> lancamentos = repository.percorrerPorUsuario(idUsuario)) {
+            lancamentos.forEach(lancamento -> {
+                try {
+                    if (json != null) {
+                        escreverJson(json, lancamento, valor);
+                    } else {
+                        escreverCsv(writer, lancamento, valor);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                entityManager.detach(lancamento);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Mesmo layout aceito pela importação: data no primeiro dia do mês e valor negativo para despesas.
+     */
+    private void escreverCsv(Writer writer, Lancamento lancamento, char[] valor) throws IOException {
+        writer.write(String.valueOf(lancamento.getId()));
+        writer.write(';');
+        writer.write(String.format("%04d-%02d-01", lancamento.getAno(), lancamento.getMes()));
+        writer.write(';');
+        writer.write(textoCsv(lancamento.getDescricao()));
+        writer.write(';');
+        Dinheiro valorComSinal = lancamento.getTipo() == TipoLancamento.DESPESA
+                                 ? lancamento.getValor().negar()
+                                 : lancamento.getValor();
+        writer.write(valor, 0, valorComSinal.escrever(valor));
+        writer.write(';');
+        writer.write(lancamento.getTipo() == null ? "" : lancamento.getTipo().name());
+        writer.write(';');
+        writer.write(lancamento.getStatus() == null ? "" : lancamento.getStatus().name());
+        writer.write('\n');
+    }
+
+    private void escreverJson(JsonGenerator json, Lancamento lancamento, char[] valor) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", lancamento.getId());
+        json.writeStringField("descricao", lancamento.getDescricao());
+        json.writeNumberField("mes", lancamento.getMes());
+        json.writeNumberField("ano", lancamento.getAno());
+        json.writeFieldName("valor");
+        json.writeNumber(valor, 0, lancamento.getValor().escrever(valor));
+        json.writeStringField("tipo", lancamento.getTipo() == null ? null : lancamento.getTipo().name());
+        json.writeStringField("status", lancamento.getStatus() == null ? null : lancamento.getStatus().name());
+        json.writeStringField("dataCadastro", lancamento.getDataCadastro() == null ? null : lancamento.getDataCadastro().toString());
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static String textoCsv(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        if (texto.indexOf(';') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,204 @@
+package com.edson.financas.service.impl;
+
+import com.edson.financas.exception.GravacaoIndisponivelException;
+import com.edson.financas.model.entity.Lancamento;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Gravação agrupada das inclusões: os lançamentos validados entram numa fila limitada e uma única thread os
+ * grava em lotes de até {@code tamanho-lote} itens, cada lote numa transação, esperando no máximo
+ * {@code intervalo-ms} pelo preenchimento. Quem chamou fica bloqueado até o commit do seu lote, por no máximo
+ * {@code timeout-ms}. Com a fila cheia ou o prazo esgotado a inclusão é recusada com
+ * {@link GravacaoIndisponivelException}.
+ */
+@Component
+@ConditionalOnProperty(name = "financas.gravacao-agrupada.habilitada", havingValue = "true")
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilaGravacaoLancamentos {
+
+    private static final long ESPERA_OCIOSA_MS = 100;
+
+    private static final long ESPERA_ENCERRAMENTO_MS = 30_000;
+
+    @Autowired
+    private GravacaoLancamentos gravacao;
+
+    @Value("${financas.gravacao-agrupada.intervalo-ms:5}")
+    private long intervaloMs;
+
+    @Value("${financas.gravacao-agrupada.tamanho-lote:200}")
+    private int tamanhoLote;
+
+    @Value("${financas.gravacao-agrupada.capacidade-fila:10000}")
+    private int capacidadeFila;
+
+    @Value("${financas.gravacao-agrupada.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private BlockingQueue<Pendente> fila;
+
+    private DistributionSummary tamanhoDosLotes;
+
+    private Thread gravador;
+
+    private volatile boolean ativa;
+
+    @PostConstruct
+    public void iniciar() {
+        fila = new ArrayBlockingQueue<>(capacidadeFila);
+        Metrics.globalRegistry.gauge("lancamentos.gravacao.fila", fila, BlockingQueue::size);
+        tamanhoDosLotes = DistributionSummary.builder("lancamentos.gravacao.lote").register(Metrics.globalRegistry);
+
+        ativa = true;
+        gravador = new Thread(this::executar, "gravacao-lancamentos");
+        gravador.setDaemon(true);
+        gravador.start();
+    }
+
+    /**
+     * Novas inclusões passam a ser recusadas; o que já está na fila ainda é gravado.
+     */
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        synchronized (fila) {
+            ativa = false;
+        }
+        gravador.join(ESPERA_ENCERRAMENTO_MS);
+    }
+
+    public Lancamento gravar(Lancamento lancamento) {
+        Pendente pendente = new Pendente(lancamento);
+        synchronized (fila) {
+            if (!ativa || !fila.offer(pendente)) {
+                throw new GravacaoIndisponivelException("Muitas gravações simultâneas. Tente novamente em instantes.");
+            }
+        }
+
+        try {
+            return pendente.resultado.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GravacaoIndisponivelException("Gravação interrompida.");
+        } catch (TimeoutException e) {
+            // ainda na fila: a desistência garante que o gravador não vai incluí-lo num lote
+            if (pendente.reservado.compareAndSet(false, true)) {
+                throw new GravacaoIndisponivelException("Muitas gravações simultâneas. Tente novamente em instantes.");
+            }
+            throw new GravacaoIndisponivelException("A gravação está demorando e ainda pode ser concluída. "
+                                                    + "Confira os lançamentos antes de enviar novamente.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void executar() {
+        List<Pendente> lote = new ArrayList<>(tamanhoLote);
+        while (ativa || !fila.isEmpty()) {
+            try {
+                Pendente primeiro = fila.poll(ESPERA_OCIOSA_MS, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                reservar(lote, primeiro);
+
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+                while (lote.size() < tamanhoLote) {
+                    Pendente proximo = fila.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (proximo == null) {
+                        break;
+                    }
+                    reservar(lote, proximo);
+                }
+            } catch (InterruptedException e) {
+                // ninguém interrompe esta thread; se acontecer, o lote em montagem ainda é gravado
+            }
+
+            if (!lote.isEmpty()) {
+                gravarLote(lote);
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Quem desistiu por tempo já recebeu a recusa e fica fora do lote.
+     */
+    private static void reservar(List<Pendente> lote, Pendente pendente) {
+        if (pendente.reservado.compareAndSet(false, true)) {
+            lote.add(pendente);
+        }
+    }
+
+    /**
+     * Se o lote falha, os lançamentos são gravados um a um, para que só o recusado pelo banco receba o erro. Um
+     * {@link Error} encerra o lote inteiro com a falha, mas não a thread, que segue atendendo a fila.
+     */
+    private void gravarLote(List<Pendente> lote) {
+        tamanhoDosLotes.record(lote.size());
+        try {
+            List<Lancamento> salvos = gravacao.inserir(lote.stream().map(pendente -> pendente.lancamento)
+                                                           .collect(Collectors.toList()));
+            for (int i = 0; i < lote.size(); i++) {
+                lote.get(i).resultado.complete(salvos.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (lote.size() == 1) {
+                lote.get(0).resultado.completeExceptionally(e);
+                return;
+            }
+            lote.forEach(this::gravarSozinho);
+        } catch (Throwable e) {
+            lote.forEach(pendente -> pendente.resultado.completeExceptionally(e));
+        }
+    }
+
+    private void gravarSozinho(Pendente pendente) {
+        // id e versão atribuídos na tentativa desfeita não valem mais
+        pendente.lancamento.setId(null);
+        pendente.lancamento.setVersao(null);
+        try {
+            pendente.resultado.complete(gravacao.inserir(Collections.singletonList(pendente.lancamento)).get(0));
+        } catch (Throwable e) {
+            pendente.resultado.completeExceptionally(e);
+        }
+    }
+
+    private static class Pendente {
+
+        final Lancamento lancamento;
+
+        final CompletableFuture<Lancamento> resultado = new CompletableFuture<>();
+
+        // marcado pelo gravador ao pôr no lote ou por quem chamou ao desistir; o primeiro decide
+        final AtomicBoolean reservado = new AtomicBoolean();
+
+        Pendente(Lancamento lancamento) {
+            this.lancamento = lancamento;
+        }
+    }
+}
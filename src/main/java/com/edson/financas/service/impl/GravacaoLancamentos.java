@@ -0,0 +1,47 @@
+package com.edson.financas.service.impl;
+
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.service.event.LancamentosIncluidosEvent;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inclusão de lançamentos já validados numa única transação, com um só evento para o lote. Usada pelo
+ * {@code LancamentoService}, pela {@link FilaGravacaoLancamentos}, que chega aqui de outra thread, e pela geração
+ * de recorrências.
+ */
+@Component
+@NoArgsConstructor
+@AllArgsConstructor
+public class GravacaoLancamentos {
+
+    @Autowired
+    private LancamentoRepository repository;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Transactional
+    public List<Lancamento> inserir(List<Lancamento> lancamentos) {
+        List<Lancamento> lancamentosSalvos = new ArrayList<>(lancamentos.size());
+        List<LancamentoEstado> incluidos = new ArrayList<>(lancamentos.size());
+        for (Lancamento lancamento : lancamentos) {
+            Lancamento lancamentoSalvo = repository.save(lancamento);
+            lancamentosSalvos.add(lancamentoSalvo);
+            incluidos.add(LancamentoEstado.of(lancamentoSalvo));
+        }
+        if (!incluidos.isEmpty()) {
+            publisher.publishEvent(new LancamentosIncluidosEvent(incluidos));
+        }
+        return lancamentosSalvos;
+    }
+}
@@ -0,0 +1,209 @@
+package com.edson.financas.service.impl;
+
+import com.edson.financas.exception.RegraNegocioException;
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.enums.FormatoExtrato;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.ImportacaoService;
+import com.edson.financas.service.LancamentoService;
+import com.edson.financas.service.importacao.LeitorExtrato;
+import com.edson.financas.service.importacao.RegistroExtrato;
+import com.edson.financas.service.importacao.ResultadoImportacao;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacaoServiceImpl implements ImportacaoService {
+
+    private static final char[] HEXADECIMAL = "0123456789abcdef".toCharArray();
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    @Autowired
+    private LancamentoRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Value("${financas.importacao.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    @Value("${financas.importacao.maximo-erros:1000}")
+    private int maximoErros;
+
+    @Value("${financas.importacao.maximo-linhas:100000}")
+    private int maximoLinhas;
+
+    @Override
+    public ResultadoImportacao importar(Usuario usuario, FormatoExtrato formato, InputStream extrato) {
+        long inicio = System.nanoTime();
+        ResultadoImportacao resultado = new ResultadoImportacao();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        Map<String, Integer> ocorrencias = new HashMap<>();
+        List<Lancamento> lote = new ArrayList<>(tamanhoLote);
+        List<Long> linhas = new ArrayList<>(tamanhoLote);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(extrato, StandardCharsets.UTF_8));
+        try (LeitorExtrato leitor = LeitorExtrato.para(formato, reader)) {
+            while (leitor.hasNext()) {
+                RegistroExtrato registro = leitor.next();
+                if (resultado.getLidas() >= maximoLinhas) {
+                    rejeitar(resultado, registro.getLinha(), "O extrato passa de " + maximoLinhas
+                             + " lançamentos. As linhas a partir desta não foram importadas; envie-as em outro arquivo.");
+                    break;
+                }
+                resultado.setLidas(resultado.getLidas() + 1);
+
+                if (!registro.isValido()) {
+                    rejeitar(resultado, registro.getLinha(), registro.getErro());
+                    continue;
+                }
+
+                Lancamento lancamento = converter(usuario, registro, ocorrencias);
+                try {
+                    lancamentoService.validar(lancamento);
+                } catch (RegraNegocioException e) {
+                    rejeitar(resultado, registro.getLinha(), e.getMessage());
+                    continue;
+                }
+
+                lote.add(lancamento);
+                linhas.add(registro.getLinha());
+                if (lote.size() >= tamanhoLote) {
+                    gravar(transacao, usuario.getId(), lote, linhas, resultado);
+                }
+            }
+            gravar(transacao, usuario.getId(), lote, linhas, resultado);
+        } catch (IOException | UncheckedIOException e) {
+            throw new RegraNegocioException("Não foi possível ler o extrato enviado.");
+        }
+
+        long duracaoNanos = System.nanoTime() - inicio;
+        resultado.setDuracaoMs(duracaoNanos / 1_000_000);
+        resultado.setLinhasPorSegundo(duracaoNanos == 0 ? 0 : resultado.getLidas() * 1_000_000_000d / duracaoNanos);
+        return resultado;
+    }
+
+    private void gravar(TransactionTemplate transacao, Long idUsuario, List<Lancamento> lote, List<Long> linhas,
+                        ResultadoImportacao resultado) {
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        try {
+            Integer importadas = transacao.execute(status -> {
+                Set<String> existentes = repository.buscarHashesImportados(idUsuario, lote.stream()
+                                                                                          .map(Lancamento::getHashImportacao)
+                                                                                          .collect(Collectors.toList()));
+                List<Lancamento> novos = lote.stream()
+                                             .filter(lancamento -> !existentes.contains(lancamento.getHashImportacao()))
+                                             .collect(Collectors.toList());
+                lancamentoService.salvarTodos(novos);
+                entityManager.flush();
+                entityManager.clear();
+                return novos.size();
+            });
+            resultado.setImportadas(resultado.getImportadas() + importadas);
+            resultado.setDuplicadas(resultado.getDuplicadas() + lote.size() - importadas);
+        } catch (RuntimeException e) {
+            String mensagem = mensagemDoLote(e);
+            linhas.forEach(linha -> rejeitar(resultado, linha, mensagem));
+        }
+
+        lote.clear();
+        linhas.clear();
+    }
+
+    /**
+     * A mensagem vai para o usuário; o detalhe da falha fica só no log.
+     */
+    private static String mensagemDoLote(RuntimeException e) {
+        if (e instanceof RegraNegocioException) {
+            return "Lote não gravado: " + e.getMessage();
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            return "Lote não gravado: outra importação do mesmo extrato gravou parte destes lançamentos ao mesmo tempo. "
+                   + "Importe o extrato novamente para concluir; os já gravados serão ignorados.";
+        }
+        log.error("Falha ao gravar um lote da importação.", e);
+        return "Lote não gravado por uma falha interna. Importe o extrato novamente mais tarde.";
+    }
+
+    private void rejeitar(ResultadoImportacao resultado, long linha, String mensagem) {
+        resultado.setRejeitadas(resultado.getRejeitadas() + 1);
+        if (resultado.getErros().size() < maximoErros) {
+            resultado.getErros().add(new ResultadoImportacao.ErroImportacao(linha, mensagem));
+        }
+    }
+
+    private Lancamento converter(Usuario usuario, RegistroExtrato registro, Map<String, Integer> ocorrencias) {
+        Lancamento lancamento = new Lancamento();
+        lancamento.setUsuario(usuario);
+        lancamento.setDescricao(registro.getDescricao());
+        lancamento.setAno(registro.getData().getYear());
+        lancamento.setMes(registro.getData().getMonthValue());
+        lancamento.setValor(Dinheiro.de(registro.getValor().abs()));
+        lancamento.setTipo(registro.getValor().signum() < 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA);
+        lancamento.setDataCadastro(LocalDate.now());
+
+        String conteudo = usuario.getId() + "|" + registro.getData() + "|" + registro.getValor().stripTrailingZeros().toPlainString()
+                          + "|" + registro.getDescricao() + "|" + registro.getIdentificador();
+        int ocorrencia = ocorrencias.merge(conteudo, 1, Integer::sum);
+        lancamento.setHashImportacao(calcularHash(conteudo + "|" + ocorrencia));
+
+        return lancamento;
+    }
+
+    /**
+     * Linhas idênticas no mesmo extrato (duas compras iguais no mesmo dia) são diferenciadas pela ordem
+     * de ocorrência, de modo que reimportar o arquivo gera os mesmos hashes. O mapa de ocorrências cresce com o
+     * arquivo e por isso o extrato é limitado a {@code financas.importacao.maximo-linhas} lançamentos.
+     */
+    private static String calcularHash(String conteudo) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(conteudo.getBytes(StandardCharsets.UTF_8));
+            char[] hexadecimal = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                hexadecimal[i * 2] = HEXADECIMAL[(hash[i] >> 4) & 0xF];
+                hexadecimal[i * 2 + 1] = HEXADECIMAL[hash[i] & 0xF];
+            }
+            return new String(hexadecimal);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
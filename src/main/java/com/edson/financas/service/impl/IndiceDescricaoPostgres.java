@@ -0,0 +1,49 @@
+package com.edson.financas.service.impl;
+
+import com.edson.financas.model.projection.CursorLancamento;
+import com.edson.financas.model.projection.LancamentoVisao;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.service.IndiceDescricao;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Delega a busca ao índice GIN de trigramas do Postgres, que atende {@code lower(descricao) like '%termo%'};
+ * o índice é criado pela migração {@code db/migration/postgresql/V5__indice_trigrama_descricao.sql}.
+ */
+@Service
+@NoArgsConstructor
+@AllArgsConstructor
+@ConditionalOnProperty(prefix = "financas.busca", name = "indice-descricao", havingValue = "postgres")
+public class IndiceDescricaoPostgres implements IndiceDescricao {
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LancamentoVisao> buscar(Long idUsuario, String descricao, Integer ano, Integer mes) {
+        return lancamentoRepository.buscarPorDescricao(idUsuario, LancamentoRepository.contendo(descricao.trim()), ano, mes);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LancamentoVisao> buscarAposCursor(Long idUsuario, String descricao, Integer ano, Integer mes,
+                                                  CursorLancamento cursor, int limite) {
+        return lancamentoRepository.buscarAposCursor(idUsuario, ano, mes, LancamentoRepository.contendo(descricao.trim()),
+                                                     cursor.getAno(), cursor.getMes(), cursor.getId(),
+                                                     PageRequest.of(0, limite));
+    }
+
+    @Override
+    public void reconstruir() {
+        // o índice é mantido pelo próprio Postgres
+    }
+}
@@ -0,0 +1,168 @@
+package com.edson.financas.service.impl;
+
+import com.edson.financas.model.entity.TrigramaDescricao;
+import com.edson.financas.model.projection.CursorLancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.LancamentoVisao;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.repository.TrigramaDescricaoRepository;
+import com.edson.financas.service.IndiceDescricao;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.LancamentosIncluidosEvent;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Índice invertido de trigramas da descrição, mantido em tabela própria por usuário. Funciona em
+ * qualquer banco; em produção com Postgres pode ser substituído pelo {@link IndiceDescricaoPostgres}.
+ */
+@Service
+@NoArgsConstructor
+@AllArgsConstructor
+@ConditionalOnProperty(prefix = "financas.busca", name = "indice-descricao", havingValue = "trigrama", matchIfMissing = true)
+public class IndiceDescricaoTrigrama implements IndiceDescricao {
+
+    static final int TAMANHO_TRIGRAMA = 3;
+
+    private static final int LOTE_RECONSTRUCAO = 1000;
+
+    @Autowired
+    private TrigramaDescricaoRepository repository;
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LancamentoVisao> buscar(Long idUsuario, String descricao, Integer ano, Integer mes) {
+        String termo = normalizar(descricao);
+        Set<String> trigramas = extrairTrigramas(termo);
+
+        if (trigramas.isEmpty()) {
+            return lancamentoRepository.buscarPorDescricao(idUsuario, LancamentoRepository.contendo(termo), ano, mes);
+        }
+
+        return lancamentoRepository.buscarPorTrigramas(idUsuario, trigramas, trigramas.size(), ano, mes)
+                                   .stream()
+                                   .filter(lancamento -> normalizar(lancamento.getDescricao()).contains(termo))
+                                   .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LancamentoVisao> buscarAposCursor(Long idUsuario, String descricao, Integer ano, Integer mes,
+                                                  CursorLancamento cursor, int limite) {
+        String termo = normalizar(descricao);
+        Set<String> trigramas = extrairTrigramas(termo);
+        PageRequest pagina = PageRequest.of(0, limite);
+
+        if (trigramas.isEmpty()) {
+            return lancamentoRepository.buscarAposCursor(idUsuario, ano, mes, LancamentoRepository.contendo(termo),
+                                                         cursor.getAno(), cursor.getMes(), cursor.getId(), pagina);
+        }
+
+        return lancamentoRepository.buscarPorTrigramasAposCursor(idUsuario, trigramas, trigramas.size(),
+                                                                 LancamentoRepository.contendo(termo), ano, mes,
+                                                                 cursor.getAno(), cursor.getMes(), cursor.getId(), pagina);
+    }
+
+    @EventListener
+    @Transactional
+    public void aoAlterarLancamento(LancamentoAlteradoEvent event) {
+        LancamentoEstado anterior = event.getAnterior();
+        LancamentoEstado atual = event.getAtual();
+
+        if (anterior != null && atual != null
+                && Objects.equals(anterior.getDescricao(), atual.getDescricao())
+                && Objects.equals(anterior.getIdUsuario(), atual.getIdUsuario())) {
+            return;
+        }
+
+        if (anterior != null) {
+            repository.excluirPorLancamento(anterior.getId());
+        }
+
+        if (atual != null) {
+            indexar(atual);
+        }
+    }
+
+    @EventListener
+    @Transactional
+    public void aoIncluirLancamentos(LancamentosIncluidosEvent event) {
+        event.getIncluidos().forEach(this::indexar);
+    }
+
+    @Override
+    @Transactional
+    public void reconstruir() {
+        repository.excluirTodos();
+
+        List<LancamentoEstado> lote = lancamentoRepository.listarEstadosAposId(0L, PageRequest.of(0, LOTE_RECONSTRUCAO));
+        while (!lote.isEmpty()) {
+            lote.forEach(this::indexar);
+            Long ultimoId = lote.get(lote.size() - 1).getId();
+            lote = lancamentoRepository.listarEstadosAposId(ultimoId, PageRequest.of(0, LOTE_RECONSTRUCAO));
+        }
+    }
+
+    /**
+     * Indexa um lote de lançamentos, a partir do id informado, que ainda não têm trigramas, como os incluídos
+     * antes de o índice existir. Devolve o último id do lote, ou {@code null} quando não há mais nenhum.
+     * Pode rodar junto com as escritas: um trigrama a mais só gera um candidato que a busca descarta.
+     */
+    @Transactional
+    public Long indexarPendentes(Long aposId) {
+        List<LancamentoEstado> lote = lancamentoRepository.listarEstadosSemTrigramasAposId(aposId,
+                                                                                          PageRequest.of(0, LOTE_RECONSTRUCAO));
+        if (lote.isEmpty()) {
+            return null;
+        }
+        lote.forEach(this::indexar);
+        return lote.get(lote.size() - 1).getId();
+    }
+
+    private void indexar(LancamentoEstado estado) {
+        if (estado.getIdUsuario() == null || estado.getDescricao() == null) {
+            return;
+        }
+
+        repository.saveAll(extrairTrigramas(normalizar(estado.getDescricao())).stream()
+                                   .map(trigrama -> TrigramaDescricao.builder()
+                                                                     .idUsuario(estado.getIdUsuario())
+                                                                     .idLancamento(estado.getId())
+                                                                     .trigrama(trigrama)
+                                                                     .build())
+                                   .collect(Collectors.toList()));
+    }
+
+    static String normalizar(String descricao) {
+        return descricao == null ? "" : descricao.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> extrairTrigramas(String termo) {
+        if (termo.length() < TAMANHO_TRIGRAMA) {
+            return Collections.emptySet();
+        }
+
+        Set<String> trigramas = new LinkedHashSet<>();
+        for (int i = 0; i + TAMANHO_TRIGRAMA <= termo.length(); i++) {
+            trigramas.add(termo.substring(i, i + TAMANHO_TRIGRAMA));
+        }
+        return trigramas;
+    }
+}
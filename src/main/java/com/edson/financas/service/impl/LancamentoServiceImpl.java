@@ -3,23 +3,42 @@ package com.edson.financas.service.impl;
 import com.edson.financas.exception.RegraNegocioException;
 import com.edson.financas.model.entity.Lancamento;
 import com.edson.financas.model.enums.StatusLancamento;
-import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.CursorLancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.LancamentoVisao;
+import com.edson.financas.model.projection.PaginaLancamentos;
+import com.edson.financas.model.projection.PainelUsuario;
+import com.edson.financas.model.projection.ResumoCalculado;
+import com.edson.financas.model.projection.TotalPorStatus;
 import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.IndiceDescricao;
 import com.edson.financas.service.LancamentoService;
+import com.edson.financas.service.SaldoService;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.StatusLancamentosAlteradoEvent;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @NoArgsConstructor
@@ -29,12 +48,58 @@ public class LancamentoServiceImpl implements LancamentoService {
     @Autowired
     private LancamentoRepository repository;
 
+    @Autowired
+    private SaldoService saldoService;
+
+    @Autowired
+    private IndiceDescricao indiceDescricao;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Autowired
+    private GravacaoLancamentos gravacao;
+
+    @Autowired(required = false)
+    private FilaGravacaoLancamentos filaGravacao;
+
+    @Value("${financas.paginacao.tamanho-padrao:50}")
+    private int tamanhoPadraoPagina;
+
+    @Value("${financas.paginacao.tamanho-maximo:500}")
+    private int tamanhoMaximoPagina;
+
+    @Value("${financas.lancamento.busca.maximo:1000}")
+    private int maximoBusca;
+
+    @Value("${financas.lancamento.status-lote.maximo-ids:1000}")
+    private int maximoIdsLote;
+
+    @Value("${financas.painel.ultimos-lancamentos:10}")
+    private int ultimosLancamentosPainel;
+
+    /**
+     * Com a gravação agrupada habilitada, uma inclusão feita fora de transação vai para a fila e retorna depois
+     * do commit do lote; dentro de uma transação ela continua fazendo parte da transação de quem chamou.
+     */
     @Override
-    @Transactional
     public Lancamento salvar(Lancamento lancamento) {
         validar(lancamento);
         lancamento.setStatus(StatusLancamento.PENDENTE);
-        return repository.save(lancamento);
+        if (filaGravacao != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return filaGravacao.gravar(lancamento);
+        }
+        return gravacao.inserir(Collections.singletonList(lancamento)).get(0);
+    }
+
+    @Override
+    @Transactional
+    public List<Lancamento> salvarTodos(List<Lancamento> lancamentos) {
+        for (Lancamento lancamento : lancamentos) {
+            validar(lancamento);
+            lancamento.setStatus(StatusLancamento.PENDENTE);
+        }
+        return gravacao.inserir(lancamentos);
     }
 
     @Override
@@ -42,37 +107,165 @@ public class LancamentoServiceImpl implements LancamentoService {
     public Lancamento atualizar(Lancamento lancamento) {
         Objects.requireNonNull(lancamento.getId());
         validar(lancamento);
-        return repository.save(lancamento);
+        completarVersao(lancamento);
+        LancamentoEstado anterior = repository.obterEstadoPersistido(lancamento.getId()).orElse(null);
+        Lancamento lancamentoAtualizado = repository.save(lancamento);
+        publisher.publishEvent(LancamentoAlteradoEvent.alteracao(anterior, lancamentoAtualizado));
+        return lancamentoAtualizado;
     }
 
     @Override
     @Transactional
     public void deletar(Lancamento lancamento) {
         Objects.requireNonNull(lancamento.getId());
+        completarVersao(lancamento);
+        LancamentoEstado anterior = repository.obterEstadoPersistido(lancamento.getId())
+                                              .orElseGet(() -> LancamentoEstado.of(lancamento));
         repository.delete(lancamento);
+        publisher.publishEvent(LancamentoAlteradoEvent.exclusao(anterior));
     }
 
+    /**
+     * Busca sem paginação, limitada a {@code financas.lancamento.busca.maximo} lançamentos: no máximo uma linha a
+     * mais é lida, e uma consulta maior é recusada em vez de truncada, indicando a busca paginada.
+     */
     @Override
-    @Transactional
-    public List<Lancamento> buscar(Lancamento lancamentoFiltro) {
-        Example example = Example.of(lancamentoFiltro, ExampleMatcher.matching()
-                                                       .withIgnoreCase()
-                                                       .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
-        return repository.findAll(example);
+    @Transactional(readOnly = true)
+    public List<LancamentoVisao> buscar(Lancamento lancamentoFiltro) {
+        Long idUsuario = lancamentoFiltro.getUsuario() != null ? lancamentoFiltro.getUsuario().getId() : null;
+        PageRequest limite = PageRequest.of(0, maximoBusca + 1);
+
+        List<LancamentoVisao> lancamentos;
+        if (idUsuario != null && lancamentoFiltro.getDescricao() != null && !lancamentoFiltro.getDescricao().trim().isEmpty()){
+            lancamentos = indiceDescricao.buscar(idUsuario,
+                                                 lancamentoFiltro.getDescricao(),
+                                                 lancamentoFiltro.getAno(),
+                                                 lancamentoFiltro.getMes());
+        }else if (idUsuario == null){
+            lancamentos = repository.listarVisoesDeTodosUsuarios(lancamentoFiltro.getAno(), lancamentoFiltro.getMes(), limite);
+        }else {
+            lancamentos = repository.listarVisoes(idUsuario, lancamentoFiltro.getAno(), lancamentoFiltro.getMes(), limite);
+        }
+
+        if (lancamentos.size() > maximoBusca){
+            throw new RegraNegocioException("A consulta retorna mais de " + maximoBusca
+                                            + " lançamentos. Refine o filtro ou use /api/lancamentos/pagina.");
+        }
+        return lancamentos;
     }
 
     @Override
-    @Transactional
-    public List<Lancamento> buscarTodos(Lancamento lancamento) {
-        return repository.findAll();
+    @Transactional(readOnly = true)
+    public List<LancamentoVisao> buscarTodos(Lancamento lancamento) {
+        return repository.listarTodasVisoes();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public PaginaLancamentos buscarPagina(Lancamento lancamentoFiltro, String cursor, Integer tamanho) {
+        int tamanhoPagina = tamanho == null ? tamanhoPadraoPagina : Math.min(tamanho, tamanhoMaximoPagina);
+        if (tamanhoPagina < 1){
+            throw new RegraNegocioException("Informe um tamanho de página válido.");
+        }
+
+        CursorLancamento posicao = CursorLancamento.decodificar(cursor);
+        Long idUsuario = lancamentoFiltro.getUsuario().getId();
+        String descricao = lancamentoFiltro.getDescricao();
+
+        List<LancamentoVisao> lancamentos;
+        if (descricao == null || descricao.trim().isEmpty()){
+            lancamentos = repository.buscarAposCursor(idUsuario,
+                                                      lancamentoFiltro.getAno(),
+                                                      lancamentoFiltro.getMes(),
+                                                      null,
+                                                      posicao.getAno(),
+                                                      posicao.getMes(),
+                                                      posicao.getId(),
+                                                      PageRequest.of(0, tamanhoPagina + 1));
+        }else {
+            lancamentos = indiceDescricao.buscarAposCursor(idUsuario, descricao, lancamentoFiltro.getAno(),
+                                                           lancamentoFiltro.getMes(), posicao, tamanhoPagina + 1);
+        }
+
+        if (lancamentos.size() <= tamanhoPagina){
+            return new PaginaLancamentos(lancamentos, null);
+        }
+
+        List<LancamentoVisao> itens = lancamentos.subList(0, tamanhoPagina);
+        return new PaginaLancamentos(itens, CursorLancamento.apos(itens.get(tamanhoPagina - 1)).codificar());
+    }
+
+    @Override
+    @Transactional
     public void atualizarStatus(Lancamento lancamento, StatusLancamento status) {
         lancamento.setStatus(status);
         atualizar(lancamento);
     }
 
+    /**
+     * Com {@code ids} a alteração fica restrita a eles; sem, vale o filtro de ano, mês e tipo, e ao menos um deles
+     * é obrigatório. Nos dois casos só lançamentos do usuário do filtro são alterados: as linhas são travadas, os
+     * totais do evento são somados a partir delas e o UPDATE vai por ids, em partes de até
+     * {@code financas.lancamento.status-lote.maximo-ids}.
+     */
+    @Override
+    @Transactional
+    public int atualizarStatusEmLote(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento status) {
+        if (status == null){
+            throw new RegraNegocioException("Informe um Status válido.");
+        }
+
+        if (lancamentoFiltro.getUsuario() == null || lancamentoFiltro.getUsuario().getId() == null){
+            throw new RegraNegocioException("Informe um Usuário.");
+        }
+
+        Long idUsuario = lancamentoFiltro.getUsuario().getId();
+        List<LancamentoEstado> travados;
+        if (ids != null && !ids.isEmpty()){
+            if (ids.size() > maximoIdsLote){
+                throw new RegraNegocioException("Informe no máximo " + maximoIdsLote + " lançamentos por vez.");
+            }
+            travados = repository.travarLotePorIds(idUsuario, ids, status);
+        }else {
+            if (lancamentoFiltro.getAno() == null && lancamentoFiltro.getMes() == null && lancamentoFiltro.getTipo() == null){
+                throw new RegraNegocioException("Informe os lançamentos, o ano, o mês ou o tipo a alterar.");
+            }
+            travados = repository.travarLote(idUsuario, lancamentoFiltro.getAno(), lancamentoFiltro.getMes(),
+                                             lancamentoFiltro.getTipo(), status);
+        }
+
+        int atualizados = 0;
+        for (int inicio = 0; inicio < travados.size(); inicio += maximoIdsLote){
+            List<Long> parte = travados.subList(inicio, Math.min(inicio + maximoIdsLote, travados.size()))
+                                       .stream()
+                                       .map(LancamentoEstado::getId)
+                                       .collect(Collectors.toList());
+            atualizados += repository.atualizarStatusDoLotePorIds(idUsuario, parte, status);
+        }
+
+        if (atualizados > 0){
+            publisher.publishEvent(new StatusLancamentosAlteradoEvent(resumir(travados), status));
+        }
+        return atualizados;
+    }
+
+    private static List<ResumoCalculado> resumir(List<LancamentoEstado> lancamentos) {
+        Map<List<Object>, ResumoCalculado> resumos = new LinkedHashMap<>();
+        for (LancamentoEstado lancamento : lancamentos){
+            ResumoCalculado resumo = new ResumoCalculado(lancamento.getIdUsuario(), lancamento.getAno(), lancamento.getMes(),
+                                                         lancamento.getTipo(), lancamento.getStatus(),
+                                                         lancamento.getValor() == null ? Dinheiro.ZERO : lancamento.getValor(), 1l);
+            resumos.merge(Arrays.asList(resumo.getIdUsuario(), resumo.getAno(), resumo.getMes(), resumo.getTipo(),
+                                        resumo.getStatus()),
+                          resumo,
+                          (atual, novo) -> new ResumoCalculado(atual.getIdUsuario(), atual.getAno(), atual.getMes(),
+                                                               atual.getTipo(), atual.getStatus(),
+                                                               atual.getTotal().somar(novo.getTotal()),
+                                                               atual.getQuantidade() + novo.getQuantidade()));
+        }
+        return new ArrayList<>(resumos.values());
+    }
+
     @Override
     public void validar(Lancamento lancamento) {
 
@@ -92,7 +285,7 @@ public class LancamentoServiceImpl implements LancamentoService {
             throw new RegraNegocioException("Informe um Usuário.");
         }
 
-        if (lancamento.getValor() == null || lancamento.getValor().compareTo(BigDecimal.ZERO) < 1){
+        if (lancamento.getValor() == null || !lancamento.getValor().isPositivo()){
             throw new RegraNegocioException("Informe um Valor válido.");
         }
 
@@ -101,25 +294,66 @@ public class LancamentoServiceImpl implements LancamentoService {
         }
     }
 
+    /**
+     * Lançamento montado sem a versão (fora do fluxo com If-Match) assume a versão gravada; sem ela o
+     * Spring Data o trataria como novo.
+     */
+    private void completarVersao(Lancamento lancamento) {
+        if (lancamento.getVersao() == null) {
+            repository.obterVersao(lancamento.getId()).ifPresent(lancamento::setVersao);
+        }
+    }
+
+    /**
+     * Carrega a entidade que será alterada em seguida, por isso lê do primário mesmo havendo réplica.
+     */
     @Override
+    @Transactional
     public Optional<Lancamento> obterPorId(Long id) {
         return repository.findById(id);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public BigDecimal obterSaldoPorUsuario(Long id) {
-        BigDecimal receitas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.RECEITA);
-        BigDecimal despesas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.DESPESA);
+    public Optional<LancamentoVisao> obterVisaoPorId(Long id) {
+        return repository.obterVisao(id);
+    }
 
-        if (receitas == null){
-            receitas = BigDecimal.ZERO;
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public Dinheiro obterSaldoPorUsuario(Long id) {
+        return saldoService.obterSaldo(id);
+    }
 
-        if (despesas == null){
-            despesas = BigDecimal.ZERO;
+    /**
+     * Tudo o que a tela inicial mostra em duas consultas na mesma conexão: os totais agrupados por status e os
+     * últimos lançamentos. Lançamentos sem status entram nas somas, mas não na contagem por status.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PainelUsuario obterPainel(Long idUsuario, YearMonth referencia) {
+        List<TotalPorStatus> totais = repository.totalizarPorStatus(idUsuario, referencia.getYear(),
+                                                                    referencia.getMonthValue());
+
+        Dinheiro saldo = Dinheiro.ZERO;
+        Dinheiro receitasMes = Dinheiro.ZERO;
+        Dinheiro despesasMes = Dinheiro.ZERO;
+        Map<StatusLancamento, Long> quantidadePorStatus = new EnumMap<>(StatusLancamento.class);
+        for (StatusLancamento status : StatusLancamento.values()) {
+            quantidadePorStatus.put(status, 0l);
+        }
+        for (TotalPorStatus total : totais) {
+            saldo = saldo.somar(total.getReceitas()).subtrair(total.getDespesas());
+            receitasMes = receitasMes.somar(total.getReceitasMes());
+            despesasMes = despesasMes.somar(total.getDespesasMes());
+            if (total.getStatus() != null) {
+                quantidadePorStatus.put(total.getStatus(), total.getQuantidade());
+            }
         }
 
-        return receitas.subtract(despesas);
+        List<LancamentoVisao> ultimos = repository.listarUltimasVisoes(idUsuario,
+                                                                       PageRequest.of(0, ultimosLancamentosPainel));
+        return new PainelUsuario(idUsuario, referencia.getYear(), referencia.getMonthValue(), saldo,
+                                 receitasMes, despesasMes, quantidadePorStatus, ultimos);
     }
 }
@@ -0,0 +1,394 @@
+package com.edson.financas.service.impl;
+
+import com.edson.financas.model.enums.OperacaoLancamento;
+import com.edson.financas.model.projection.AlteracaoLancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.ResumoCalculado;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.NotificacaoService;
+import com.edson.financas.service.SaldoService;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.LancamentosIncluidosEvent;
+import com.edson.financas.service.event.StatusLancamentosAlteradoEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Envia por Server-Sent Events, depois do commit de cada escrita do {@code LancamentoService}, um resumo da
+ * alteração e o saldo atualizado do usuário. As alterações de cada conexão aguardam o envio numa fila limitada a
+ * {@code capacidade-buffer}; o cliente que não acompanha tem a conexão encerrada e recebe o saldo atual ao
+ * reconectar. O saldo é lido do primário uma vez por rodada do usuário, sempre na mesma thread e na ordem das
+ * escritas, qualquer que seja o número de alterações acumuladas. Cada conexão é escrita por uma tarefa própria,
+ * de modo que um cliente lento só atrasa a si mesmo, e a que fica mais de {@code timeout-envio-segundos} presa
+ * numa escrita é encerrada.
+ */
+@Slf4j
+@Service
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificacaoServiceImpl implements NotificacaoService {
+
+    static final String EVENTO_LANCAMENTO = "lancamento";
+
+    static final String EVENTO_SALDO = "saldo";
+
+    @Autowired
+    private SaldoService saldoService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${financas.notificacao.capacidade-buffer:64}")
+    private int capacidadeBuffer;
+
+    @Value("${financas.notificacao.heartbeat-segundos:15}")
+    private long heartbeatSegundos;
+
+    @Value("${financas.notificacao.timeout-minutos:30}")
+    private long timeoutMinutos;
+
+    @Value("${financas.notificacao.timeout-envio-segundos:30}")
+    private long timeoutEnvioSegundos;
+
+    @Value("${financas.notificacao.threads:2}")
+    private int threads;
+
+    private Map<Long, Set<Conexao>> conexoesPorUsuario;
+
+    private Set<Long> usuariosAgendados;
+
+    private ExecutorService[] leituras;
+
+    private ExecutorService envios;
+
+    private ScheduledExecutorService batimentos;
+
+    private TransactionTemplate transacao;
+
+    private Counter desconexoesPorAtraso;
+
+    @PostConstruct
+    public void iniciar() {
+        conexoesPorUsuario = new ConcurrentHashMap<>();
+        usuariosAgendados = ConcurrentHashMap.newKeySet();
+        transacao = new TransactionTemplate(transactionManager);
+
+        leituras = new ExecutorService[threads];
+        for (int i = 0; i < threads; i++) {
+            leituras[i] = Executors.newSingleThreadExecutor(criarThreads("notificacao-" + i));
+        }
+        envios = Executors.newCachedThreadPool(criarThreads("notificacao-envio"));
+        batimentos = Executors.newSingleThreadScheduledExecutor(criarThreads("notificacao-heartbeat"));
+        batimentos.scheduleAtFixedRate(this::verificarConexoes, heartbeatSegundos, heartbeatSegundos, TimeUnit.SECONDS);
+
+        Metrics.globalRegistry.gauge("notificacao.conexoes", conexoesPorUsuario,
+                                     conexoes -> conexoes.values().stream().mapToInt(Set::size).sum());
+        desconexoesPorAtraso = Counter.builder("notificacao.desconexoes.atraso").register(Metrics.globalRegistry);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        batimentos.shutdownNow();
+        for (ExecutorService leitura : leituras) {
+            leitura.shutdownNow();
+        }
+        envios.shutdownNow();
+        conexoesPorUsuario.values().forEach(conexoes -> conexoes.forEach(conexao -> conexao.emissor.complete()));
+    }
+
+    @Override
+    public SseEmitter inscrever(Long idUsuario) {
+        return inscrever(idUsuario, new SseEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutos)));
+    }
+
+    public SseEmitter inscrever(Long idUsuario, SseEmitter emissor) {
+        Conexao conexao = new Conexao(idUsuario, emissor, new ArrayBlockingQueue<>(capacidadeBuffer));
+        emissor.onCompletion(() -> remover(conexao));
+        emissor.onTimeout(emissor::complete);
+        emissor.onError(erro -> remover(conexao));
+
+        conexoesPorUsuario.compute(idUsuario, (id, conexoes) -> {
+            Set<Conexao> doUsuario = conexoes != null ? conexoes : ConcurrentHashMap.newKeySet();
+            doUsuario.add(conexao);
+            return doUsuario;
+        });
+        // a primeira rodada entrega o saldo atual à nova conexão
+        agendar(idUsuario);
+        return emissor;
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarLancamento(LancamentoAlteradoEvent event) {
+        LancamentoEstado anterior = event.getAnterior();
+        LancamentoEstado atual = event.getAtual();
+
+        if (anterior != null && atual != null && Objects.equals(anterior.getIdUsuario(), atual.getIdUsuario())) {
+            publicar(atual.getIdUsuario(), AlteracaoLancamento.of(OperacaoLancamento.ALTERACAO, atual));
+            return;
+        }
+        if (anterior != null) {
+            publicar(anterior.getIdUsuario(), AlteracaoLancamento.of(OperacaoLancamento.EXCLUSAO, anterior));
+        }
+        if (atual != null) {
+            publicar(atual.getIdUsuario(), AlteracaoLancamento.of(OperacaoLancamento.INCLUSAO, atual));
+        }
+    }
+
+    /**
+     * Uma inclusão avulsa segue como {@code INCLUSAO}; as de um lote maior do mesmo usuário vão somadas por mês,
+     * tipo e status, para que uma importação não esgote a fila das conexões.
+     */
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoIncluirLancamentos(LancamentosIncluidosEvent event) {
+        Map<Long, List<LancamentoEstado>> porUsuario = event.getIncluidos().stream()
+                .filter(incluido -> incluido.getIdUsuario() != null)
+                .collect(Collectors.groupingBy(LancamentoEstado::getIdUsuario, LinkedHashMap::new, Collectors.toList()));
+
+        porUsuario.forEach((idUsuario, incluidos) -> {
+            if (incluidos.size() == 1) {
+                publicar(idUsuario, AlteracaoLancamento.of(OperacaoLancamento.INCLUSAO, incluidos.get(0)));
+                return;
+            }
+            incluidos.stream()
+                     .collect(Collectors.groupingBy(incluido -> Arrays.asList(incluido.getAno(), incluido.getMes(),
+                                                                              incluido.getTipo(), incluido.getStatus()),
+                                                    LinkedHashMap::new, Collectors.toList()))
+                     .values()
+                     .forEach(grupo -> {
+                         LancamentoEstado primeiro = grupo.get(0);
+                         Dinheiro total = grupo.stream()
+                                               .map(LancamentoEstado::getValor)
+                                               .filter(Objects::nonNull)
+                                               .reduce(Dinheiro.ZERO, Dinheiro::somar);
+                         publicar(idUsuario, new AlteracaoLancamento(OperacaoLancamento.INCLUSAO_EM_LOTE, null,
+                                                                     primeiro.getAno(), primeiro.getMes(),
+                                                                     primeiro.getTipo(), primeiro.getStatus(), total,
+                                                                     (long) grupo.size()));
+                     });
+        });
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarStatus(StatusLancamentosAlteradoEvent event) {
+        for (ResumoCalculado anterior : event.getAnteriores()) {
+            publicar(anterior.getIdUsuario(),
+                     new AlteracaoLancamento(OperacaoLancamento.STATUS_EM_LOTE, null, anterior.getAno(), anterior.getMes(),
+                                             anterior.getTipo(), event.getStatus(), anterior.getTotal(),
+                                             anterior.getQuantidade()));
+        }
+    }
+
+    private void publicar(Long idUsuario, AlteracaoLancamento alteracao) {
+        Set<Conexao> conexoes = idUsuario != null ? conexoesPorUsuario.get(idUsuario) : null;
+        if (conexoes == null) {
+            return;
+        }
+
+        for (Conexao conexao : conexoes) {
+            if (!conexao.pendentes.offer(alteracao)) {
+                desconectarPorAtraso(conexao);
+            }
+        }
+        agendar(idUsuario);
+    }
+
+    /**
+     * Alterações que chegam enquanto o usuário já aguarda a vez entram na mesma rodada de envio.
+     */
+    private void agendar(Long idUsuario) {
+        if (!usuariosAgendados.add(idUsuario)) {
+            return;
+        }
+        try {
+            leituras[Math.floorMod(idUsuario.hashCode(), leituras.length)].execute(() -> lerSaldo(idUsuario));
+        } catch (RejectedExecutionException e) {
+            usuariosAgendados.remove(idUsuario);
+        }
+    }
+
+    private void lerSaldo(Long idUsuario) {
+        usuariosAgendados.remove(idUsuario);
+        Set<Conexao> conexoes = conexoesPorUsuario.get(idUsuario);
+        if (conexoes == null) {
+            return;
+        }
+
+        Dinheiro saldo = null;
+        try {
+            // transação de escrita para que a leitura vá ao primário, que acabou de receber o commit
+            saldo = transacao.execute(status -> saldoService.obterSaldo(idUsuario));
+        } catch (RuntimeException e) {
+            log.warn("Saldo do usuário {} não enviado: {}", idUsuario, e.getMessage());
+        }
+
+        for (Conexao conexao : conexoes) {
+            if (saldo != null) {
+                conexao.saldo.set(saldo);
+            }
+            agendar(conexao);
+        }
+    }
+
+    /**
+     * No máximo uma tarefa de envio por conexão; o que chega enquanto ela escreve fica para a próxima rodada,
+     * que a própria tarefa agenda ao terminar.
+     */
+    private void agendar(Conexao conexao) {
+        if (!conexao.agendada.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            envios.execute(() -> drenar(conexao));
+        } catch (RejectedExecutionException e) {
+            conexao.agendada.set(false);
+        }
+    }
+
+    private void drenar(Conexao conexao) {
+        List<AlteracaoLancamento> alteracoes = new ArrayList<>();
+        conexao.pendentes.drainTo(alteracoes);
+        Dinheiro saldo = conexao.saldo.getAndSet(null);
+        boolean batimento = conexao.batimento.getAndSet(false);
+        try {
+            for (AlteracaoLancamento alteracao : alteracoes) {
+                enviar(conexao, SseEmitter.event().name(EVENTO_LANCAMENTO).data(alteracao, MediaType.APPLICATION_JSON));
+            }
+            if (saldo != null) {
+                enviar(conexao, SseEmitter.event().name(EVENTO_SALDO).data(saldo, MediaType.APPLICATION_JSON));
+            } else if (batimento && alteracoes.isEmpty()) {
+                enviar(conexao, SseEmitter.event().comment(""));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // cliente desconectado ou emissor já encerrado
+            remover(conexao);
+            return;
+        } finally {
+            conexao.agendada.set(false);
+        }
+
+        if (!conexao.pendentes.isEmpty() || conexao.saldo.get() != null || conexao.batimento.get()) {
+            agendar(conexao);
+        }
+    }
+
+    private void enviar(Conexao conexao, SseEmitter.SseEventBuilder evento) throws IOException {
+        conexao.envioIniciadoEm = System.nanoTime();
+        try {
+            conexao.emissor.send(evento);
+        } finally {
+            conexao.envioIniciadoEm = 0;
+        }
+    }
+
+    /**
+     * Um comentário periódico mantém a conexão aberta nos proxies e revela os clientes que já se foram. Esta thread
+     * não escreve nas conexões: só agenda o comentário e encerra as que estão presas numa escrita há tempo demais.
+     */
+    private void verificarConexoes() {
+        long limite = TimeUnit.SECONDS.toNanos(timeoutEnvioSegundos);
+        long agora = System.nanoTime();
+        conexoesPorUsuario.values().forEach(conexoes -> conexoes.forEach(conexao -> {
+            long iniciadoEm = conexao.envioIniciadoEm;
+            if (iniciadoEm != 0 && agora - iniciadoEm > limite) {
+                desconectarPorAtraso(conexao);
+                return;
+            }
+            conexao.batimento.set(true);
+            agendar(conexao);
+        }));
+    }
+
+    /**
+     * O encerramento do emissor espera a escrita em andamento terminar, por isso vai para uma tarefa à parte em
+     * vez de prender a thread de quem detectou o atraso.
+     */
+    private void desconectarPorAtraso(Conexao conexao) {
+        if (!conexao.encerrada.compareAndSet(false, true)) {
+            return;
+        }
+        desconexoesPorAtraso.increment();
+        remover(conexao);
+        try {
+            envios.execute(conexao.emissor::complete);
+        } catch (RejectedExecutionException e) {
+            // aplicação encerrando; o emissor é concluído no encerramento
+        }
+    }
+
+    private void remover(Conexao conexao) {
+        conexoesPorUsuario.computeIfPresent(conexao.idUsuario, (id, conexoes) -> {
+            conexoes.remove(conexao);
+            return conexoes.isEmpty() ? null : conexoes;
+        });
+    }
+
+    private static ThreadFactory criarThreads(String nome) {
+        return tarefa -> {
+            Thread thread = new Thread(tarefa, nome);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class Conexao {
+
+        final Long idUsuario;
+
+        final SseEmitter emissor;
+
+        final BlockingQueue<AlteracaoLancamento> pendentes;
+
+        final AtomicReference<Dinheiro> saldo = new AtomicReference<>();
+
+        final AtomicBoolean batimento = new AtomicBoolean();
+
+        final AtomicBoolean agendada = new AtomicBoolean();
+
+        final AtomicBoolean encerrada = new AtomicBoolean();
+
+        volatile long envioIniciadoEm;
+
+        Conexao(Long idUsuario, SseEmitter emissor, BlockingQueue<AlteracaoLancamento> pendentes) {
+            this.idUsuario = idUsuario;
+            this.emissor = emissor;
+            this.pendentes = pendentes;
+        }
+    }
+}
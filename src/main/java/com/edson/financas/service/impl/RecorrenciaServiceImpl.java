@@ -0,0 +1,301 @@
+package com.edson.financas.service.impl;
+
+import com.edson.financas.exception.RegraNegocioException;
+import com.edson.financas.model.entity.CheckpointRecorrencia;
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.entity.LancamentoRecorrente;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.repository.CheckpointRecorrenciaRepository;
+import com.edson.financas.model.repository.LancamentoRecorrenteRepository;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.service.RecorrenciaService;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Service
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecorrenciaServiceImpl implements RecorrenciaService {
+
+    @Autowired
+    private LancamentoRecorrenteRepository repository;
+
+    @Autowired
+    private CheckpointRecorrenciaRepository checkpointRepository;
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    private GravacaoLancamentos gravacao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Value("${financas.recorrencia.usuarios-por-faixa:1000}")
+    private long usuariosPorFaixa;
+
+    @Value("${financas.recorrencia.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    @Value("${financas.recorrencia.paralelismo:4}")
+    private int paralelismo;
+
+    @Override
+    @Transactional
+    public LancamentoRecorrente salvar(LancamentoRecorrente recorrente) {
+        validar(recorrente);
+        return repository.save(recorrente);
+    }
+
+    @Override
+    @Transactional
+    public void deletar(LancamentoRecorrente recorrente) {
+        Objects.requireNonNull(recorrente.getId());
+        repository.delete(recorrente);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LancamentoRecorrente> buscarPorUsuario(Long idUsuario) {
+        return repository.findByUsuarioIdOrderById(idUsuario);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LancamentoRecorrente> obterPorId(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public void validar(LancamentoRecorrente recorrente) {
+
+        if (recorrente.getDescricao() == null || recorrente.getDescricao().trim().equals("")){
+            throw new RegraNegocioException("Informe uma Descrição válida.");
+        }
+
+        if (recorrente.getUsuario() == null || recorrente.getUsuario().getId() == null){
+            throw new RegraNegocioException("Informe um Usuário.");
+        }
+
+        if (recorrente.getValor() == null || !recorrente.getValor().isPositivo()){
+            throw new RegraNegocioException("Informe um Valor válido.");
+        }
+
+        if (recorrente.getTipo() == null){
+            throw new RegraNegocioException("Informe um Tipo de Lançamento.");
+        }
+
+        if (recorrente.getDia() == null || recorrente.getDia() < 1 || recorrente.getDia() > 31){
+            throw new RegraNegocioException("Informe um Dia válido.");
+        }
+
+        if (recorrente.getPeriodicidade() == null){
+            throw new RegraNegocioException("Informe uma Periodicidade.");
+        }
+
+        if (recorrente.getMesInicio() == null || recorrente.getMesInicio() < 1 || recorrente.getMesInicio() > 12){
+            throw new RegraNegocioException("Informe um Mês de início válido.");
+        }
+
+        if (recorrente.getAnoInicio() == null || recorrente.getAnoInicio().toString().length() != 4){
+            throw new RegraNegocioException("Informe um Ano de início válido.");
+        }
+    }
+
+    /**
+     * Os usuários são divididos em faixas fixas de {@code usuarios-por-faixa} ids, geradas em paralelo num
+     * {@link ForkJoinPool}. Cada faixa avança em lotes de modelos, e cada lote grava os lançamentos e o checkpoint
+     * na mesma transação: uma execução interrompida é retomada do último lote gravado, e modelos que já têm
+     * lançamento no mês são ignorados.
+     */
+    @Override
+    public long gerar(YearMonth competencia) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        long[] faixas = transacao.execute(status -> {
+            Optional<Long> menorIdUsuario = repository.obterMenorIdUsuario();
+            Optional<Long> maiorIdUsuario = repository.obterMaiorIdUsuario();
+            if (!menorIdUsuario.isPresent() || !maiorIdUsuario.isPresent()) {
+                return null;
+            }
+            return new long[]{menorIdUsuario.get() / usuariosPorFaixa, maiorIdUsuario.get() / usuariosPorFaixa};
+        });
+        if (faixas == null) {
+            return 0;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            return pool.invoke(new GeracaoFaixas(competencia, faixas[0], faixas[1]));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Só os modelos do usuário, numa transação e sem checkpoint; modelos que já têm lançamento no mês são ignorados.
+     */
+    @Override
+    @Transactional
+    public long gerar(Long idUsuario, YearMonth competencia) {
+        List<LancamentoRecorrente> modelos = repository.findByUsuarioIdOrderById(idUsuario).stream()
+                                                       .filter(modelo -> venceEm(modelo, competencia))
+                                                       .collect(Collectors.toList());
+        if (modelos.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> jaGerados = lancamentoRepository.buscarRecorrenciasGeradas(modelos.stream()
+                                                                                    .map(LancamentoRecorrente::getId)
+                                                                                    .collect(Collectors.toList()),
+                                                                             competencia.getYear(),
+                                                                             competencia.getMonthValue());
+        List<Lancamento> lancamentos = modelos.stream()
+                                              .filter(modelo -> !jaGerados.contains(modelo.getId()))
+                                              .map(modelo -> gerarLancamento(modelo, competencia))
+                                              .collect(Collectors.toList());
+        gravacao.inserir(lancamentos);
+        return lancamentos.size();
+    }
+
+    private long gerarFaixa(YearMonth competencia, long faixa) {
+        long idUsuarioInicial = faixa * usuariosPorFaixa;
+        long idUsuarioFinal = idUsuarioInicial + usuariosPorFaixa - 1;
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        criarCheckpoint(transacao, competencia, faixa);
+
+        AtomicLong gerados = new AtomicLong();
+        boolean continuar;
+        do {
+            continuar = transacao.execute(status ->
+                    gerarLote(competencia, faixa, idUsuarioInicial, idUsuarioFinal, gerados));
+        } while (continuar);
+        return gerados.get();
+    }
+
+    private void criarCheckpoint(TransactionTemplate transacao, YearMonth competencia, long faixa) {
+        try {
+            transacao.executeWithoutResult(status -> {
+                if (!checkpointRepository.existsByAnoAndMesAndFaixa(competencia.getYear(), competencia.getMonthValue(), faixa)) {
+                    checkpointRepository.save(CheckpointRecorrencia.builder()
+                                                                   .ano(competencia.getYear())
+                                                                   .mes(competencia.getMonthValue())
+                                                                   .faixa(faixa)
+                                                                   .ultimoIdRecorrente(0l)
+                                                                   .gerados(0l)
+                                                                   .build());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // outra instância criou o checkpoint da mesma faixa ao mesmo tempo
+        }
+    }
+
+    /**
+     * @return se a faixa pode ter mais modelos depois deste lote
+     */
+    private boolean gerarLote(YearMonth competencia, long faixa, long idUsuarioInicial, long idUsuarioFinal,
+                              AtomicLong gerados) {
+        CheckpointRecorrencia checkpoint = checkpointRepository
+                .obterParaAtualizacao(competencia.getYear(), competencia.getMonthValue(), faixa)
+                .orElseThrow(() -> new IllegalStateException("Checkpoint da faixa " + faixa + " não encontrado."));
+
+        List<LancamentoRecorrente> modelos = repository.listarDaFaixaAposId(idUsuarioInicial, idUsuarioFinal,
+                                                                            checkpoint.getUltimoIdRecorrente(),
+                                                                            PageRequest.of(0, tamanhoLote));
+        if (modelos.isEmpty()) {
+            return false;
+        }
+
+        Set<Long> jaGerados = lancamentoRepository.buscarRecorrenciasGeradas(modelos.stream()
+                                                                                    .map(LancamentoRecorrente::getId)
+                                                                                    .collect(Collectors.toList()),
+                                                                             competencia.getYear(),
+                                                                             competencia.getMonthValue());
+        List<Lancamento> lancamentos = modelos.stream()
+                                              .filter(modelo -> venceEm(modelo, competencia) && !jaGerados.contains(modelo.getId()))
+                                              .map(modelo -> gerarLancamento(modelo, competencia))
+                                              .collect(Collectors.toList());
+        gravacao.inserir(lancamentos);
+
+        checkpoint.setUltimoIdRecorrente(modelos.get(modelos.size() - 1).getId());
+        checkpoint.setGerados(checkpoint.getGerados() + lancamentos.size());
+        entityManager.flush();
+        entityManager.clear();
+
+        gerados.addAndGet(lancamentos.size());
+        return modelos.size() == tamanhoLote;
+    }
+
+    private static boolean venceEm(LancamentoRecorrente modelo, YearMonth competencia) {
+        long meses = competencia.getYear() * 12l + competencia.getMonthValue()
+                     - (modelo.getAnoInicio() * 12l + modelo.getMesInicio());
+        return meses >= 0 && meses % modelo.getPeriodicidade().getMeses() == 0;
+    }
+
+    /**
+     * O dia do modelo vira a data de cadastro, limitado ao último dia do mês (dia 31 em fevereiro cai no dia 28 ou 29).
+     */
+    private static Lancamento gerarLancamento(LancamentoRecorrente modelo, YearMonth competencia) {
+        return Lancamento.builder()
+                         .descricao(modelo.getDescricao())
+                         .ano(competencia.getYear())
+                         .mes(competencia.getMonthValue())
+                         .usuario(modelo.getUsuario())
+                         .valor(modelo.getValor())
+                         .tipo(modelo.getTipo())
+                         .status(StatusLancamento.PENDENTE)
+                         .dataCadastro(competencia.atDay(Math.min(modelo.getDia(), competencia.lengthOfMonth())))
+                         .idRecorrente(modelo.getId())
+                         .build();
+    }
+
+    private class GeracaoFaixas extends RecursiveTask<Long> {
+
+        private final YearMonth competencia;
+
+        private final long primeiraFaixa;
+
+        private final long ultimaFaixa;
+
+        GeracaoFaixas(YearMonth competencia, long primeiraFaixa, long ultimaFaixa) {
+            this.competencia = competencia;
+            this.primeiraFaixa = primeiraFaixa;
+            this.ultimaFaixa = ultimaFaixa;
+        }
+
+        @Override
+        protected Long compute() {
+            if (primeiraFaixa == ultimaFaixa) {
+                return gerarFaixa(competencia, primeiraFaixa);
+            }
+            long meio = (primeiraFaixa + ultimaFaixa) >>> 1;
+            GeracaoFaixas inicio = new GeracaoFaixas(competencia, primeiraFaixa, meio);
+            inicio.fork();
+            long gerados = new GeracaoFaixas(competencia, meio + 1, ultimaFaixa).compute();
+            return gerados + inicio.join();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.edson.financas.service.impl;
+
+import com.edson.financas.model.entity.ResumoMensal;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.ResumoCalculado;
+import com.edson.financas.model.projection.ResumoMes;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.repository.ResumoMensalRepository;
+import com.edson.financas.model.repository.UsuarioRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.ResumoService;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.LancamentosIncluidosEvent;
+import com.edson.financas.service.event.StatusLancamentosAlteradoEvent;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoServiceImpl implements ResumoService {
+
+    @Autowired
+    private ResumoMensalRepository repository;
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumoMes> obterResumoAnual(Long idUsuario, Integer ano) {
+        long[] receitas = new long[12];
+        long[] despesas = new long[12];
+        long[] quantidades = new long[12];
+        long[] pendentes = new long[12];
+
+        for (ResumoMensal resumo : repository.findByIdUsuarioAndAno(idUsuario, ano)) {
+            int mes = resumo.getMes() - 1;
+            long[] totais = resumo.getTipo() == TipoLancamento.RECEITA ? receitas : despesas;
+            totais[mes] = Math.addExact(totais[mes], resumo.getTotal().getCentavos());
+            quantidades[mes] += resumo.getQuantidade();
+            if (resumo.getStatus() == StatusLancamento.PENDENTE) {
+                pendentes[mes] += resumo.getQuantidade();
+            }
+        }
+
+        List<ResumoMes> meses = new ArrayList<>(12);
+        for (int mes = 0; mes < 12; mes++) {
+            Dinheiro receita = Dinheiro.deCentavos(receitas[mes]);
+            Dinheiro despesa = Dinheiro.deCentavos(despesas[mes]);
+            meses.add(new ResumoMes(mes + 1, receita, despesa, receita.subtrair(despesa), quantidades[mes], pendentes[mes]));
+        }
+        return meses;
+    }
+
+    @Override
+    @EventListener
+    @Transactional
+    public void aoAlterarLancamento(LancamentoAlteradoEvent event) {
+        Map<Chave, Delta> deltas = new LinkedHashMap<>();
+        acumular(deltas, event.getAnterior(), -1);
+        acumular(deltas, event.getAtual(), 1);
+        aplicar(deltas);
+    }
+
+    @Override
+    @EventListener
+    @Transactional
+    public void aoIncluirLancamentos(LancamentosIncluidosEvent event) {
+        Map<Chave, Delta> deltas = new LinkedHashMap<>();
+        event.getIncluidos().forEach(incluido -> acumular(deltas, incluido, 1));
+        aplicar(deltas);
+    }
+
+    /**
+     * Cada grupo sai da chave do status antigo e entra na do novo, sem precisar de um evento por lançamento.
+     */
+    @Override
+    @EventListener
+    @Transactional
+    public void aoAlterarStatus(StatusLancamentosAlteradoEvent event) {
+        Map<Chave, Delta> deltas = new LinkedHashMap<>();
+        for (ResumoCalculado anterior : event.getAnteriores()) {
+            somar(deltas, new Chave(anterior.getIdUsuario(), anterior.getAno(), anterior.getMes(), anterior.getTipo(),
+                                    anterior.getStatus()),
+                  -anterior.getTotal().getCentavos(), -anterior.getQuantidade());
+            somar(deltas, new Chave(anterior.getIdUsuario(), anterior.getAno(), anterior.getMes(), anterior.getTipo(),
+                                    event.getStatus()),
+                  anterior.getTotal().getCentavos(), anterior.getQuantidade());
+        }
+        aplicar(deltas);
+    }
+
+    /**
+     * Trava todos os usuários antes de apagar os resumos: as gravações de lançamentos que chegam no meio esperam e
+     * aplicam a sua diferença sobre os resumos reconstruídos.
+     */
+    @Override
+    @Transactional
+    public void reconstruirResumos() {
+        usuarioRepository.travarTodos();
+        repository.excluirTodos();
+        repository.saveAll(lancamentoRepository.calcularResumos().stream()
+                                               .map(this::converter)
+                                               .collect(Collectors.toList()));
+    }
+
+    /**
+     * Como no saldo, os usuários são travados antes das linhas de resumo, e a primeira gravação de uma chave não
+     * disputa o INSERT com outra transação.
+     */
+    private void aplicar(Map<Chave, Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        usuarioRepository.travar(deltas.keySet().stream().map(Chave::getIdUsuario).collect(Collectors.toSet()));
+        deltas.forEach((chave, delta) -> {
+            if (delta.quantidade == 0 && delta.centavos == 0) {
+                return;
+            }
+
+            int atualizados = repository.acumular(chave.idUsuario, chave.ano, chave.mes, chave.tipo, chave.status,
+                                                  Dinheiro.deCentavos(delta.centavos), delta.quantidade);
+            if (atualizados == 0) {
+                inicializar(chave);
+            }
+        });
+    }
+
+    private void acumular(Map<Chave, Delta> deltas, LancamentoEstado estado, int sinal) {
+        if (estado == null || estado.getIdUsuario() == null || estado.getAno() == null || estado.getMes() == null
+                || estado.getTipo() == null || estado.getValor() == null) {
+            return;
+        }
+
+        Chave chave = new Chave(estado.getIdUsuario(), estado.getAno(), estado.getMes(), estado.getTipo(), estado.getStatus());
+        somar(deltas, chave, sinal * estado.getValor().getCentavos(), sinal);
+    }
+
+    private void somar(Map<Chave, Delta> deltas, Chave chave, long centavos, long quantidade) {
+        Delta delta = deltas.computeIfAbsent(chave, c -> new Delta());
+        delta.centavos = Math.addExact(delta.centavos, centavos);
+        delta.quantidade += quantidade;
+    }
+
+    /**
+     * Chave ainda sem linha de resumo: os totais são calculados a partir dos lançamentos,
+     * que já incluem a alteração corrente.
+     */
+    private void inicializar(Chave chave) {
+        lancamentoRepository.calcularResumo(chave.idUsuario, chave.ano, chave.mes, chave.tipo, chave.status)
+                            .map(this::converter)
+                            .ifPresent(repository::saveAndFlush);
+    }
+
+    private ResumoMensal converter(ResumoCalculado calculado) {
+        return ResumoMensal.builder()
+                           .idUsuario(calculado.getIdUsuario())
+                           .ano(calculado.getAno())
+                           .mes(calculado.getMes())
+                           .tipo(calculado.getTipo())
+                           .status(calculado.getStatus())
+                           .total(calculado.getTotal())
+                           .quantidade(calculado.getQuantidade())
+                           .build();
+    }
+
+    @Value
+    private static class Chave {
+        Long idUsuario;
+        Integer ano;
+        Integer mes;
+        TipoLancamento tipo;
+        StatusLancamento status;
+    }
+
+    private static class Delta {
+        long centavos;
+        long quantidade;
+    }
+}
@@ -0,0 +1,154 @@
+package com.edson.financas.service.impl;
+
+import com.edson.financas.model.entity.SaldoUsuario;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.DivergenciaSaldo;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.SaldoCalculado;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.repository.SaldoUsuarioRepository;
+import com.edson.financas.model.repository.UsuarioRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.SaldoService;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.LancamentosIncluidosEvent;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoServiceImpl implements SaldoService {
+
+    @Autowired
+    private SaldoUsuarioRepository repository;
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Dinheiro obterSaldo(Long idUsuario) {
+        return repository.findById(idUsuario)
+                .map(SaldoUsuario::getSaldo)
+                .orElseGet(() -> lancamentoRepository.calcularSaldoDoUsuario(idUsuario)
+                                                     .map(saldo -> saldo.getReceitas().subtrair(saldo.getDespesas()))
+                                                     .orElse(Dinheiro.ZERO));
+    }
+
+    @Override
+    @EventListener
+    @Transactional
+    public void aoAlterarLancamento(LancamentoAlteradoEvent event) {
+        Map<Long, long[]> deltas = new LinkedHashMap<>();
+        acumular(deltas, event.getAnterior(), -1);
+        acumular(deltas, event.getAtual(), 1);
+        aplicar(deltas);
+    }
+
+    @Override
+    @EventListener
+    @Transactional
+    public void aoIncluirLancamentos(LancamentosIncluidosEvent event) {
+        Map<Long, long[]> deltas = new LinkedHashMap<>();
+        event.getIncluidos().forEach(incluido -> acumular(deltas, incluido, 1));
+        aplicar(deltas);
+    }
+
+    /**
+     * Os usuários são travados antes de qualquer linha de saldo: a primeira gravação de um usuário calcula o saldo
+     * sem disputar o INSERT com outra transação, e uma verificação com correção em andamento termina antes.
+     */
+    private void aplicar(Map<Long, long[]> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        usuarioRepository.travar(deltas.keySet());
+        deltas.forEach((idUsuario, delta) -> {
+            int atualizados = repository.acumular(idUsuario, Dinheiro.deCentavos(delta[0]), Dinheiro.deCentavos(delta[1]));
+            if (atualizados == 0) {
+                inicializar(idUsuario);
+            }
+        });
+    }
+
+    /**
+     * Com correção, todos os usuários ficam travados até o fim, e as gravações de lançamentos que chegam no meio
+     * esperam para aplicar a sua diferença sobre o saldo corrigido.
+     */
+    @Override
+    @Transactional
+    public List<DivergenciaSaldo> verificarSaldos(boolean corrigir) {
+        if (corrigir) {
+            usuarioRepository.travarTodos();
+        }
+        Map<Long, SaldoCalculado> calculados = lancamentoRepository.calcularSaldos().stream()
+                .collect(Collectors.toMap(SaldoCalculado::getIdUsuario, Function.identity()));
+        Map<Long, SaldoUsuario> armazenados = repository.findAll().stream()
+                .collect(Collectors.toMap(SaldoUsuario::getIdUsuario, Function.identity()));
+
+        List<DivergenciaSaldo> divergencias = new ArrayList<>();
+        List<SaldoUsuario> correcoes = new ArrayList<>();
+
+        calculados.values().forEach(calculado -> {
+            SaldoUsuario armazenado = armazenados.get(calculado.getIdUsuario());
+            if (armazenado == null
+                    || armazenado.getReceitas().compareTo(calculado.getReceitas()) != 0
+                    || armazenado.getDespesas().compareTo(calculado.getDespesas()) != 0) {
+                Dinheiro saldoCalculado = calculado.getReceitas().subtrair(calculado.getDespesas());
+                divergencias.add(new DivergenciaSaldo(calculado.getIdUsuario(),
+                                                      armazenado != null ? armazenado.getSaldo() : null,
+                                                      saldoCalculado));
+                correcoes.add(new SaldoUsuario(calculado.getIdUsuario(), calculado.getReceitas(), calculado.getDespesas()));
+            }
+        });
+
+        armazenados.values().stream()
+                .filter(armazenado -> !calculados.containsKey(armazenado.getIdUsuario()))
+                .filter(armazenado -> armazenado.getReceitas().signum() != 0 || armazenado.getDespesas().signum() != 0)
+                .forEach(armazenado -> {
+                    divergencias.add(new DivergenciaSaldo(armazenado.getIdUsuario(), armazenado.getSaldo(), Dinheiro.ZERO));
+                    correcoes.add(new SaldoUsuario(armazenado.getIdUsuario(), Dinheiro.ZERO, Dinheiro.ZERO));
+                });
+
+        if (corrigir) {
+            repository.saveAll(correcoes);
+        }
+
+        return divergencias;
+    }
+
+    private void acumular(Map<Long, long[]> deltas, LancamentoEstado estado, long sinal) {
+        if (estado == null || estado.getIdUsuario() == null || estado.getValor() == null || estado.getTipo() == null) {
+            return;
+        }
+
+        long[] delta = deltas.computeIfAbsent(estado.getIdUsuario(), id -> new long[2]);
+        int posicao = estado.getTipo() == TipoLancamento.RECEITA ? 0 : 1;
+        delta[posicao] = Math.addExact(delta[posicao], Math.multiplyExact(estado.getValor().getCentavos(), sinal));
+    }
+
+    /**
+     * Primeira escrita de um usuário sem saldo materializado: o saldo é calculado a partir dos lançamentos,
+     * que já incluem a alteração corrente.
+     */
+    private void inicializar(Long idUsuario) {
+        SaldoCalculado calculado = lancamentoRepository.calcularSaldoDoUsuario(idUsuario)
+                .orElse(new SaldoCalculado(idUsuario, Dinheiro.ZERO, Dinheiro.ZERO));
+        repository.saveAndFlush(new SaldoUsuario(idUsuario, calculado.getReceitas(), calculado.getDespesas()));
+    }
+}
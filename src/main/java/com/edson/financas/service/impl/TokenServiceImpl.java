@@ -0,0 +1,142 @@
+package com.edson.financas.service.impl;
+
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.projection.SessaoUsuario;
+import com.edson.financas.service.TokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Token no formato JWT (HS256): {@code cabecalho.claims.assinatura}, com o id do usuário em {@code sub},
+ * nome, email e expiração. A verificação é feita só em memória, recalculando o HMAC. O segredo não fica no
+ * repositório: vem de {@code financas.token.segredo} (ou da variável de ambiente {@code FINANCAS_TOKEN_SEGREDO}),
+ * com pelo menos 32 bytes; sem ele a chave é aleatória e os tokens só valem na própria instância.
+ */
+@Slf4j
+@Service
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenServiceImpl implements TokenService {
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private static final int TAMANHO_MINIMO_SEGREDO = 32;
+
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+
+    private static final String CABECALHO = BASE64.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Value("${financas.token.segredo:}")
+    private String segredo;
+
+    @Value("${financas.token.expiracao-minutos:60}")
+    private long expiracaoMinutos;
+
+    private SecretKeySpec chave;
+
+    private ThreadLocal<Mac> assinador;
+
+    @PostConstruct
+    public void iniciar() {
+        byte[] bytesChave;
+        if (segredo == null || segredo.trim().isEmpty()) {
+            bytesChave = new byte[32];
+            new SecureRandom().nextBytes(bytesChave);
+            log.warn("financas.token.segredo não configurado; usando uma chave aleatória, válida só nesta instância.");
+        } else {
+            bytesChave = segredo.getBytes(StandardCharsets.UTF_8);
+            if (bytesChave.length < TAMANHO_MINIMO_SEGREDO) {
+                throw new IllegalStateException("financas.token.segredo precisa ter pelo menos "
+                                                + TAMANHO_MINIMO_SEGREDO + " bytes.");
+            }
+        }
+
+        chave = new SecretKeySpec(bytesChave, ALGORITMO);
+        assinador = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITMO);
+                mac.init(chave);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Override
+    public String emitir(Usuario usuario) {
+        long agora = Instant.now().getEpochSecond();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", String.valueOf(usuario.getId()));
+        claims.put("nome", usuario.getNome());
+        claims.put("email", usuario.getEmail());
+        claims.put("iat", agora);
+        claims.put("exp", agora + expiracaoMinutos * 60);
+
+        try {
+            String conteudo = CABECALHO + "." + BASE64.encodeToString(JSON.writeValueAsBytes(claims));
+            return conteudo + "." + BASE64.encodeToString(assinar(conteudo));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Optional<SessaoUsuario> validar(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+
+        int fimCabecalho = token.indexOf('.');
+        int fimClaims = token.lastIndexOf('.');
+        if (fimCabecalho < 0 || fimClaims <= fimCabecalho || !CABECALHO.equals(token.substring(0, fimCabecalho))) {
+            return Optional.empty();
+        }
+
+        try {
+            String conteudo = token.substring(0, fimClaims);
+            byte[] assinatura = Base64.getUrlDecoder().decode(token.substring(fimClaims + 1));
+            if (!MessageDigest.isEqual(assinar(conteudo), assinatura)) {
+                return Optional.empty();
+            }
+
+            JsonNode claims = JSON.readTree(Base64.getUrlDecoder().decode(token.substring(fimCabecalho + 1, fimClaims)));
+            Instant expiraEm = Instant.ofEpochSecond(claims.path("exp").asLong());
+            if (!expiraEm.isAfter(Instant.now())) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new SessaoUsuario(Long.valueOf(claims.path("sub").asText()),
+                                                 claims.path("nome").asText(null),
+                                                 claims.path("email").asText(null),
+                                                 expiraEm));
+        } catch (IllegalArgumentException | IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] assinar(String conteudo) {
+        return assinador.get().doFinal(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,16 +1,37 @@
 package com.edson.financas.service.impl;
 
+import com.edson.financas.exception.AutenticacaoIndisponivelException;
 import com.edson.financas.exception.ErroAutenticacao;
 import com.edson.financas.exception.RegraNegocioException;
 import com.edson.financas.model.entity.Usuario;
 import com.edson.financas.model.repository.UsuarioRepository;
 import com.edson.financas.service.UsuarioService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 @Service
 @NoArgsConstructor
@@ -20,6 +41,74 @@ public class UsuarioServiceImpl implements UsuarioService {
     @Autowired
     private UsuarioRepository repository;
 
+    @Value("${financas.usuario.cache.tamanho-maximo:10000}")
+    private long tamanhoMaximoCache;
+
+    @Value("${financas.usuario.cache.expiracao-minutos:10}")
+    private long expiracaoCacheMinutos;
+
+    @Value("${financas.senha.iteracoes:310000}")
+    private int iteracoesSenha;
+
+    @Value("${financas.autenticacao.threads:2}")
+    private int threadsVerificacao;
+
+    @Value("${financas.autenticacao.fila:50}")
+    private int filaVerificacao;
+
+    private static final int FAIXAS = 64;
+
+    private Cache<Long, UsuarioEmCache> cachePorId;
+
+    private AtomicLongArray alteracoes;
+
+    private CodificadorSenha codificadorSenha;
+
+    private ExecutorService verificadorSenha;
+
+    /**
+     * Apenas usuários encontrados são guardados, de modo que um cadastro novo é visto na consulta seguinte.
+     * As estatísticas ficam registradas no registro global do Micrometer, ou no informado, como {@code cache.gets}.
+     */
+    @PostConstruct
+    public void iniciarCache() {
+        iniciarCache(Metrics.globalRegistry);
+    }
+
+    public void iniciarCache(MeterRegistry registro) {
+        cachePorId = Caffeine.newBuilder()
+                             .maximumSize(tamanhoMaximoCache)
+                             .expireAfterWrite(expiracaoCacheMinutos, TimeUnit.MINUTES)
+                             .recordStats()
+                             .build();
+        alteracoes = new AtomicLongArray(FAIXAS);
+
+        CaffeineCacheMetrics.monitor(registro, cachePorId, "usuarios.id");
+    }
+
+    /**
+     * O hash da senha é calculado num pool próprio, limitado em threads e em fila: uma rajada de logins
+     * recebe {@link AutenticacaoIndisponivelException} em vez de ocupar as threads que atendem o restante da API.
+     */
+    @PostConstruct
+    public void iniciarVerificacaoSenha() {
+        codificadorSenha = new CodificadorSenha(iteracoesSenha);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadsVerificacao, threadsVerificacao,
+                                                             0L, TimeUnit.MILLISECONDS,
+                                                             new ArrayBlockingQueue<>(filaVerificacao),
+                                                             new CustomizableThreadFactory("verificacao-senha-"));
+        verificadorSenha = ExecutorServiceMetrics.monitor(Metrics.globalRegistry, executor, "verificacao-senha");
+    }
+
+    @PreDestroy
+    public void encerrarVerificacaoSenha() {
+        verificadorSenha.shutdown();
+    }
+
+    /**
+     * Lê sempre do banco: o custo do login é o hash da senha, e uma senha trocada em outra instância vale na
+     * hora, sem esperar a expiração de um cache.
+     */
     @Override
     public Usuario autenticar(String email, String senha) {
         Optional<Usuario> usuario = repository.findByEmail(email);
@@ -28,17 +117,29 @@ public class UsuarioServiceImpl implements UsuarioService {
             throw new ErroAutenticacao("Usuário não encontrado para o email informado!");
         }
 
-        if (!usuario.get().getSenha().equals(senha)){
+        String senhaArmazenada = usuario.get().getSenha();
+        if (!executarVerificacao(() -> codificadorSenha.confere(senha, senhaArmazenada))){
             throw new ErroAutenticacao("Senha inválida!");
         }
 
+        if (codificadorSenha.precisaRecodificar(senhaArmazenada)){
+            usuario.get().setSenha(executarVerificacao(() -> codificadorSenha.codificar(senha)));
+            repository.save(usuario.get());
+        }
+
         return usuario.get();
     }
 
     @Override
     public Usuario salvarUsuario(Usuario usuario) {
         validarEmail(usuario.getEmail());
-        return repository.save(usuario);
+        if (usuario.getSenha() != null && !codificadorSenha.isCodificada(usuario.getSenha())){
+            String senha = usuario.getSenha();
+            usuario.setSenha(executarVerificacao(() -> codificadorSenha.codificar(senha)));
+        }
+        Usuario usuarioSalvo = repository.save(usuario);
+        invalidarCache(usuarioSalvo);
+        return usuarioSalvo;
     }
 
     @Override
@@ -49,8 +150,88 @@ public class UsuarioServiceImpl implements UsuarioService {
         }
     }
 
+    /**
+     * O cache guarda uma cópia imutável, sem a senha, e cada chamada recebe um {@code Usuario} novo: alterar o
+     * objeto devolvido não altera o que as outras requisições leem.
+     */
     @Override
+    @Transactional(readOnly = true)
     public Optional<Usuario> obterPorId(Long id) {
-        return repository.findById(id);
+        if (id == null) {
+            return repository.findById(id);
+        }
+        return Optional.ofNullable(lerAtravesDoCache(id)).map(UsuarioEmCache::paraUsuario);
+    }
+
+    /**
+     * A consulta ao banco roda fora do {@code Cache.get(chave, carregador)}, que a executaria sob o lock do
+     * {@code ConcurrentHashMap} e prenderia a thread portadora quando a requisição roda numa thread virtual.
+     * Uma gravação que invalide a faixa do usuário durante a consulta desfaz a carga, que pode ter lido a linha
+     * anterior à gravação.
+     */
+    private UsuarioEmCache lerAtravesDoCache(Long id) {
+        UsuarioEmCache usuario = cachePorId.getIfPresent(id);
+        if (usuario != null) {
+            return usuario;
+        }
+
+        int faixa = faixa(id);
+        long alteracaoAntesDaCarga = alteracoes.get(faixa);
+        usuario = repository.findById(id).map(UsuarioEmCache::de).orElse(null);
+        if (usuario != null) {
+            cachePorId.put(id, usuario);
+            if (alteracoes.get(faixa) != alteracaoAntesDaCarga) {
+                cachePorId.asMap().remove(id, usuario);
+            }
+        }
+        return usuario;
+    }
+
+    private <T> T executarVerificacao(Callable<T> verificacao) {
+        Future<T> resultado;
+        try {
+            resultado = verificadorSenha.submit(verificacao);
+        } catch (RejectedExecutionException e) {
+            throw new AutenticacaoIndisponivelException("Muitas autenticações simultâneas. Tente novamente em instantes.");
+        }
+
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AutenticacaoIndisponivelException("Autenticação interrompida.");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void invalidarCache(Usuario usuario) {
+        if (usuario != null && usuario.getId() != null) {
+            alteracoes.incrementAndGet(faixa(usuario.getId()));
+            cachePorId.invalidate(usuario.getId());
+        }
+    }
+
+    private static int faixa(Long id) {
+        return (int) (id & (FAIXAS - 1));
+    }
+
+    @lombok.Value
+    private static class UsuarioEmCache {
+
+        Long id;
+
+        String nome;
+
+        String email;
+
+        static UsuarioEmCache de(Usuario usuario) {
+            return new UsuarioEmCache(usuario.getId(), usuario.getNome(), usuario.getEmail());
+        }
+
+        Usuario paraUsuario() {
+            return Usuario.builder().id(id).nome(nome).email(email).build();
+        }
     }
 }
@@ -0,0 +1,95 @@
+package com.edson.financas.service.impl;
+
+import com.edson.financas.model.entity.VersaoUsuario;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.ResumoCalculado;
+import com.edson.financas.model.repository.UsuarioRepository;
+import com.edson.financas.model.repository.VersaoUsuarioRepository;
+import com.edson.financas.service.VersaoService;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.LancamentosIncluidosEvent;
+import com.edson.financas.service.event.StatusLancamentosAlteradoEvent;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Versão dos lançamentos de cada usuário, incrementada na mesma transação de toda escrita do
+ * LancamentoService. É a base dos ETags das consultas de lançamentos e de saldo.
+ */
+@Service
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersaoServiceImpl implements VersaoService {
+
+    @Autowired
+    private VersaoUsuarioRepository repository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long obterVersao(Long idUsuario) {
+        return repository.findById(idUsuario)
+                         .map(VersaoUsuario::getVersao)
+                         .orElse(0L);
+    }
+
+    @Override
+    @EventListener
+    @Transactional
+    public void aoAlterarLancamento(LancamentoAlteradoEvent event) {
+        Set<Long> usuarios = new LinkedHashSet<>();
+        adicionar(usuarios, event.getAnterior());
+        adicionar(usuarios, event.getAtual());
+        incrementar(usuarios);
+    }
+
+    @Override
+    @EventListener
+    @Transactional
+    public void aoIncluirLancamentos(LancamentosIncluidosEvent event) {
+        Set<Long> usuarios = new LinkedHashSet<>();
+        event.getIncluidos().forEach(incluido -> adicionar(usuarios, incluido));
+        incrementar(usuarios);
+    }
+
+    @Override
+    @EventListener
+    @Transactional
+    public void aoAlterarStatus(StatusLancamentosAlteradoEvent event) {
+        incrementar(event.getAnteriores().stream()
+                          .map(ResumoCalculado::getIdUsuario)
+                          .collect(Collectors.toCollection(LinkedHashSet::new)));
+    }
+
+    private void adicionar(Set<Long> usuarios, LancamentoEstado estado) {
+        if (estado != null && estado.getIdUsuario() != null) {
+            usuarios.add(estado.getIdUsuario());
+        }
+    }
+
+    /**
+     * Como no saldo e no resumo, os usuários são travados antes das linhas de versão: a primeira escrita de um
+     * usuário não disputa o INSERT com outra transação, seja qual for a ordem em que os ouvintes rodam.
+     */
+    private void incrementar(Set<Long> usuarios) {
+        if (usuarios.isEmpty()) {
+            return;
+        }
+        usuarioRepository.travar(usuarios);
+        for (Long idUsuario : usuarios) {
+            if (repository.incrementar(idUsuario) == 0) {
+                repository.saveAndFlush(new VersaoUsuario(idUsuario, 1L));
+            }
+        }
+    }
+}
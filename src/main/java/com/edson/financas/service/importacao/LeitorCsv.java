@@ -0,0 +1,140 @@
+package com.edson.financas.service.importacao;
+
+import com.edson.financas.exception.RegraNegocioException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * CSV com cabeçalho contendo as colunas {@code data}, {@code descricao} e {@code valor}, e opcionalmente
+ * {@code id}. O separador ({@code ;} ou {@code ,}) é detectado pelo cabeçalho. Campos entre aspas podem conter o
+ * separador, quebras de linha e aspas duplicadas ({@code ""}), como exportam as planilhas.
+ */
+class LeitorCsv extends LeitorExtrato {
+
+    private char separador;
+    private boolean cabecalhoLido;
+    private int colunaData = -1;
+    private int colunaDescricao = -1;
+    private int colunaValor = -1;
+    private int colunaIdentificador = -1;
+
+    LeitorCsv(BufferedReader reader) {
+        super(reader);
+    }
+
+    @Override
+    protected RegistroExtrato ler() throws IOException {
+        if (!cabecalhoLido && !lerCabecalho()) {
+            return null;
+        }
+
+        String conteudo;
+        do {
+            conteudo = reader.readLine();
+            linha++;
+            if (conteudo == null) {
+                return null;
+            }
+        } while (conteudo.trim().isEmpty());
+
+        long inicio = linha;
+        List<String> colunas = separar(conteudo);
+        if (colunas == null) {
+            return RegistroExtrato.invalido(inicio, "Linha mal formatada: aspas abertas e não fechadas até o fim do arquivo.");
+        }
+        int necessarias = Math.max(Math.max(colunaData, colunaDescricao), Math.max(colunaValor, colunaIdentificador)) + 1;
+        if (colunas.size() < necessarias) {
+            return RegistroExtrato.invalido(inicio, "Linha mal formatada: esperadas " + necessarias + " colunas, encontradas "
+                                                    + colunas.size() + ".");
+        }
+        try {
+            return new RegistroExtrato(inicio,
+                                       converterData(colunas.get(colunaData)),
+                                       colunas.get(colunaDescricao).trim(),
+                                       converterValor(colunas.get(colunaValor)),
+                                       colunaIdentificador >= 0 ? colunas.get(colunaIdentificador).trim() : null,
+                                       null);
+        } catch (IllegalArgumentException e) {
+            return RegistroExtrato.invalido(inicio, "Linha mal formatada: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Separa as colunas da linha, continuando nas linhas seguintes enquanto houver aspas abertas.
+     *
+     * @return as colunas ou {@code null} se o arquivo terminar com aspas abertas.
+     */
+    private List<String> separar(String conteudo) throws IOException {
+        List<String> colunas = new ArrayList<>();
+        StringBuilder coluna = new StringBuilder();
+        boolean entreAspas = false;
+        String atual = conteudo;
+        int i = 0;
+        while (true) {
+            if (i == atual.length()) {
+                if (!entreAspas) {
+                    break;
+                }
+                atual = reader.readLine();
+                linha++;
+                if (atual == null) {
+                    return null;
+                }
+                coluna.append('\n');
+                i = 0;
+                continue;
+            }
+
+            char caractere = atual.charAt(i++);
+            if (entreAspas) {
+                if (caractere != '"') {
+                    coluna.append(caractere);
+                } else if (i < atual.length() && atual.charAt(i) == '"') {
+                    coluna.append('"');
+                    i++;
+                } else {
+                    entreAspas = false;
+                }
+            } else if (caractere == '"') {
+                entreAspas = true;
+            } else if (caractere == separador) {
+                colunas.add(coluna.toString());
+                coluna.setLength(0);
+            } else {
+                coluna.append(caractere);
+            }
+        }
+        colunas.add(coluna.toString());
+        return colunas;
+    }
+
+    private boolean lerCabecalho() throws IOException {
+        String cabecalho = reader.readLine();
+        linha++;
+        if (cabecalho == null) {
+            return false;
+        }
+
+        cabecalhoLido = true;
+        separador = cabecalho.contains(";") ? ';' : ',';
+        List<String> colunas = separar(cabecalho.toLowerCase(Locale.ROOT));
+        for (int i = 0; colunas != null && i < colunas.size(); i++) {
+            switch (colunas.get(i).trim()) {
+                case "data": colunaData = i; break;
+                case "descricao": colunaDescricao = i; break;
+                case "valor": colunaValor = i; break;
+                case "id": colunaIdentificador = i; break;
+                default:
+            }
+        }
+
+        if (colunaData < 0 || colunaDescricao < 0 || colunaValor < 0) {
+            throw new RegraNegocioException("O cabeçalho do CSV deve conter as colunas data, descricao e valor.");
+        }
+        return true;
+    }
+}
@@ -0,0 +1,103 @@
+package com.edson.financas.service.importacao;
+
+import com.edson.financas.exception.RegraNegocioException;
+import com.edson.financas.model.enums.FormatoExtrato;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lê o extrato de forma incremental: cada chamada a {@link #next()} consome só o necessário do arquivo.
+ */
+public abstract class LeitorExtrato implements Iterator<RegistroExtrato>, Closeable {
+
+    private static final DateTimeFormatter DATA_BRASILEIRA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    protected final BufferedReader reader;
+
+    protected long linha;
+
+    private RegistroExtrato proximo;
+
+    protected LeitorExtrato(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    public static LeitorExtrato para(FormatoExtrato formato, BufferedReader reader) {
+        switch (formato) {
+            case CSV:
+                return new LeitorCsv(reader);
+            case OFX:
+                return new LeitorOfx(reader);
+            default:
+                throw new RegraNegocioException("Formato de extrato não suportado.");
+        }
+    }
+
+    /**
+     * @return o próximo registro ou {@code null} no fim do arquivo.
+     */
+    protected abstract RegistroExtrato ler() throws IOException;
+
+    @Override
+    public boolean hasNext() {
+        if (proximo == null) {
+            try {
+                proximo = ler();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return proximo != null;
+    }
+
+    @Override
+    public RegistroExtrato next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        RegistroExtrato registro = proximo;
+        proximo = null;
+        return registro;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    protected static BigDecimal converterValor(String valor) {
+        String normalizado = valor.trim().replace(" ", "");
+        if (normalizado.contains(",")) {
+            normalizado = normalizado.replace(".", "").replace(',', '.');
+        }
+        try {
+            return new BigDecimal(normalizado);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido: " + valor.trim());
+        }
+    }
+
+    protected static LocalDate converterData(String data) {
+        String valor = data.trim();
+        try {
+            if (valor.contains("/")) {
+                return LocalDate.parse(valor, DATA_BRASILEIRA);
+            }
+            if (valor.length() >= 8 && !valor.contains("-")) {
+                return LocalDate.parse(valor.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+            }
+            return LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data inválida: " + valor);
+        }
+    }
+}
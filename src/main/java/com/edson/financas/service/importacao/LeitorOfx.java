@@ -0,0 +1,65 @@
+package com.edson.financas.service.importacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lê as transações {@code <STMTTRN>} de um OFX (SGML ou XML), uma por vez.
+ */
+class LeitorOfx extends LeitorExtrato {
+
+    LeitorOfx(BufferedReader reader) {
+        super(reader);
+    }
+
+    @Override
+    protected RegistroExtrato ler() throws IOException {
+        Map<String, String> campos = null;
+        long inicio = 0;
+
+        String conteudo;
+        while ((conteudo = reader.readLine()) != null) {
+            linha++;
+            for (String trecho : conteudo.split("<")) {
+                int fim = trecho.indexOf('>');
+                if (fim < 0) {
+                    continue;
+                }
+
+                String tag = trecho.substring(0, fim).trim().toUpperCase(Locale.ROOT);
+                String valor = trecho.substring(fim + 1).trim();
+
+                if (tag.equals("STMTTRN")) {
+                    campos = new HashMap<>();
+                    inicio = linha;
+                } else if (tag.equals("/STMTTRN") && campos != null) {
+                    return converter(inicio, campos);
+                } else if (campos != null && !tag.startsWith("/") && !valor.isEmpty()) {
+                    campos.put(tag, valor);
+                }
+            }
+        }
+        return null;
+    }
+
+    private RegistroExtrato converter(long inicio, Map<String, String> campos) {
+        if (!campos.containsKey("DTPOSTED") || !campos.containsKey("TRNAMT")) {
+            return RegistroExtrato.invalido(inicio, "Transação sem DTPOSTED ou TRNAMT.");
+        }
+
+        try {
+            String descricao = campos.getOrDefault("MEMO", campos.get("NAME"));
+            return new RegistroExtrato(inicio,
+                                       converterData(campos.get("DTPOSTED")),
+                                       descricao,
+                                       converterValor(campos.get("TRNAMT")),
+                                       campos.get("FITID"),
+                                       null);
+        } catch (IllegalArgumentException e) {
+            return RegistroExtrato.invalido(inicio, "Transação mal formatada: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.edson.financas.service.importacao;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Uma linha (CSV) ou transação (OFX) lida do extrato. Valores negativos são despesas.
+ * Quando a leitura falha, apenas {@code linha} e {@code erro} são preenchidos.
+ */
+@Value
+@AllArgsConstructor
+public class RegistroExtrato {
+
+    long linha;
+
+    LocalDate data;
+
+    String descricao;
+
+    BigDecimal valor;
+
+    String identificador;
+
+    String erro;
+
+    public static RegistroExtrato invalido(long linha, String erro) {
+        return new RegistroExtrato(linha, null, null, null, null, erro);
+    }
+
+    public boolean isValido() {
+        return erro == null;
+    }
+}
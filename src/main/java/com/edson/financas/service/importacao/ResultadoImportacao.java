@@ -0,0 +1,36 @@
+package com.edson.financas.service.importacao;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ResultadoImportacao {
+
+    private long lidas;
+
+    private long importadas;
+
+    private long duplicadas;
+
+    private long rejeitadas;
+
+    private long duracaoMs;
+
+    private double linhasPorSegundo;
+
+    private List<ErroImportacao> erros = new ArrayList<>();
+
+    @Value
+    @AllArgsConstructor
+    public static class ErroImportacao {
+
+        long linha;
+
+        String mensagem;
+
+    }
+}
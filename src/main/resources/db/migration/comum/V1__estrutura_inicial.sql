@@ -0,0 +1,21 @@
+-- Estrutura do modelo antes do versionamento, igual à dos bancos mantidos à mão até então. Bancos já existentes
+-- entram no Flyway por baseline nesta versão e recebem só as migrações seguintes.
+
+create table financas.usuario (
+    id bigint generated by default as identity primary key,
+    nome varchar(255),
+    email varchar(255),
+    senha varchar(255)
+);
+
+create table financas.lancamento (
+    id bigint generated by default as identity primary key,
+    descricao varchar(255),
+    mes integer,
+    ano integer,
+    id_usuario bigint,
+    valor numeric(19, 2),
+    data_cadastro date,
+    tipo varchar(255),
+    status varchar(255)
+);
@@ -0,0 +1,73 @@
+-- Colunas e tabelas criadas depois da estrutura inicial: origem dos lançamentos importados e gerados, versão para
+-- a trava otimista, saldo, resumo mensal e versão por usuário, índice de trigramas e lançamentos recorrentes.
+
+alter table financas.lancamento add column hash_importacao varchar(64);
+alter table financas.lancamento add column id_recorrente bigint;
+-- os updates em lote fazem versao = versao + 1, que não incrementa um valor nulo
+alter table financas.lancamento add column versao bigint default 0 not null;
+alter table financas.lancamento add constraint uq_lancamento_recorrente_mes unique (id_recorrente, ano, mes);
+
+create index idx_lancamento_usuario_hash on financas.lancamento (id_usuario, hash_importacao);
+
+create table financas.saldo_usuario (
+    id_usuario bigint primary key,
+    receitas numeric(19, 2),
+    despesas numeric(19, 2)
+);
+
+create table financas.resumo_mensal (
+    id bigint generated by default as identity primary key,
+    id_usuario bigint,
+    ano integer,
+    mes integer,
+    tipo varchar(255),
+    status varchar(255),
+    total numeric(19, 2),
+    quantidade bigint,
+    constraint uq_resumo_mensal unique (id_usuario, ano, mes, tipo, status)
+);
+
+-- a consulta do resumo só lê esta tabela; nos bancos existentes ela nasce com os totais dos lançamentos já gravados
+insert into financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total, quantidade)
+select id_usuario, ano, mes, tipo, status, sum(valor), count(*)
+  from financas.lancamento
+ group by id_usuario, ano, mes, tipo, status;
+
+create table financas.versao_usuario (
+    id_usuario bigint primary key,
+    versao bigint
+);
+
+create table financas.trigrama_descricao (
+    id bigint generated by default as identity primary key,
+    id_usuario bigint,
+    trigrama varchar(3),
+    id_lancamento bigint
+);
+
+create index idx_trigrama_usuario_trigrama on financas.trigrama_descricao (id_usuario, trigrama);
+create index idx_trigrama_lancamento on financas.trigrama_descricao (id_lancamento);
+
+create table financas.lancamento_recorrente (
+    id bigint generated by default as identity primary key,
+    id_usuario bigint,
+    descricao varchar(255),
+    valor numeric(19, 2),
+    tipo varchar(255),
+    dia integer,
+    periodicidade varchar(255),
+    mes_inicio integer,
+    ano_inicio integer
+);
+
+create index idx_lancamento_recorrente_usuario on financas.lancamento_recorrente (id_usuario, id);
+
+create table financas.checkpoint_recorrencia (
+    id bigint generated by default as identity primary key,
+    ano integer,
+    mes integer,
+    faixa bigint,
+    ultimo_id_recorrente bigint,
+    gerados bigint,
+    constraint uq_checkpoint_recorrencia unique (ano, mes, faixa)
+);
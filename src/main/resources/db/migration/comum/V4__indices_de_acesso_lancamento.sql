@@ -0,0 +1,15 @@
+-- Caminhos de acesso das consultas do LancamentoRepository e do UsuarioRepository. O índice (id_usuario, ano, mes)
+-- também atende as consultas só por id_usuario e a chave estrangeira para usuario.
+
+create index idx_lancamento_usuario_ano_mes on financas.lancamento (id_usuario, ano, mes);
+create index idx_lancamento_usuario_tipo on financas.lancamento (id_usuario, tipo);
+
+-- as chaves estrangeiras vêm depois dos índices que começam por id_usuario, que também atendem a verificação da
+-- chave; criadas antes, o H2 geraria um índice próprio que o Postgres não tem e os testes de plano não veriam a diferença
+alter table financas.lancamento
+    add constraint fk_lancamento_usuario foreign key (id_usuario) references financas.usuario (id);
+alter table financas.lancamento_recorrente
+    add constraint fk_lancamento_recorrente_usuario foreign key (id_usuario) references financas.usuario (id);
+
+-- falha se já houver e-mails repetidos, que precisam ser resolvidos antes da migração
+create unique index uq_usuario_email on financas.usuario (email);
@@ -0,0 +1,7 @@
+-- O ImportacaoService descarta os hashes já gravados antes de inserir, mas duas importações simultâneas do mesmo
+-- extrato podem consultar antes de qualquer uma gravar. O índice único faz o segundo lote falhar em vez de duplicar.
+-- Lançamentos sem hash (incluídos pela API) não entram na restrição.
+
+-- falha se já houver importações duplicadas, que precisam ser removidas antes da migração
+create unique index uq_lancamento_usuario_hash on financas.lancamento (id_usuario, hash_importacao);
+drop index financas.idx_lancamento_usuario_hash;
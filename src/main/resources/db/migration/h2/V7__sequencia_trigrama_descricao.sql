@@ -0,0 +1,4 @@
+-- O H2 só é usado nos testes, sempre com a base vazia: a sequência começa do início e a identidade da coluna
+-- fica sem uso, já que o Hibernate sempre informa o id.
+
+create sequence financas.trigrama_descricao_seq start with 1 increment by 50;
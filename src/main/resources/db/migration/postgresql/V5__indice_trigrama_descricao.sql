@@ -0,0 +1,5 @@
+-- Índice usado pelo IndiceDescricaoPostgres para lower(descricao) like '%termo%'.
+
+create extension if not exists pg_trgm schema public;
+
+create index idx_lancamento_descricao_trgm on financas.lancamento using gin (lower(descricao) public.gin_trgm_ops);
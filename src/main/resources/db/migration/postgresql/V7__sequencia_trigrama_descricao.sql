@@ -0,0 +1,25 @@
+-- Os ids de trigrama_descricao passam a vir de uma sequência com incremento 50, reservados em blocos pelo
+-- Hibernate, para que os trigramas de um lançamento sejam incluídos num único lote em vez de uma ida ao banco
+-- por linha.
+
+create sequence financas.trigrama_descricao_seq increment by 50;
+
+-- o otimizador pooled do Hibernate usa os ids de (nextval - 49) até nextval; com o valor atual em max(id) + 50
+-- o primeiro bloco começa logo depois do maior id existente
+select setval('financas.trigrama_descricao_seq', coalesce(max(id), 0) + 50) from financas.trigrama_descricao;
+
+-- a coluna deixa de gerar o próprio id, seja identity ou serial na base mantida à mão
+do $$
+begin
+    if exists (select 1
+                 from information_schema.columns
+                where table_schema = 'financas'
+                  and table_name = 'trigrama_descricao'
+                  and column_name = 'id'
+                  and is_identity = 'YES') then
+        alter table financas.trigrama_descricao alter column id drop identity;
+    else
+        alter table financas.trigrama_descricao alter column id drop default;
+    end if;
+end
+$$;
@@ -0,0 +1,45 @@
+package com.edson.financas.api.json;
+
+import com.edson.financas.api.dto.LancamentoDTO;
+import com.edson.financas.model.valor.Dinheiro;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@JsonTest
+@ActiveProfiles("test")
+public class DinheiroJsonTest {
+
+    @Autowired
+    ObjectMapper mapper;
+
+    @Test
+    public void deveLerOValorComoNumeroOuTexto() throws Exception {
+        Assertions.assertThat(mapper.readValue("{\"valor\":10}", LancamentoDTO.class).getValor())
+                  .isEqualTo(Dinheiro.deCentavos(1000));
+        Assertions.assertThat(mapper.readValue("{\"valor\":1200.5}", LancamentoDTO.class).getValor())
+                  .isEqualTo(Dinheiro.deCentavos(120050));
+        Assertions.assertThat(mapper.readValue("{\"valor\":\"0.99\"}", LancamentoDTO.class).getValor())
+                  .isEqualTo(Dinheiro.deCentavos(99));
+        Assertions.assertThat(mapper.readValue("{\"valor\":null}", LancamentoDTO.class).getValor()).isNull();
+    }
+
+    @Test
+    public void deveRecusarValorInvalido() {
+        Assertions.assertThatThrownBy(() -> mapper.readValue("{\"valor\":\"abc\"}", LancamentoDTO.class))
+                  .isInstanceOf(InvalidFormatException.class);
+        Assertions.assertThatThrownBy(() -> mapper.readValue("{\"valor\":100000000000000000000}", LancamentoDTO.class))
+                  .isInstanceOf(InvalidFormatException.class);
+    }
+
+    @Test
+    public void deveEscreverOValorComDuasCasasDecimais() throws Exception {
+        LancamentoDTO dto = LancamentoDTO.builder().valor(Dinheiro.de(3500)).build();
+
+        Assertions.assertThat(mapper.writeValueAsString(dto)).contains("\"valor\":3500.00");
+    }
+}
@@ -0,0 +1,95 @@
+package com.edson.financas.api.resource;
+
+import com.edson.financas.config.RotasReativasConfig;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.LancamentoVisao;
+import com.edson.financas.model.repository.LancamentoReativoRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.TokenService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = LancamentoReativoHandler.class)
+@Import(RotasReativasConfig.class)
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "financas.leitura-reativa.tamanho-lote=2")
+public class LancamentoReativoHandlerTest {
+
+    static final String API = "/api/reativo/lancamentos";
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    LancamentoReativoRepository repository;
+
+    @MockBean
+    TokenService tokenService;
+
+    @Test
+    public void deveTransmitirOsLancamentosEmNdjsonEmLotes() throws Exception {
+        //cenário
+        Mockito.when(repository.buscar(1l, 2021, null, "%mercado%"))
+               .thenReturn(Flux.just(criarVisao(1l), criarVisao(2l), criarVisao(3l)));
+
+        //execução
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API)
+                                          .param("usuario", "1")
+                                          .param("ano", "2021")
+                                          .param("descricao", "Mercado"))
+                                 .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                                 .andReturn();
+
+        //verificação
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+           .andExpect(MockMvcResultMatchers.status().isOk())
+           .andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson;charset=UTF-8"))
+           .andExpect(MockMvcResultMatchers.content().string(
+                   "{\"id\":1,\"descricao\":\"mercado\",\"mes\":1,\"ano\":2021,\"valor\":10.00,\"tipo\":\"DESPESA\","
+                   + "\"status\":\"PENDENTE\",\"dataCadastro\":\"2021-01-10\",\"usuario\":1,\"versao\":0}\n"
+                   + "{\"id\":2,\"descricao\":\"mercado\",\"mes\":1,\"ano\":2021,\"valor\":10.00,\"tipo\":\"DESPESA\","
+                   + "\"status\":\"PENDENTE\",\"dataCadastro\":\"2021-01-10\",\"usuario\":1,\"versao\":0}\n"
+                   + "{\"id\":3,\"descricao\":\"mercado\",\"mes\":1,\"ano\":2021,\"valor\":10.00,\"tipo\":\"DESPESA\","
+                   + "\"status\":\"PENDENTE\",\"dataCadastro\":\"2021-01-10\",\"usuario\":1,\"versao\":0}\n"));
+    }
+
+    @Test
+    public void deveRetornarBadRequestSemUsuario() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get(API))
+           .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void deveRetornarBadRequestComAnoInvalido() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").param("ano", "dois mil"))
+           .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    private static LancamentoVisao criarVisao(Long id) {
+        return new LancamentoVisao(id, "mercado", 1, 2021, Dinheiro.de(10), TipoLancamento.DESPESA,
+                                   StatusLancamento.PENDENTE, LocalDate.of(2021, 1, 10), 1l, 0l);
+    }
+}
@@ -0,0 +1,224 @@
+package com.edson.financas.api.resource;
+
+import com.edson.financas.api.dto.LancamentoDTO;
+import com.edson.financas.exception.RegraNegocioException;
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.enums.FormatoExportacao;
+import com.edson.financas.model.projection.LancamentoVisao;
+import com.edson.financas.model.projection.SessaoUsuario;
+import com.edson.financas.service.ExportacaoService;
+import com.edson.financas.service.ImportacaoService;
+import com.edson.financas.service.LancamentoService;
+import com.edson.financas.service.TokenService;
+import com.edson.financas.service.UsuarioService;
+import com.edson.financas.service.VersaoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = LancamentoResource.class)
+@AutoConfigureMockMvc
+public class LancamentoResourceTest {
+
+    static final String API = "/api/lancamentos";
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    LancamentoService service;
+
+    @MockBean
+    UsuarioService usuarioService;
+
+    @MockBean
+    ImportacaoService importacaoService;
+
+    @MockBean
+    ExportacaoService exportacaoService;
+
+    @MockBean
+    VersaoService versaoService;
+
+    @MockBean
+    RespostasIdempotentes respostasIdempotentes;
+
+    @MockBean
+    TokenService tokenService;
+
+    @Test
+    public void deveExportarOsLancamentosDoUsuarioEmCsv() throws Exception{
+        //cenário
+        Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+        Mockito.doAnswer(invocacao -> {
+            OutputStream saida = invocacao.getArgument(2);
+            saida.write("id;descricao\n1;mercado\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportacaoService).exportar(ArgumentMatchers.eq(1l), ArgumentMatchers.eq(FormatoExportacao.CSV),
+                                             ArgumentMatchers.any(OutputStream.class));
+
+        //execução
+        MvcResult inicio = mvc.perform(MockMvcRequestBuilders.get(API.concat("/export")).param("usuario", "1"))
+                              .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                              .andReturn();
+
+        //verificação
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(inicio))
+           .andExpect(MockMvcResultMatchers.status().isOk())
+           .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_DISPOSITION,
+                                                            "attachment; filename=lancamentos-1.csv"))
+           .andExpect(MockMvcResultMatchers.content().string("id;descricao\n1;mercado\n"));
+    }
+
+    @Test
+    public void deveRetornarBadRequestAoExportarEmUmFormatoNaoSuportado() throws Exception{
+        //cenário
+        Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+
+        //execução
+        MvcResult inicio = mvc.perform(MockMvcRequestBuilders.get(API.concat("/export"))
+                                                             .param("usuario", "1")
+                                                             .param("formato", "xml"))
+                              .andReturn();
+
+        //verificação
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(inicio))
+           .andExpect(MockMvcResultMatchers.status().isBadRequest())
+           .andExpect(MockMvcResultMatchers.content().string("Formato de exportação não suportado. Use csv ou ndjson."));
+        Mockito.verifyNoInteractions(exportacaoService);
+    }
+
+    @Test
+    public void deveRetornarBadRequestAoExportarParaUmUsuarioInexistente() throws Exception{
+        //cenário
+        Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.empty());
+
+        //execução
+        MvcResult inicio = mvc.perform(MockMvcRequestBuilders.get(API.concat("/export")).param("usuario", "1"))
+                              .andReturn();
+
+        //verificação
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(inicio))
+           .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void deveRetornarBadRequestQuandoABuscaSemPaginacaoPassaDoLimite() throws Exception{
+        //cenário
+        Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+        Mockito.when(service.buscar(Mockito.any(Lancamento.class)))
+               .thenThrow(new RegraNegocioException("A consulta retorna mais de 1000 lançamentos."));
+
+        //execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1"))
+           .andExpect(MockMvcResultMatchers.status().isBadRequest())
+           .andExpect(MockMvcResultMatchers.content().string("A consulta retorna mais de 1000 lançamentos."));
+    }
+
+    @Test
+    public void deveIndicarABuscaPaginadaComoSucessoraDaBuscaSemPaginacao() throws Exception{
+        //cenário
+        Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+        Mockito.when(service.buscar(Mockito.any(Lancamento.class))).thenReturn(Collections.emptyList());
+
+        //execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1"))
+           .andExpect(MockMvcResultMatchers.status().isOk())
+           .andExpect(MockMvcResultMatchers.header().string("Deprecation", "true"))
+           .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LINK,
+                                                            "</api/lancamentos/pagina>; rel=\"successor-version\""));
+    }
+
+    @Test
+    public void deveRetornarForbiddenAoObterLancamentoDeOutroUsuario() throws Exception{
+        //cenário
+        autenticar(2l);
+        Mockito.when(service.obterVisaoPorId(10l)).thenReturn(Optional.of(LancamentoVisao.of(lancamentoDoUsuario(1l))));
+
+        //execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/10")).header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+           .andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+
+    @Test
+    public void deveRetornarForbiddenAoDeletarLancamentoDeOutroUsuario() throws Exception{
+        //cenário
+        autenticar(2l);
+        Mockito.when(service.obterPorId(10l)).thenReturn(Optional.of(lancamentoDoUsuario(1l)));
+
+        //execução e verificação
+        mvc.perform(MockMvcRequestBuilders.delete(API.concat("/10")).header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+           .andExpect(MockMvcResultMatchers.status().isForbidden());
+        Mockito.verify(service, Mockito.never()).deletar(Mockito.any(Lancamento.class));
+    }
+
+    @Test
+    public void deveRetornarForbiddenAoAtualizarOStatusDeLancamentoDeOutroUsuario() throws Exception{
+        //cenário
+        autenticar(2l);
+        Mockito.when(service.obterPorId(10l)).thenReturn(Optional.of(lancamentoDoUsuario(1l)));
+
+        //execução e verificação
+        mvc.perform(MockMvcRequestBuilders.put(API.concat("/10/atualiza-status"))
+                                          .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                                          .contentType(MediaType.APPLICATION_JSON)
+                                          .content("{\"status\":\"EFETIVADO\"}"))
+           .andExpect(MockMvcResultMatchers.status().isForbidden());
+        Mockito.verify(service, Mockito.never()).atualizar(Mockito.any(Lancamento.class));
+    }
+
+    @Test
+    public void naoDeveTransferirOLancamentoParaOutroUsuarioAoAtualizar() throws Exception{
+        //cenário
+        Mockito.when(service.obterPorId(10l)).thenReturn(Optional.of(lancamentoDoUsuario(1l)));
+        Mockito.when(respostasIdempotentes.executar(Mockito.any(), Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any()))
+               .thenAnswer(invocacao -> invocacao.<Supplier<ResponseEntity>>getArgument(4).get());
+        LancamentoDTO dto = LancamentoDTO.builder().descricao("mercado").ano(2021).mes(1).usuario(2l).tipo("DESPESA").build();
+
+        //execução e verificação
+        mvc.perform(MockMvcRequestBuilders.put(API.concat("/10"))
+                                          .contentType(MediaType.APPLICATION_JSON)
+                                          .content(new ObjectMapper().writeValueAsString(dto)))
+           .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Mockito.verify(service, Mockito.never()).atualizar(Mockito.any(Lancamento.class));
+    }
+
+    private void autenticar(Long idUsuario){
+        SessaoUsuario sessao = new SessaoUsuario(idUsuario, "nome", "usuario@email.com", Instant.now().plusSeconds(60));
+        Mockito.when(tokenService.validar("token")).thenReturn(Optional.of(sessao));
+    }
+
+    private Lancamento lancamentoDoUsuario(Long idUsuario){
+        Lancamento lancamento = new Lancamento();
+        lancamento.setId(10l);
+        lancamento.setDescricao("mercado");
+        lancamento.setUsuario(Usuario.builder().id(idUsuario).build());
+        lancamento.setVersao(0l);
+        return lancamento;
+    }
+}
@@ -0,0 +1,146 @@
+package com.edson.financas.api.resource;
+
+import com.edson.financas.api.dto.LancamentoDTO;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class RespostasIdempotentesTest {
+
+    static final String OPERACAO = "POST /api/lancamentos";
+
+    @SpyBean
+    RespostasIdempotentes respostas;
+
+    @Test
+    public void deveDevolverAMesmaRespostaSemExecutarNovamenteQuandoAChaveSeRepete(){
+        //cenário
+        AtomicInteger execucoes = new AtomicInteger();
+        LancamentoDTO dto = LancamentoDTO.builder().descricao("mercado").usuario(1l).build();
+        Supplier<ResponseEntity> execucao = () -> new ResponseEntity(execucoes.incrementAndGet(), HttpStatus.CREATED);
+
+        //execução
+        ResponseEntity primeira = respostas.executar("repetida", OPERACAO, 1l, dto, execucao);
+        ResponseEntity repetida = respostas.executar("repetida", OPERACAO, 1l, dto, execucao);
+
+        //verificação
+        Assertions.assertThat(execucoes.get()).isEqualTo(1);
+        Assertions.assertThat(repetida.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(repetida.getBody()).isEqualTo(primeira.getBody());
+        Assertions.assertThat(repetida.getHeaders().getFirst(RespostasIdempotentes.CABECALHO_REPETICAO)).isEqualTo("true");
+    }
+
+    @Test
+    public void deveJuntarARepeticaoSimultaneaAExecucaoEmAndamento() throws Exception {
+        //cenário
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch liberacao = new CountDownLatch(1);
+        LancamentoDTO dto = LancamentoDTO.builder().descricao("mercado").usuario(1l).build();
+        Supplier<ResponseEntity> execucao = () -> {
+            execucoes.incrementAndGet();
+            try {
+                liberacao.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ResponseEntity(HttpStatus.CREATED);
+        };
+
+        //execução
+        ExecutorService chamadores = Executors.newFixedThreadPool(2);
+        Future<ResponseEntity> original = chamadores.submit(() -> respostas.executar("simultanea", OPERACAO, 1l, dto, execucao));
+        while (execucoes.get() == 0) {
+            Thread.sleep(5);
+        }
+        Future<ResponseEntity> repetida = chamadores.submit(() -> respostas.executar("simultanea", OPERACAO, 1l, dto, execucao));
+        Thread.sleep(50);
+        liberacao.countDown();
+        chamadores.shutdown();
+
+        //verificação
+        Assertions.assertThat(original.get().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(repetida.get().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(execucoes.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void deveRecusarAChaveReaproveitadaComOutraRequisicao(){
+        //cenário
+        LancamentoDTO dto = LancamentoDTO.builder().descricao("mercado").usuario(1l).build();
+        LancamentoDTO outro = LancamentoDTO.builder().descricao("farmácia").usuario(1l).build();
+        respostas.executar("reaproveitada", OPERACAO, 1l, dto, () -> new ResponseEntity(HttpStatus.CREATED));
+
+        //execução
+        ResponseEntity resposta = respostas.executar("reaproveitada", OPERACAO, 1l, outro, () -> new ResponseEntity(HttpStatus.CREATED));
+
+        //verificação
+        Assertions.assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    public void deveExecutarNovamenteQuandoAPrimeiraRespostaFoiUmErroDoServidor(){
+        //cenário
+        AtomicInteger execucoes = new AtomicInteger();
+        LancamentoDTO dto = LancamentoDTO.builder().descricao("mercado").usuario(1l).build();
+        respostas.executar("indisponivel", OPERACAO, 1l, dto, () -> {
+            execucoes.incrementAndGet();
+            return new ResponseEntity(HttpStatus.SERVICE_UNAVAILABLE);
+        });
+
+        //execução
+        ResponseEntity resposta = respostas.executar("indisponivel", OPERACAO, 1l, dto, () -> {
+            execucoes.incrementAndGet();
+            return new ResponseEntity(HttpStatus.CREATED);
+        });
+
+        //verificação
+        Assertions.assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(execucoes.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void naoDeveCompartilharAChaveEntreUsuarios(){
+        //cenário
+        AtomicInteger execucoes = new AtomicInteger();
+        Supplier<ResponseEntity> execucao = () -> new ResponseEntity(execucoes.incrementAndGet(), HttpStatus.CREATED);
+
+        //execução
+        respostas.executar("mesma-chave", OPERACAO, 1l, LancamentoDTO.builder().usuario(1l).build(), execucao);
+        ResponseEntity resposta = respostas.executar("mesma-chave", OPERACAO, 2l, LancamentoDTO.builder().usuario(2l).build(), execucao);
+
+        //verificação
+        Assertions.assertThat(resposta.getBody()).isEqualTo(2);
+        Assertions.assertThat(resposta.getHeaders().containsKey(RespostasIdempotentes.CABECALHO_REPETICAO)).isFalse();
+    }
+
+    @Test
+    public void deveLiberarAChaveQuandoAExecucaoFalhaComUmErro(){
+        //cenário
+        LancamentoDTO dto = LancamentoDTO.builder().descricao("mercado").usuario(1l).build();
+        Throwable erro = Assertions.catchThrowable(() -> respostas.executar("erro", OPERACAO, 1l, dto, () -> {
+            throw new StackOverflowError();
+        }));
+
+        //execução
+        ResponseEntity resposta = respostas.executar("erro", OPERACAO, 1l, dto, () -> new ResponseEntity(HttpStatus.CREATED));
+
+        //verificação
+        Assertions.assertThat(erro).isInstanceOf(StackOverflowError.class);
+        Assertions.assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(resposta.getHeaders().containsKey(RespostasIdempotentes.CABECALHO_REPETICAO)).isFalse();
+    }
+}
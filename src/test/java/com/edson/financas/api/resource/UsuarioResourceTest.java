@@ -1,13 +1,28 @@
 package com.edson.financas.api.resource;
 
 import com.edson.financas.api.dto.UsuarioDTO;
+import com.edson.financas.exception.AutenticacaoIndisponivelException;
 import com.edson.financas.exception.ErroAutenticacao;
 import com.edson.financas.exception.RegraNegocioException;
 import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.enums.AgrupamentoAnalise;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.PainelUsuario;
+import com.edson.financas.model.projection.ResumoMes;
+import com.edson.financas.model.projection.SessaoUsuario;
+import com.edson.financas.model.projection.TotalAnalitico;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.AnaliseService;
 import com.edson.financas.service.LancamentoService;
+import com.edson.financas.service.NotificacaoService;
+import com.edson.financas.service.ResumoService;
+import com.edson.financas.service.TokenService;
 import com.edson.financas.service.UsuarioService;
+import com.edson.financas.service.VersaoService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
@@ -15,13 +30,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -41,6 +67,21 @@ public class UsuarioResourceTest {
     @MockBean
     LancamentoService lancamentoService;
 
+    @MockBean
+    ResumoService resumoService;
+
+    @MockBean
+    TokenService tokenService;
+
+    @MockBean
+    VersaoService versaoService;
+
+    @MockBean
+    AnaliseService analiseService;
+
+    @MockBean
+    NotificacaoService notificacaoService;
+
     @Test
     public void deveAutenticarUmUsuario() throws Exception {
         //cenário
@@ -51,6 +92,7 @@ public class UsuarioResourceTest {
         Usuario usuario = Usuario.builder().id(1l).email(email).senha(senha).build();
 
         Mockito.when(service.autenticar(email, senha)).thenReturn(usuario);
+        Mockito.when(tokenService.emitir(usuario)).thenReturn("token");
 
         String json = new ObjectMapper().writeValueAsString(dto);
 
@@ -65,7 +107,9 @@ public class UsuarioResourceTest {
            .andExpect(MockMvcResultMatchers.status().isOk())
            .andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
            .andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
-           .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+           .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+           .andExpect(MockMvcResultMatchers.jsonPath("token").value("token"))
+           .andExpect(MockMvcResultMatchers.jsonPath("senha").doesNotExist());
 
     }
 
@@ -113,7 +157,8 @@ public class UsuarioResourceTest {
            .andExpect(MockMvcResultMatchers.status().isCreated())
            .andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
            .andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
-           .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+           .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+           .andExpect(MockMvcResultMatchers.jsonPath("senha").doesNotExist());
     }
 
     @Test
@@ -137,4 +182,293 @@ public class UsuarioResourceTest {
         mvc.perform(request)
            .andExpect(MockMvcResultMatchers.status().isBadRequest());
     }
+
+    @Test
+    public void deveRetornarServiceUnavailableAoCriarUmUsuarioComOHashDeSenhaSaturado() throws Exception{
+        //cenário
+        UsuarioDTO dto = UsuarioDTO.builder().email("usuario@email.com").senha("123").build();
+
+        Mockito.when(service.salvarUsuario((Mockito.any(Usuario.class))))
+               .thenThrow(new AutenticacaoIndisponivelException("Muitas autenticações simultâneas. Tente novamente em instantes."));
+        String json = new ObjectMapper().writeValueAsString(dto);
+
+        //execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                                                    .post(API)
+                                                    .accept(JSON)
+                                                    .contentType(JSON)
+                                                    .content(json);
+
+        mvc.perform(request)
+           .andExpect(MockMvcResultMatchers.status().isServiceUnavailable());
+    }
+
+    @Test
+    public void deveObterOResumoAnualDoUsuario() throws Exception{
+        //cenário
+        Usuario usuario = Usuario.builder().id(1l).build();
+        ResumoMes resumoMes = new ResumoMes(1, Dinheiro.de(10), Dinheiro.de(1), Dinheiro.de(9), 2l, 1l);
+
+        Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(usuario));
+        Mockito.when(resumoService.obterResumoAnual(1l, 2021)).thenReturn(Collections.singletonList(resumoMes));
+
+        //execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                                                    .get(API.concat("/1/resumo"))
+                                                    .param("ano", "2021")
+                                                    .accept(JSON);
+
+        mvc.perform(request)
+           .andExpect(MockMvcResultMatchers.status().isOk())
+           .andExpect(MockMvcResultMatchers.jsonPath("ano").value(2021))
+           .andExpect(MockMvcResultMatchers.jsonPath("meses[0].saldo").value(9));
+    }
+
+    @Test
+    public void deveRetornarNotFoundAoObterResumoDeUsuarioInexistente() throws Exception{
+        //cenário
+        Mockito.when(service.obterPorId(1l)).thenReturn(Optional.empty());
+
+        //execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                                                    .get(API.concat("/1/resumo"))
+                                                    .param("ano", "2021")
+                                                    .accept(JSON);
+
+        mvc.perform(request).andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void deveObterOResumoPeloTokenSemConsultarOUsuario() throws Exception{
+        //cenário
+        SessaoUsuario sessao = new SessaoUsuario(1l, "nome", "usuario@email.com", Instant.now().plusSeconds(60));
+        Mockito.when(tokenService.validar("token")).thenReturn(Optional.of(sessao));
+        Mockito.when(resumoService.obterResumoAnual(1l, 2021)).thenReturn(Collections.emptyList());
+
+        //execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                                                    .get(API.concat("/1/resumo"))
+                                                    .param("ano", "2021")
+                                                    .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                                                    .accept(JSON);
+
+        mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk());
+        Mockito.verify(service, Mockito.never()).obterPorId(Mockito.anyLong());
+    }
+
+    @Test
+    public void deveRetornarForbiddenAoObterResumoDeOutroUsuario() throws Exception{
+        //cenário
+        SessaoUsuario sessao = new SessaoUsuario(2l, "nome", "usuario@email.com", Instant.now().plusSeconds(60));
+        Mockito.when(tokenService.validar("token")).thenReturn(Optional.of(sessao));
+
+        //execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                                                    .get(API.concat("/1/resumo"))
+                                                    .param("ano", "2021")
+                                                    .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                                                    .accept(JSON);
+
+        mvc.perform(request).andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+
+    @Test
+    public void deveObterOsTotaisAgrupadosPorMes() throws Exception{
+        //cenário
+        Usuario usuario = Usuario.builder().id(1l).build();
+        TotalAnalitico janeiro = new TotalAnalitico(2021, 1, TipoLancamento.DESPESA, null, Dinheiro.de(10), 2l);
+
+        Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(usuario));
+        Mockito.when(analiseService.agrupar(1l, AgrupamentoAnalise.MES, 2021, null, TipoLancamento.DESPESA, null))
+               .thenReturn(Collections.singletonList(janeiro));
+
+        //execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                                                    .get(API.concat("/1/totais"))
+                                                    .param("agrupar", "mes")
+                                                    .param("ano", "2021")
+                                                    .param("tipo", "despesa")
+                                                    .accept(JSON);
+
+        mvc.perform(request)
+           .andExpect(MockMvcResultMatchers.status().isOk())
+           .andExpect(MockMvcResultMatchers.jsonPath("[0].mes").value(1))
+           .andExpect(MockMvcResultMatchers.jsonPath("[0].total").value(10))
+           .andExpect(MockMvcResultMatchers.jsonPath("[0].quantidade").value(2));
+    }
+
+    @Test
+    public void deveRetornarBadRequestComAgrupamentoInvalido() throws Exception{
+        //cenário
+        Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+
+        //execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                                                    .get(API.concat("/1/totais"))
+                                                    .param("agrupar", "semana")
+                                                    .accept(JSON);
+
+        mvc.perform(request).andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Mockito.verifyNoInteractions(analiseService);
+    }
+
+    @Test
+    public void deveRetornarUnauthorizedComTokenInvalido() throws Exception{
+        //cenário
+        Mockito.when(tokenService.validar("token")).thenReturn(Optional.empty());
+
+        //execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                                                    .get(API.concat("/1/saldo"))
+                                                    .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                                                    .accept(JSON);
+
+        mvc.perform(request).andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    public void deveRetornarServiceUnavailableComAVerificacaoDeSenhaSaturada() throws Exception{
+        //cenário
+        UsuarioDTO dto = UsuarioDTO.builder().email("usuario@email.com").senha("123").build();
+        Mockito.when(service.autenticar("usuario@email.com", "123")).thenThrow(AutenticacaoIndisponivelException.class);
+
+        //execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                                                    .post(API.concat("/autenticar"))
+                                                    .accept(JSON)
+                                                    .contentType(JSON)
+                                                    .content(new ObjectMapper().writeValueAsString(dto));
+
+        mvc.perform(request).andExpect(MockMvcResultMatchers.status().isServiceUnavailable());
+    }
+
+    @Test
+    public void deveRetornarNotModifiedQuandoOSaldoNaoMudou() throws Exception{
+        //cenário
+        Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+        Mockito.when(versaoService.obterVersao(1l)).thenReturn(5l);
+        Mockito.when(lancamentoService.obterSaldoPorUsuario(1l)).thenReturn(Dinheiro.de(10));
+
+        //execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo")).accept(JSON))
+           .andExpect(MockMvcResultMatchers.status().isOk())
+           .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1-5\""));
+
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo")).header(HttpHeaders.IF_NONE_MATCH, "\"1-5\"").accept(JSON))
+           .andExpect(MockMvcResultMatchers.status().isNotModified());
+        Mockito.verify(lancamentoService, Mockito.times(1)).obterSaldoPorUsuario(1l);
+    }
+
+    @Test
+    public void deveObterOPainelDoUsuarioDoMesCorrente() throws Exception{
+        //cenário
+        YearMonth referencia = YearMonth.now();
+        Map<StatusLancamento, Long> quantidadePorStatus = new EnumMap<>(StatusLancamento.class);
+        quantidadePorStatus.put(StatusLancamento.PENDENTE, 2l);
+        PainelUsuario painel = new PainelUsuario(1l, referencia.getYear(), referencia.getMonthValue(), Dinheiro.de(6),
+                                                 Dinheiro.de(10), Dinheiro.de(4), quantidadePorStatus,
+                                                 Collections.emptyList());
+        Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+        Mockito.when(versaoService.obterVersao(1l)).thenReturn(5l);
+        Mockito.when(lancamentoService.obterPainel(1l, referencia)).thenReturn(painel);
+
+        //execução e verificação
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/dashboard")).accept(JSON))
+           .andExpect(MockMvcResultMatchers.status().isOk())
+           .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1-5-" + referencia + "\""))
+           .andExpect(MockMvcResultMatchers.jsonPath("saldo").value(6))
+           .andExpect(MockMvcResultMatchers.jsonPath("receitasMes").value(10))
+           .andExpect(MockMvcResultMatchers.jsonPath("quantidadePorStatus.PENDENTE").value(2));
+    }
+
+    @Test
+    public void deveAbrirOFluxoDeEventosDoUsuarioDoToken() throws Exception{
+        //cenário
+        SessaoUsuario sessao = new SessaoUsuario(1l, "nome", "usuario@email.com", Instant.now().plusSeconds(60));
+        Mockito.when(tokenService.validar("token")).thenReturn(Optional.of(sessao));
+        Mockito.when(notificacaoService.inscrever(1l)).thenReturn(new SseEmitter());
+
+        //execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                                                    .get(API.concat("/1/eventos"))
+                                                    .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                                                    .accept(MediaType.TEXT_EVENT_STREAM);
+
+        mvc.perform(request).andExpect(MockMvcResultMatchers.request().asyncStarted());
+        Mockito.verify(notificacaoService).inscrever(1l);
+    }
+
+    @Test
+    public void deveRetornarForbiddenAoAbrirOFluxoDeEventosDeOutroUsuario() throws Exception{
+        //cenário
+        SessaoUsuario sessao = new SessaoUsuario(2l, "nome", "usuario@email.com", Instant.now().plusSeconds(60));
+        Mockito.when(tokenService.validar("token")).thenReturn(Optional.of(sessao));
+
+        //execução e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                                                    .get(API.concat("/1/eventos"))
+                                                    .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                                                    .accept(MediaType.TEXT_EVENT_STREAM);
+
+        mvc.perform(request).andExpect(MockMvcResultMatchers.status().isForbidden());
+        Mockito.verify(notificacaoService, Mockito.never()).inscrever(Mockito.anyLong());
+    }
+
+    @Test
+    public void deveRecusarComTooManyRequestsQuandoOUsuarioEsgotaOLimiteDeLeiturasPesadas() throws Exception{
+        //cenário
+        Mockito.when(tokenService.validar("token-99"))
+               .thenReturn(Optional.of(new SessaoUsuario(99l, "nome", "usuario@email.com", Instant.now().plusSeconds(60))));
+        Mockito.when(tokenService.validar("token-98"))
+               .thenReturn(Optional.of(new SessaoUsuario(98l, "nome", "usuario@email.com", Instant.now().plusSeconds(60))));
+
+        //execução
+        MvcResult resultado = null;
+        for (int i = 0; i < 20; i++){
+            resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/99/totais"))
+                                                          .header(HttpHeaders.AUTHORIZATION, "Bearer token-99")
+                                                          .accept(JSON)).andReturn();
+            if (resultado.getResponse().getStatus() == HttpStatus.TOO_MANY_REQUESTS.value()){
+                break;
+            }
+        }
+
+        //verificação
+        Assertions.assertThat(resultado.getResponse().getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        Assertions.assertThat(resultado.getResponse().getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/98/totais"))
+                                          .header(HttpHeaders.AUTHORIZATION, "Bearer token-98")
+                                          .accept(JSON))
+           .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void deveLimitarAsRequisicoesSemTokenPeloEnderecoDeOrigemEmVezDoIdInformado() throws Exception{
+        //cenário
+        Mockito.when(service.obterPorId(Mockito.anyLong())).thenReturn(Optional.empty());
+
+        //execução
+        MvcResult resultado = null;
+        for (int i = 0; i < 20; i++){
+            resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/" + (200 + i) + "/totais"))
+                                                          .with(requisicao -> {
+                                                              requisicao.setRemoteAddr("10.0.0.1");
+                                                              return requisicao;
+                                                          })
+                                                          .accept(JSON)).andReturn();
+            if (resultado.getResponse().getStatus() == HttpStatus.TOO_MANY_REQUESTS.value()){
+                break;
+            }
+        }
+
+        //verificação
+        Assertions.assertThat(resultado.getResponse().getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/200/totais"))
+                                          .with(requisicao -> {
+                                              requisicao.setRemoteAddr("10.0.0.2");
+                                              return requisicao;
+                                          })
+                                          .accept(JSON))
+           .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
 }
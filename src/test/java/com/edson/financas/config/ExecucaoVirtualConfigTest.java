@@ -0,0 +1,36 @@
+package com.edson.financas.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+public class ExecucaoVirtualConfigTest {
+
+    @Test
+    public void deveExecutarAsTarefasEmThreadsVirtuais() throws Exception {
+        Assumptions.assumeTrue(Runtime.version().feature() >= 21);
+
+        //execução
+        ExecutorService executor = ExecucaoVirtualConfig.criarExecutorVirtual("teste-");
+        Future<Object> virtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+        Future<String> nome = executor.submit(() -> Thread.currentThread().getName());
+
+        //verificação
+        Assertions.assertThat(virtual.get()).isEqualTo(true);
+        Assertions.assertThat(nome.get()).startsWith("teste-");
+        executor.shutdown();
+    }
+
+    @Test
+    public void deveRecusarOModoVirtualEmJdkAnteriorAo21() {
+        Assumptions.assumeTrue(Runtime.version().feature() < 21);
+
+        //execução e verificação
+        Assertions.assertThatThrownBy(() -> ExecucaoVirtualConfig.criarExecutorVirtual("teste-"))
+                  .isInstanceOf(IllegalStateException.class)
+                  .hasMessageContaining("JDK 21");
+    }
+}
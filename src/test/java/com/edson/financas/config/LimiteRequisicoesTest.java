@@ -0,0 +1,62 @@
+package com.edson.financas.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LimiteRequisicoesTest {
+
+    @Test
+    public void deveLiberarARajadaERecusarAProximaInformandoAEspera(){
+        LimiteRequisicoes limite = new LimiteRequisicoes(2, 1, 1024);
+
+        Assertions.assertThat(limite.consumir("usuario:1")).isZero();
+        Assertions.assertThat(limite.consumir("usuario:1")).isZero();
+        long espera = limite.consumir("usuario:1");
+
+        Assertions.assertThat(espera).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void deveManterBaldesSeparadosPorChave(){
+        LimiteRequisicoes limite = new LimiteRequisicoes(1, 1, 1024);
+
+        Assertions.assertThat(limite.consumir("a")).isZero();
+        Assertions.assertThat(limite.consumir("a")).isPositive();
+        Assertions.assertThat(limite.consumir("b")).isZero();
+    }
+
+    @Test
+    public void deveReporAsFichasComOTempo() throws Exception {
+        LimiteRequisicoes limite = new LimiteRequisicoes(1, 20, 1024);
+
+        Assertions.assertThat(limite.consumir("usuario:1")).isZero();
+        Assertions.assertThat(limite.consumir("usuario:1")).isPositive();
+        Thread.sleep(60);
+
+        Assertions.assertThat(limite.consumir("usuario:1")).isZero();
+    }
+
+    @Test
+    public void naoDeveLiberarMaisQueACapacidadeComConsumoSimultaneo() throws Exception {
+        LimiteRequisicoes limite = new LimiteRequisicoes(100, 0.001, 1024);
+        AtomicInteger liberadas = new AtomicInteger();
+
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            threads.submit(() -> {
+                if (limite.consumir("usuario:1") == 0) {
+                    liberadas.incrementAndGet();
+                }
+            });
+        }
+        threads.shutdown();
+        threads.awaitTermination(10, TimeUnit.SECONDS);
+
+        Assertions.assertThat(liberadas.get()).isEqualTo(100);
+    }
+}
@@ -0,0 +1,95 @@
+package com.edson.financas.config;
+
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.repository.LancamentoRepositoryTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+public class MetricasAspectTest {
+
+    SimpleMeterRegistry registry;
+
+    LancamentoRepository repository;
+
+    LancamentoRepository repositoryMedido;
+
+    @BeforeEach
+    public void setUp(){
+        registry = new SimpleMeterRegistry();
+        repository = Mockito.mock(LancamentoRepository.class);
+
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(repository);
+        fabrica.addAspect(new MetricasAspect(registry));
+        repositoryMedido = fabrica.getProxy();
+    }
+
+    @Test
+    public void deveMedirOTempoEAsLinhasDeUmaConsulta(){
+        //cenário
+        Mockito.when(repository.findAll()).thenReturn(Arrays.asList(LancamentoRepositoryTest.criarLancamento(),
+                                                                    LancamentoRepositoryTest.criarLancamento()));
+
+        //execução
+        repositoryMedido.findAll();
+
+        //verificação
+        Assertions.assertThat(registry.get("financas.repositorio").tag("metodo", "findAll").timer().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get("financas.repositorio.linhas").tag("metodo", "findAll").summary().totalAmount())
+                  .isEqualTo(2);
+    }
+
+    @Test
+    public void deveReaproveitarOMesmoMedidorNasChamadasSeguintes(){
+        //cenário
+        Mockito.when(repository.findAll()).thenReturn(Arrays.asList(LancamentoRepositoryTest.criarLancamento()));
+        repositoryMedido.findAll();
+
+        //execução
+        repositoryMedido.findAll();
+
+        //verificação
+        Assertions.assertThat(registry.find("financas.repositorio").tag("metodo", "findAll").timers()).hasSize(1);
+        Assertions.assertThat(registry.get("financas.repositorio").tag("metodo", "findAll").timer().count()).isEqualTo(2);
+        Assertions.assertThat(registry.get("financas.repositorio.linhas").tag("metodo", "findAll").summary().count())
+                  .isEqualTo(2);
+    }
+
+    @Test
+    public void deveContarAsLinhasDeUmStreamAoFecharlo(){
+        //cenário
+        Mockito.when(repository.percorrerPorUsuario(1l)).thenReturn(Stream.of(LancamentoRepositoryTest.criarLancamento(),
+                                                                              LancamentoRepositoryTest.criarLancamento(),
+                                                                              LancamentoRepositoryTest.criarLancamento()));
+
+        //execução
+        try (Stream<?> lancamentos = repositoryMedido.percorrerPorUsuario(1l)) {
+            lancamentos.forEach(lancamento -> { });
+        }
+
+        //verificação
+        Assertions.assertThat(registry.get("financas.repositorio.linhas").tag("metodo", "percorrerPorUsuario").summary().totalAmount())
+                  .isEqualTo(3);
+    }
+
+    @Test
+    public void deveRegistrarAExcecaoLancada(){
+        //cenário
+        Mockito.when(repository.calcularSaldos()).thenThrow(new IllegalStateException());
+
+        //execução
+        Assertions.catchThrowableOfType(() -> repositoryMedido.calcularSaldos(), IllegalStateException.class);
+
+        //verificação
+        Assertions.assertThat(registry.get("financas.repositorio").tag("excecao", "IllegalStateException").timer().count())
+                  .isEqualTo(1);
+        Assertions.assertThat(registry.find("financas.repositorio.linhas").tag("metodo", "calcularSaldos").summary()).isNull();
+        Mockito.verify(repository).calcularSaldos();
+    }
+}
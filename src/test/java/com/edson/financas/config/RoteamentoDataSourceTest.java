@@ -0,0 +1,104 @@
+package com.edson.financas.config;
+
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import org.assertj.core.api.Assertions;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+public class RoteamentoDataSourceTest {
+
+    AderenciaPrimario aderencia;
+
+    JdbcTemplate jdbcTemplate;
+
+    DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp(){
+        aderencia = new AderenciaPrimario(60, 100);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new RoteamentoDataSource(criarBanco("primario"), criarBanco("replica"), aderencia));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        AderenciaPrimario.limparUsuario();
+    }
+
+    @Test
+    public void deveLerDaReplicaEmTransacaoSomenteLeitura(){
+        Assertions.assertThat(bancoDaTransacao(true)).isEqualTo("REPLICA");
+    }
+
+    @Test
+    public void deveUsarOPrimarioEmTransacaoDeEscrita(){
+        Assertions.assertThat(bancoDaTransacao(false)).isEqualTo("PRIMARIO");
+    }
+
+    @Test
+    public void deveUsarOPrimarioForaDeTransacao(){
+        Assertions.assertThat(jdbcTemplate.queryForObject("select database()", String.class)).isEqualTo("PRIMARIO");
+    }
+
+    @Test
+    public void deveLerDoPrimarioLogoAposOUsuarioEscrever(){
+        //cenário
+        LancamentoEstado lancamento = new LancamentoEstado(1L, 1L, "descricao", 2021, 1, TipoLancamento.RECEITA,
+                                                           StatusLancamento.PENDENTE, Dinheiro.de(10));
+        aderencia.aoAlterarLancamento(new LancamentoAlteradoEvent(null, lancamento));
+
+        //execução
+        AderenciaPrimario.definirUsuario(1L);
+        String bancoDoUsuario = bancoDaTransacao(true);
+        AderenciaPrimario.definirUsuario(2L);
+        String bancoDeOutroUsuario = bancoDaTransacao(true);
+
+        //verificação
+        Assertions.assertThat(bancoDoUsuario).isEqualTo("PRIMARIO");
+        Assertions.assertThat(bancoDeOutroUsuario).isEqualTo("REPLICA");
+    }
+
+    @Test
+    public void deveVoltarParaAReplicaDepoisDaJanela(){
+        //cenário
+        aderencia = new AderenciaPrimario(0, 100);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new RoteamentoDataSource(criarBanco("primario"), criarBanco("replica"), aderencia));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        aderencia.registrarEscrita(1L);
+
+        //execução
+        AderenciaPrimario.definirUsuario(1L);
+
+        //verificação
+        Assertions.assertThat(bancoDaTransacao(true)).isEqualTo("REPLICA");
+    }
+
+    private String bancoDaTransacao(boolean somenteLeitura) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(somenteLeitura);
+        return transacao.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+    }
+
+    private static DataSource criarBanco(String nome) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
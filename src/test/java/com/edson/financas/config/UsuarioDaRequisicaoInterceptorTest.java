@@ -0,0 +1,64 @@
+package com.edson.financas.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Collections;
+
+public class UsuarioDaRequisicaoInterceptorTest {
+
+    UsuarioDaRequisicaoInterceptor interceptor = new UsuarioDaRequisicaoInterceptor();
+
+    AderenciaPrimario aderencia = new AderenciaPrimario(60, 100);
+
+    @AfterEach
+    public void limpar(){
+        AderenciaPrimario.limparUsuario();
+    }
+
+    @Test
+    public void deveResolverOUsuarioPeloIdNoCaminhoDeUsuarios(){
+        //cenário
+        aderencia.registrarEscrita(7l);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/usuarios/7/saldo");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Collections.singletonMap("id", "7"));
+
+        //execução
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        //verificação
+        Assertions.assertThat(aderencia.exigePrimario()).isTrue();
+    }
+
+    @Test
+    public void naoDeveTomarOIdDeUmLancamentoComoUsuario(){
+        //cenário
+        aderencia.registrarEscrita(7l);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos/7");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Collections.singletonMap("id", "7"));
+
+        //execução
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        //verificação
+        Assertions.assertThat(aderencia.exigePrimario()).isFalse();
+    }
+
+    @Test
+    public void deveResolverOUsuarioPeloParametroQuandoNaoHaVariavelDeCaminho(){
+        //cenário
+        aderencia.registrarEscrita(7l);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos/pagina");
+        request.setParameter("usuario", "7");
+
+        //execução
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        //verificação
+        Assertions.assertThat(aderencia.exigePrimario()).isTrue();
+    }
+}
@@ -0,0 +1,93 @@
+package com.edson.financas.model.repository;
+
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.projection.LancamentoVisao;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+
+/**
+ * Grava pelo JPA e lê pelo R2DBC, de modo que o mapeamento das colunas é conferido contra o schema criado pelas
+ * migrações. Usa um banco em memória próprio porque os dados são efetivados e não voltam no fim do teste.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reativo;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reativo?options=DB_CLOSE_DELAY=-1"
+})
+public class LancamentoReativoRepositoryTest {
+
+    @Autowired
+    LancamentoReativoRepository reativoRepository;
+
+    @Autowired
+    LancamentoRepository repository;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Test
+    public void deveBuscarOsLancamentosDoUsuarioOrdenadosPorAnoMesEId(){
+        //cenário
+        Usuario usuario = salvarUsuario("reativo@email.com");
+        Usuario outroUsuario = salvarUsuario("outro.reativo@email.com");
+        Lancamento marco = criarLancamento(usuario, 2021, 3, "aluguel");
+        Lancamento janeiro = criarLancamento(usuario, 2021, 1, "mercado");
+        Lancamento deOutroAno = criarLancamento(usuario, 2020, 12, "mercado");
+        Lancamento deOutroUsuario = criarLancamento(outroUsuario, 2021, 1, "mercado");
+        repository.saveAll(Arrays.asList(marco, janeiro, deOutroAno, deOutroUsuario));
+
+        //execução e verificação
+        StepVerifier.create(reativoRepository.buscar(usuario.getId(), 2021, null, null))
+                .assertNext(visao -> {
+                    Assertions.assertThat(visao.getId()).isEqualTo(janeiro.getId());
+                    Assertions.assertThat(visao.getUsuario()).isEqualTo(usuario.getId());
+                    Assertions.assertThat(visao.getTipo()).isEqualTo(janeiro.getTipo());
+                    Assertions.assertThat(visao.getStatus()).isEqualTo(janeiro.getStatus());
+                    Assertions.assertThat(visao.getValor()).isEqualByComparingTo(janeiro.getValor());
+                    Assertions.assertThat(visao.getDataCadastro()).isEqualTo(janeiro.getDataCadastro());
+                    Assertions.assertThat(visao.getVersao()).isEqualTo(0l);
+                })
+                .assertNext(visao -> Assertions.assertThat(visao.getId()).isEqualTo(marco.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void deveFiltrarPorDescricaoEMes(){
+        //cenário
+        Usuario usuario = salvarUsuario("filtro.reativo@email.com");
+        Lancamento mercado = criarLancamento(usuario, 2021, 1, "Mercado do bairro");
+        Lancamento aluguel = criarLancamento(usuario, 2021, 1, "Aluguel");
+        Lancamento mercadoDeFevereiro = criarLancamento(usuario, 2021, 2, "Mercado");
+        repository.saveAll(Arrays.asList(mercado, aluguel, mercadoDeFevereiro));
+
+        //execução e verificação
+        StepVerifier.create(reativoRepository.buscar(usuario.getId(), null, 1, "%mercado%").map(LancamentoVisao::getId))
+                .expectNext(mercado.getId())
+                .verifyComplete();
+    }
+
+    private Usuario salvarUsuario(String email) {
+        return usuarioRepository.save(Usuario.builder().nome("usuario").email(email).senha("senha").build());
+    }
+
+    private static Lancamento criarLancamento(Usuario usuario, int ano, int mes, String descricao) {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(usuario);
+        lancamento.setAno(ano);
+        lancamento.setMes(mes);
+        lancamento.setDescricao(descricao);
+        return lancamento;
+    }
+}
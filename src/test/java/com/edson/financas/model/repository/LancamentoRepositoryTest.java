@@ -1,8 +1,16 @@
 package com.edson.financas.model.repository;
 
+import java.util.Arrays;
 import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.entity.TrigramaDescricao;
+import com.edson.financas.model.entity.Usuario;
 import com.edson.financas.model.enums.StatusLancamento;
 import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.LancamentoVisao;
+import com.edson.financas.model.projection.SaldoCalculado;
+import com.edson.financas.model.projection.TotalPorStatus;
+import com.edson.financas.model.valor.Dinheiro;
 import org.assertj.core.api.Assertions;
 import org.checkerframework.checker.units.qual.A;
 import org.junit.jupiter.api.Test;
@@ -11,11 +19,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 @ExtendWith(SpringExtension.class)
@@ -78,6 +88,238 @@ public class LancamentoRepositoryTest {
         Assertions.assertThat(lancamentoEncontrado.isPresent()).isTrue();
     }
 
+    @Test
+    public void deveObterAVisaoDoLancamentoComOIdDoUsuario(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento lancamento = criarLancamento();
+        lancamento.setUsuario(usuario);
+        entityManager.persistAndFlush(lancamento);
+        entityManager.clear();
+
+        Optional<LancamentoVisao> visao = repository.obterVisao(lancamento.getId());
+        List<LancamentoVisao> visoes = repository.listarVisoes(usuario.getId(), 2021, null, PageRequest.of(0, 10));
+
+        Assertions.assertThat(visao.isPresent()).isTrue();
+        Assertions.assertThat(visao.get().getDescricao()).isEqualTo("lancamento qualquer");
+        Assertions.assertThat(visao.get().getUsuario()).isEqualTo(usuario.getId());
+        Assertions.assertThat(visoes).extracting(LancamentoVisao::getId).containsExactly(lancamento.getId());
+    }
+
+    @Test
+    public void deveCalcularOSaldoDoUsuarioPorTipo(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento receita = criarLancamento();
+        receita.setUsuario(usuario);
+        entityManager.persist(receita);
+        Lancamento despesa = criarLancamento();
+        despesa.setUsuario(usuario);
+        despesa.setTipo(TipoLancamento.DESPESA);
+        despesa.setValor(Dinheiro.de(4));
+        entityManager.persist(despesa);
+
+        Optional<SaldoCalculado> saldo = repository.calcularSaldoDoUsuario(usuario.getId());
+
+        Assertions.assertThat(saldo.isPresent()).isTrue();
+        Assertions.assertThat(saldo.get().getReceitas()).isEqualByComparingTo(Dinheiro.de(10));
+        Assertions.assertThat(saldo.get().getDespesas()).isEqualByComparingTo(Dinheiro.de(4));
+    }
+
+    @Test
+    public void deveTotalizarPorStatusComAsSomasDoMesEmUmaUnicaConsulta(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento receitaDoMes = criarLancamento();
+        receitaDoMes.setUsuario(usuario);
+        entityManager.persist(receitaDoMes);
+        Lancamento despesaDoMes = criarLancamento();
+        despesaDoMes.setUsuario(usuario);
+        despesaDoMes.setTipo(TipoLancamento.DESPESA);
+        despesaDoMes.setValor(Dinheiro.de(4));
+        despesaDoMes.setStatus(StatusLancamento.EFETIVADO);
+        entityManager.persist(despesaDoMes);
+        Lancamento receitaDeOutroMes = criarLancamento();
+        receitaDeOutroMes.setUsuario(usuario);
+        receitaDeOutroMes.setMes(2);
+        entityManager.persist(receitaDeOutroMes);
+
+        List<TotalPorStatus> totais = repository.totalizarPorStatus(usuario.getId(), 2021, 1);
+
+        Assertions.assertThat(totais).hasSize(2);
+        TotalPorStatus pendentes = totais.stream().filter(total -> total.getStatus() == StatusLancamento.PENDENTE)
+                                         .findFirst().get();
+        Assertions.assertThat(pendentes.getQuantidade()).isEqualTo(2l);
+        Assertions.assertThat(pendentes.getReceitas()).isEqualByComparingTo(Dinheiro.de(20));
+        Assertions.assertThat(pendentes.getReceitasMes()).isEqualByComparingTo(Dinheiro.de(10));
+        TotalPorStatus efetivados = totais.stream().filter(total -> total.getStatus() == StatusLancamento.EFETIVADO)
+                                          .findFirst().get();
+        Assertions.assertThat(efetivados.getQuantidade()).isEqualTo(1l);
+        Assertions.assertThat(efetivados.getDespesasMes()).isEqualByComparingTo(Dinheiro.de(4));
+    }
+
+    @Test
+    public void deveListarOsUltimosLancamentosDoMaisRecenteParaOMaisAntigo(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento janeiro = criarLancamento();
+        janeiro.setUsuario(usuario);
+        entityManager.persist(janeiro);
+        Lancamento marco = criarLancamento();
+        marco.setUsuario(usuario);
+        marco.setMes(3);
+        entityManager.persist(marco);
+        Lancamento fevereiro = criarLancamento();
+        fevereiro.setUsuario(usuario);
+        fevereiro.setMes(2);
+        entityManager.persist(fevereiro);
+
+        List<LancamentoVisao> ultimos = repository.listarUltimasVisoes(usuario.getId(), PageRequest.of(0, 2));
+
+        Assertions.assertThat(ultimos).extracting(LancamentoVisao::getId).containsExactly(marco.getId(), fevereiro.getId());
+    }
+
+    @Test
+    public void deveObterOEstadoPersistidoSemConsiderarAlteracoesPendentes(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento lancamento = criarLancamento();
+        lancamento.setUsuario(usuario);
+        entityManager.persistAndFlush(lancamento);
+
+        lancamento.setValor(Dinheiro.de(99));
+
+        Optional<LancamentoEstado> estado = repository.obterEstadoPersistido(lancamento.getId());
+
+        Assertions.assertThat(estado.isPresent()).isTrue();
+        Assertions.assertThat(estado.get().getValor()).isEqualByComparingTo(Dinheiro.de(10));
+        Assertions.assertThat(estado.get().getIdUsuario()).isEqualTo(usuario.getId());
+    }
+
+    @Test
+    public void deveBuscarOsLancamentosAposOCursorNaOrdemAnoMesId(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento marco = criarLancamento();
+        marco.setUsuario(usuario);
+        marco.setMes(3);
+        entityManager.persist(marco);
+        Lancamento janeiro = criarLancamento();
+        janeiro.setUsuario(usuario);
+        entityManager.persist(janeiro);
+        Lancamento fevereiro = criarLancamento();
+        fevereiro.setUsuario(usuario);
+        fevereiro.setMes(2);
+        entityManager.persist(fevereiro);
+
+        List<LancamentoVisao> primeiraPagina = repository.buscarAposCursor(usuario.getId(), null, null, null,
+                                                                           Integer.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE,
+                                                                           PageRequest.of(0, 2));
+        List<LancamentoVisao> segundaPagina = repository.buscarAposCursor(usuario.getId(), null, null, "%qualquer%",
+                                                                          2021, 2, fevereiro.getId(),
+                                                                          PageRequest.of(0, 2));
+
+        Assertions.assertThat(primeiraPagina).extracting(LancamentoVisao::getId).containsExactly(janeiro.getId(), fevereiro.getId());
+        Assertions.assertThat(segundaPagina).extracting(LancamentoVisao::getId).containsExactly(marco.getId());
+    }
+
+    @Test
+    public void deveTratarOsCuringasDigitadosComoTextoNaBuscaPorTrecho(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento percentual = criarLancamento();
+        percentual.setUsuario(usuario);
+        percentual.setDescricao("Desconto 50% Mercado");
+        entityManager.persist(percentual);
+        Lancamento semPercentual = criarLancamento();
+        semPercentual.setUsuario(usuario);
+        semPercentual.setDescricao("Desconto 500 Mercado");
+        entityManager.persist(semPercentual);
+
+        List<LancamentoVisao> encontrados = repository.buscarAposCursor(usuario.getId(), null, null,
+                                                                         LancamentoRepository.contendo("50%"),
+                                                                         Integer.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE,
+                                                                         PageRequest.of(0, 10));
+
+        Assertions.assertThat(LancamentoRepository.contendo("A_b\\%")).isEqualTo("%a\\_b\\\\\\%%");
+        Assertions.assertThat(encontrados).extracting(LancamentoVisao::getId).containsExactly(percentual.getId());
+    }
+
+    @Test
+    public void deveBuscarPelosTrigramasAposOCursorConferindoOTrecho(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento mercado = criarLancamento();
+        mercado.setUsuario(usuario);
+        mercado.setDescricao("Mercado");
+        entityManager.persist(mercado);
+        Lancamento falsoPositivo = criarLancamento();
+        falsoPositivo.setUsuario(usuario);
+        falsoPositivo.setDescricao("cado mer");
+        entityManager.persist(falsoPositivo);
+        for (Lancamento lancamento : Arrays.asList(mercado, falsoPositivo)) {
+            for (String trigrama : Arrays.asList("mer", "cad")) {
+                entityManager.persist(TrigramaDescricao.builder().idUsuario(usuario.getId()).idLancamento(lancamento.getId())
+                                                       .trigrama(trigrama).build());
+            }
+        }
+
+        List<LancamentoVisao> encontrados = repository.buscarPorTrigramasAposCursor(usuario.getId(), Arrays.asList("mer", "cad"), 2,
+                                                                                     LancamentoRepository.contendo("mercad"),
+                                                                                     null, null, Integer.MIN_VALUE,
+                                                                                     Integer.MIN_VALUE, Long.MIN_VALUE,
+                                                                                     PageRequest.of(0, 10));
+
+        Assertions.assertThat(encontrados).extracting(LancamentoVisao::getId).containsExactly(mercado.getId());
+    }
+
+    @Test
+    public void deveListarApenasOsLancamentosSemTrigramas(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento indexado = criarLancamento();
+        indexado.setUsuario(usuario);
+        entityManager.persist(indexado);
+        Lancamento pendente = criarLancamento();
+        pendente.setUsuario(usuario);
+        entityManager.persist(pendente);
+        entityManager.persist(TrigramaDescricao.builder().idUsuario(usuario.getId()).idLancamento(indexado.getId())
+                                               .trigrama("lan").build());
+
+        List<LancamentoEstado> pendentes = repository.listarEstadosSemTrigramasAposId(0L, PageRequest.of(0, 10));
+
+        Assertions.assertThat(pendentes).extracting(LancamentoEstado::getId).containsExactly(pendente.getId());
+    }
+
+    @Test
+    public void deveAtualizarOStatusEmLoteApenasDoUsuarioEDoFiltro(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Usuario outroUsuario = UsuarioRepositoryTest.criarUsuario();
+        outroUsuario.setEmail("outro@email.com");
+        entityManager.persist(outroUsuario);
+        Lancamento janeiro = criarLancamento();
+        janeiro.setUsuario(usuario);
+        entityManager.persist(janeiro);
+        Lancamento efetivado = criarLancamento();
+        efetivado.setUsuario(usuario);
+        efetivado.setStatus(StatusLancamento.EFETIVADO);
+        entityManager.persist(efetivado);
+        Lancamento fevereiro = criarLancamento();
+        fevereiro.setUsuario(usuario);
+        fevereiro.setMes(2);
+        entityManager.persist(fevereiro);
+        Lancamento deOutroUsuario = criarLancamento();
+        deOutroUsuario.setUsuario(outroUsuario);
+        entityManager.persist(deOutroUsuario);
+
+        List<LancamentoEstado> travados = repository.travarLote(usuario.getId(), 2021, 1, null, StatusLancamento.EFETIVADO);
+        int atualizados = repository.atualizarStatusDoLotePorIds(usuario.getId(),
+                                                                 Collections.singletonList(travados.get(0).getId()),
+                                                                 StatusLancamento.EFETIVADO);
+        int atualizadosPorId = repository.atualizarStatusDoLotePorIds(usuario.getId(),
+                                                                      Arrays.asList(fevereiro.getId(), deOutroUsuario.getId()),
+                                                                      StatusLancamento.CANCELADO);
+
+        Assertions.assertThat(atualizados).isEqualTo(1);
+        Assertions.assertThat(travados).extracting(LancamentoEstado::getId).containsExactly(janeiro.getId());
+        Assertions.assertThat(atualizadosPorId).isEqualTo(1);
+        Assertions.assertThat(entityManager.find(Lancamento.class, janeiro.getId()).getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+        Assertions.assertThat(entityManager.find(Lancamento.class, janeiro.getId()).getVersao()).isEqualTo(1l);
+        Assertions.assertThat(entityManager.find(Lancamento.class, fevereiro.getId()).getStatus()).isEqualTo(StatusLancamento.CANCELADO);
+        Assertions.assertThat(entityManager.find(Lancamento.class, deOutroUsuario.getId()).getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+    }
+
     private Lancamento criarLancamentoEPersistir() {
         Lancamento lancamento = criarLancamento();
         entityManager.persist(lancamento);
@@ -89,7 +331,7 @@ public class LancamentoRepositoryTest {
                 .ano(2021)
                 .mes(1)
                 .descricao("lancamento qualquer")
-                .valor(BigDecimal.valueOf(10))
+                .valor(Dinheiro.de(10))
                 .tipo(TipoLancamento.RECEITA)
                 .status(StatusLancamento.PENDENTE)
                 .dataCadastro(LocalDate.now())
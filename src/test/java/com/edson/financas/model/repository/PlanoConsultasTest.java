@@ -0,0 +1,133 @@
+package com.edson.financas.model.repository;
+
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import org.assertj.core.api.SoftAssertions;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Executa cada consulta do {@code LancamentoRepository} e do {@code UsuarioRepository} sobre o schema das migrações,
+ * captura o SQL gerado pelo Hibernate e confere o {@code EXPLAIN} do H2: toda tabela precisa ser lida por um índice
+ * com condição. Ficam fora as consultas que percorrem a tabela inteira de propósito: {@code calcularSaldos},
+ * {@code calcularResumos}, {@code listarTodasVisoes} e {@code listarVisoesDeTodosUsuarios}.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.edson.financas.model.repository.PlanoConsultasTest$RegistroSql")
+public class PlanoConsultasTest {
+
+    // "/* FINANCAS.LANCAMENTO.tableScan */" ou um índice sem condição; em subconsultas o H2 troca /* */ por /++ ++/
+    private static final Pattern LEITURA_SEM_INDICE = Pattern.compile("/(\\*|\\+\\+) [\\w.]+ (\\*|\\+\\+)/");
+
+    @Autowired
+    LancamentoRepository repository;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Test
+    public void deveUsarIndicesEmTodasAsConsultasDoLancamentoRepository(){
+        SoftAssertions verificacao = new SoftAssertions();
+        List<Long> ids = Arrays.asList(1l, 2l);
+
+        verificarPlano(verificacao, "calcularSaldoDoUsuario", () -> repository.calcularSaldoDoUsuario(1l));
+        verificarPlano(verificacao, "totalizarPorStatus", () -> repository.totalizarPorStatus(1l, 2021, 1));
+        verificarPlano(verificacao, "calcularResumo", () -> repository.calcularResumo(1l, 2021, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE));
+        verificarPlano(verificacao, "travarLote", () -> repository.travarLote(1l, 2021, 1, null, StatusLancamento.EFETIVADO));
+        verificarPlano(verificacao, "travarLotePorIds", () -> repository.travarLotePorIds(1l, ids, StatusLancamento.EFETIVADO));
+        verificarPlano(verificacao, "atualizarStatusDoLotePorIds", () -> repository.atualizarStatusDoLotePorIds(1l, ids, StatusLancamento.EFETIVADO));
+        verificarPlano(verificacao, "listarVisoes", () -> repository.listarVisoes(1l, 2021, 1, PageRequest.of(0, 1001)));
+        verificarPlano(verificacao, "listarUltimasVisoes", () -> repository.listarUltimasVisoes(1l, PageRequest.of(0, 10)));
+        verificarPlano(verificacao, "obterVisao", () -> repository.obterVisao(1l));
+        verificarPlano(verificacao, "buscarAposCursor", () -> repository.buscarAposCursor(1l, 2021, null, "%mercado%", 2021, 1, 0l, PageRequest.of(0, 50)));
+        verificarPlano(verificacao, "buscarPorTrigramas", () -> repository.buscarPorTrigramas(1l, Arrays.asList("mer", "erc"), 2, null, null));
+        verificarPlano(verificacao, "buscarPorTrigramasAposCursor", () -> repository.buscarPorTrigramasAposCursor(1l, Arrays.asList("mer", "erc"), 2, "%merc%", null, null, 2021, 1, 0l, PageRequest.of(0, 50)));
+        verificarPlano(verificacao, "buscarPorDescricao", () -> repository.buscarPorDescricao(1l, "%mercado%", 2021, null));
+        verificarPlano(verificacao, "listarEstadosAposId", () -> repository.listarEstadosAposId(0l, PageRequest.of(0, 1000)));
+        verificarPlano(verificacao, "listarEstadosDoUsuario", () -> repository.listarEstadosDoUsuario(1l));
+        verificarPlano(verificacao, "buscarHashesImportados", () -> repository.buscarHashesImportados(1l, Arrays.asList("a", "b")));
+        verificarPlano(verificacao, "buscarRecorrenciasGeradas", () -> repository.buscarRecorrenciasGeradas(ids, 2021, 1));
+        verificarPlano(verificacao, "percorrerPorUsuario", () -> repository.percorrerPorUsuario(1l).close());
+        verificarPlano(verificacao, "obterVersao", () -> repository.obterVersao(1l));
+        verificarPlano(verificacao, "obterEstadoPersistido", () -> repository.obterEstadoPersistido(1l));
+
+        verificacao.assertAll();
+    }
+
+    @Test
+    public void deveUsarIndicesEmTodasAsConsultasDoUsuarioRepository(){
+        SoftAssertions verificacao = new SoftAssertions();
+
+        verificarPlano(verificacao, "existsByEmail", () -> usuarioRepository.existsByEmail("usuario@email.com"));
+        verificarPlano(verificacao, "findByEmail", () -> usuarioRepository.findByEmail("usuario@email.com"));
+
+        verificacao.assertAll();
+    }
+
+    private void verificarPlano(SoftAssertions verificacao, String metodo, Runnable consulta){
+        RegistroSql.COMANDOS.clear();
+        consulta.run();
+        List<String> comandos = new ArrayList<>(RegistroSql.COMANDOS);
+
+        verificacao.assertThat(comandos).as("SQL de %s", metodo).isNotEmpty();
+        for (String comando : comandos) {
+            String plano = explicar(comando);
+            Matcher leitura = LEITURA_SEM_INDICE.matcher(plano);
+            verificacao.assertThat(leitura.find())
+                       .as("%s lê %s sem índice:%n%s", metodo, leitura.find(0) ? leitura.group() : "", plano)
+                       .isFalse();
+        }
+    }
+
+    private String explicar(String comando){
+        return entityManager.getEntityManager().unwrap(Session.class).doReturningWork(conexao -> {
+            try (PreparedStatement explain = conexao.prepareStatement("explain " + comando)) {
+                for (int i = 1; i <= explain.getParameterMetaData().getParameterCount(); i++) {
+                    explain.setNull(i, Types.NULL);
+                }
+                try (ResultSet resultado = explain.executeQuery()) {
+                    resultado.next();
+                    return resultado.getString(1);
+                }
+            }
+        });
+    }
+
+    public static class RegistroSql implements StatementInspector {
+
+        static final List<String> COMANDOS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            COMANDOS.add(sql);
+            return sql;
+        }
+    }
+}
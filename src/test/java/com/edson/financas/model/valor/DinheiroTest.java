@@ -0,0 +1,49 @@
+package com.edson.financas.model.valor;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+public class DinheiroTest {
+
+    @Test
+    public void deveLerValoresDecimaisEmCentavos(){
+        Assertions.assertThat(Dinheiro.de("12").getCentavos()).isEqualTo(1200l);
+        Assertions.assertThat(Dinheiro.de("12.5").getCentavos()).isEqualTo(1250l);
+        Assertions.assertThat(Dinheiro.de("-0.07").getCentavos()).isEqualTo(-7l);
+        Assertions.assertThat(Dinheiro.de("1.2e2").getCentavos()).isEqualTo(12000l);
+    }
+
+    @Test
+    public void deveArredondarFracoesDeCentavoComoOBanco(){
+        Assertions.assertThat(Dinheiro.de("0.125").getCentavos()).isEqualTo(13l);
+        Assertions.assertThat(Dinheiro.de("0.1249").getCentavos()).isEqualTo(12l);
+        Assertions.assertThat(Dinheiro.de(new BigDecimal("-0.125")).getCentavos()).isEqualTo(-13l);
+    }
+
+    @Test
+    public void deveRecusarTextoQueNaoSejaNumero(){
+        Assertions.assertThatThrownBy(() -> Dinheiro.de("12,50")).isInstanceOf(NumberFormatException.class);
+        Assertions.assertThatThrownBy(() -> Dinheiro.de(".")).isInstanceOf(NumberFormatException.class);
+        Assertions.assertThatThrownBy(() -> Dinheiro.de("")).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    public void deveEscreverComDuasCasasDecimais(){
+        Assertions.assertThat(Dinheiro.deCentavos(350000).toString()).isEqualTo("3500.00");
+        Assertions.assertThat(Dinheiro.deCentavos(-5).toString()).isEqualTo("-0.05");
+        Assertions.assertThat(Dinheiro.deCentavos(Long.MIN_VALUE).toString()).isEqualTo("-92233720368547758.08");
+        Assertions.assertThat(Dinheiro.deCentavos(120050).toBigDecimal()).isEqualTo(new BigDecimal("1200.50"));
+    }
+
+    @Test
+    public void deveLancarErroQuandoAOperacaoEstoura(){
+        Dinheiro maximo = Dinheiro.deCentavos(Long.MAX_VALUE);
+
+        Assertions.assertThatThrownBy(() -> maximo.somar(Dinheiro.deCentavos(1))).isInstanceOf(ArithmeticException.class);
+        Assertions.assertThatThrownBy(() -> Dinheiro.deCentavos(Long.MIN_VALUE).negar()).isInstanceOf(ArithmeticException.class);
+        Assertions.assertThatThrownBy(() -> Dinheiro.de("92233720368547758.08")).isInstanceOf(ArithmeticException.class);
+        Assertions.assertThatThrownBy(() -> Dinheiro.de(Long.MAX_VALUE)).isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,168 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.enums.AgrupamentoAnalise;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.ResumoCalculado;
+import com.edson.financas.model.projection.TotalAnalitico;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.StatusLancamentosAlteradoEvent;
+import com.edson.financas.service.impl.AnaliseServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class AnaliseServiceTest {
+
+    @SpyBean
+    AnaliseServiceImpl service;
+
+    @MockBean
+    LancamentoRepository repository;
+
+    @BeforeEach
+    public void setUp(){
+        service.iniciarCache();
+    }
+
+    @Test
+    public void deveCarregarOsLancamentosUmaVezEAgruparPorMes(){
+        //cenário
+        Mockito.when(repository.listarEstadosDoUsuario(1l)).thenReturn(Arrays.asList(
+                criarEstado(1l, 2020, 12, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "10.50"),
+                criarEstado(2l, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, "20.25"),
+                criarEstado(3l, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "4.25"),
+                criarEstado(4l, 2021, 3, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, "100")));
+
+        //execução
+        List<TotalAnalitico> despesas = service.agrupar(1l, AgrupamentoAnalise.MES, null, null, TipoLancamento.DESPESA, null);
+        TotalAnalitico pendentes = service.totalizar(1l, 2021, null, null, StatusLancamento.PENDENTE);
+
+        //verificação
+        Assertions.assertThat(despesas).containsExactly(
+                new TotalAnalitico(2020, 12, TipoLancamento.DESPESA, null, Dinheiro.de("10.50"), 1l),
+                new TotalAnalitico(2021, 1, TipoLancamento.DESPESA, null, Dinheiro.de("24.50"), 2l));
+        Assertions.assertThat(pendentes.getTotal()).isEqualByComparingTo(Dinheiro.de("104.25"));
+        Assertions.assertThat(pendentes.getQuantidade()).isEqualTo(2l);
+        Mockito.verify(repository, Mockito.times(1)).listarEstadosDoUsuario(1l);
+    }
+
+    @Test
+    public void deveAgruparPorTipoEStatus(){
+        //cenário
+        Mockito.when(repository.listarEstadosDoUsuario(1l)).thenReturn(Arrays.asList(
+                criarEstado(1l, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "10"),
+                criarEstado(2l, 2021, 1, TipoLancamento.RECEITA, null, "30"),
+                criarEstado(3l, 2021, 2, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, "5")));
+
+        //execução
+        List<TotalAnalitico> porTipo = service.agrupar(1l, AgrupamentoAnalise.TIPO, 2021, 1, null, null);
+        List<TotalAnalitico> porStatus = service.agrupar(1l, AgrupamentoAnalise.STATUS, null, null, null, null);
+
+        //verificação
+        Assertions.assertThat(porTipo).extracting(TotalAnalitico::getTipo)
+                  .containsExactly(TipoLancamento.RECEITA, TipoLancamento.DESPESA);
+        Assertions.assertThat(porTipo.get(0).getTotal()).isEqualByComparingTo(Dinheiro.de("30"));
+        Assertions.assertThat(porStatus).extracting(TotalAnalitico::getStatus)
+                  .containsExactly(StatusLancamento.PENDENTE, null);
+        Assertions.assertThat(porStatus.get(0).getTotal()).isEqualByComparingTo(Dinheiro.de("15"));
+    }
+
+    @Test
+    public void deveRecarregarAsColunasAposAlterarUmLancamento(){
+        //cenário
+        LancamentoEstado original = criarEstado(1l, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "10");
+        LancamentoEstado efetivado = criarEstado(1l, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, "12");
+        Mockito.when(repository.listarEstadosDoUsuario(1l)).thenReturn(Collections.singletonList(original),
+                                                                      Collections.singletonList(efetivado),
+                                                                      Collections.emptyList());
+        service.totalizar(1l, null, null, null, null);
+
+        //execução
+        service.aoAlterarLancamento(new LancamentoAlteradoEvent(original, efetivado));
+        TotalAnalitico efetivados = service.totalizar(1l, null, null, null, StatusLancamento.EFETIVADO);
+        service.totalizar(1l, null, null, null, null);
+        service.aoAlterarLancamento(new LancamentoAlteradoEvent(efetivado, null));
+        TotalAnalitico total = service.totalizar(1l, null, null, null, null);
+
+        //verificação
+        Assertions.assertThat(efetivados.getTotal()).isEqualByComparingTo(Dinheiro.de("12"));
+        Assertions.assertThat(total.getQuantidade()).isEqualTo(0l);
+        Mockito.verify(repository, Mockito.times(3)).listarEstadosDoUsuario(1l);
+    }
+
+    @Test
+    public void naoDeveGuardarUmEstadoAntigoQuandoOsEventosChegamForaDeOrdem(){
+        //cenário
+        LancamentoEstado primeiro = criarEstado(1l, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "10");
+        LancamentoEstado segundo = criarEstado(1l, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "20");
+        LancamentoEstado terceiro = criarEstado(1l, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "30");
+        Mockito.when(repository.listarEstadosDoUsuario(1l)).thenReturn(Collections.singletonList(terceiro));
+
+        //execução
+        service.aoAlterarLancamento(new LancamentoAlteradoEvent(segundo, terceiro));
+        service.totalizar(1l, null, null, null, null);
+        service.aoAlterarLancamento(new LancamentoAlteradoEvent(primeiro, segundo));
+        TotalAnalitico total = service.totalizar(1l, null, null, null, null);
+
+        //verificação
+        Assertions.assertThat(total.getTotal()).isEqualByComparingTo(Dinheiro.de("30"));
+    }
+
+    @Test
+    public void deveRecarregarAsColunasAposAlteracaoDeStatusEmLote(){
+        //cenário
+        Mockito.when(repository.listarEstadosDoUsuario(1l)).thenReturn(
+                Collections.singletonList(criarEstado(1l, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "10")),
+                Collections.singletonList(criarEstado(1l, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.CANCELADO, "10")));
+        service.totalizar(1l, null, null, null, null);
+
+        //execução
+        ResumoCalculado anterior = new ResumoCalculado(1l, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE,
+                                                       Dinheiro.de(10), 1l);
+        service.aoAlterarStatus(new StatusLancamentosAlteradoEvent(Collections.singletonList(anterior),
+                                                                   StatusLancamento.CANCELADO));
+        TotalAnalitico cancelados = service.totalizar(1l, null, null, null, StatusLancamento.CANCELADO);
+
+        //verificação
+        Assertions.assertThat(cancelados.getQuantidade()).isEqualTo(1l);
+        Mockito.verify(repository, Mockito.times(2)).listarEstadosDoUsuario(1l);
+    }
+
+    @Test
+    public void naoDeveGuardarColunasCarregadasDuranteUmaEscrita(){
+        //cenário
+        LancamentoEstado lancamento = criarEstado(1l, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "10");
+        Mockito.when(repository.listarEstadosDoUsuario(1l)).thenAnswer(invocacao -> {
+            service.aoAlterarLancamento(new LancamentoAlteradoEvent(null, lancamento));
+            return Collections.emptyList();
+        });
+
+        //execução
+        service.totalizar(1l, null, null, null, null);
+        service.totalizar(1l, null, null, null, null);
+
+        //verificação
+        Mockito.verify(repository, Mockito.times(2)).listarEstadosDoUsuario(1l);
+    }
+
+    private static LancamentoEstado criarEstado(Long id, int ano, int mes, TipoLancamento tipo, StatusLancamento status,
+                                                String valor) {
+        return new LancamentoEstado(id, 1l, "lancamento", ano, mes, tipo, status, Dinheiro.de(valor));
+    }
+}
@@ -0,0 +1,88 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.enums.FormatoExportacao;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.impl.ExportacaoServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ExportacaoServiceTest {
+
+    @SpyBean
+    ExportacaoServiceImpl service;
+
+    @MockBean
+    LancamentoRepository repository;
+
+    @MockBean
+    EntityManager entityManager;
+
+    @Test
+    public void deveExportarOsLancamentosEmCsv() throws IOException {
+        //cenário
+        Lancamento salario = criarLancamento(1l, "Salario", TipoLancamento.RECEITA, Dinheiro.de(3500));
+        Lancamento aluguel = criarLancamento(2l, "Aluguel; casa", TipoLancamento.DESPESA, Dinheiro.de("1200.50"));
+        Mockito.when(repository.percorrerPorUsuario(1l)).thenReturn(Stream.of(salario, aluguel));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        //execução
+        service.exportar(1l, FormatoExportacao.CSV, saida);
+
+        //verificação
+        Assertions.assertThat(saida.toString(StandardCharsets.UTF_8.name())).isEqualTo(
+                "id;data;descricao;valor;tipo;status\n"
+               +"1;2021-03-01;Salario;3500.00;RECEITA;PENDENTE\n"
+               +"2;2021-03-01;\"Aluguel; casa\";-1200.50;DESPESA;PENDENTE\n");
+        Mockito.verify(entityManager).detach(salario);
+        Mockito.verify(entityManager).detach(aluguel);
+    }
+
+    @Test
+    public void deveExportarOsLancamentosEmNdjson() throws IOException {
+        //cenário
+        Lancamento salario = criarLancamento(1l, "Salario", TipoLancamento.RECEITA, Dinheiro.de(3500));
+        Lancamento aluguel = criarLancamento(2l, "Aluguel", TipoLancamento.DESPESA, Dinheiro.de(1200));
+        Mockito.when(repository.percorrerPorUsuario(1l)).thenReturn(Stream.of(salario, aluguel));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        //execução
+        service.exportar(1l, FormatoExportacao.NDJSON, saida);
+
+        //verificação
+        Assertions.assertThat(saida.toString(StandardCharsets.UTF_8.name())).isEqualTo(
+                "{\"id\":1,\"descricao\":\"Salario\",\"mes\":3,\"ano\":2021,\"valor\":3500.00,"
+               +"\"tipo\":\"RECEITA\",\"status\":\"PENDENTE\",\"dataCadastro\":null}\n"
+               +"{\"id\":2,\"descricao\":\"Aluguel\",\"mes\":3,\"ano\":2021,\"valor\":1200.00,"
+               +"\"tipo\":\"DESPESA\",\"status\":\"PENDENTE\",\"dataCadastro\":null}\n");
+    }
+
+    private static Lancamento criarLancamento(Long id, String descricao, TipoLancamento tipo, Dinheiro valor) {
+        return Lancamento.builder()
+                         .id(id)
+                         .descricao(descricao)
+                         .ano(2021)
+                         .mes(3)
+                         .valor(valor)
+                         .tipo(tipo)
+                         .status(StatusLancamento.PENDENTE)
+                         .build();
+    }
+}
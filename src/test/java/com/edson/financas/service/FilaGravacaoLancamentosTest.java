@@ -0,0 +1,154 @@
+package com.edson.financas.service;
+
+import com.edson.financas.exception.GravacaoIndisponivelException;
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.repository.LancamentoRepositoryTest;
+import com.edson.financas.service.impl.FilaGravacaoLancamentos;
+import com.edson.financas.service.impl.GravacaoLancamentos;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"financas.gravacao-agrupada.intervalo-ms=200",
+                                  "financas.gravacao-agrupada.tamanho-lote=3",
+                                  "financas.gravacao-agrupada.timeout-ms=1000"})
+public class FilaGravacaoLancamentosTest {
+
+    @SpyBean
+    FilaGravacaoLancamentos fila;
+
+    @MockBean
+    GravacaoLancamentos gravacao;
+
+    @Test
+    public void deveGravarAsInclusoesSimultaneasNumUnicoLote() throws Exception {
+        //cenário
+        AtomicLong ids = new AtomicLong();
+        Mockito.when(gravacao.inserir(Mockito.anyList())).thenAnswer(invocacao -> {
+            List<Lancamento> lancamentos = invocacao.getArgument(0);
+            lancamentos.forEach(lancamento -> lancamento.setId(ids.incrementAndGet()));
+            return lancamentos;
+        });
+
+        //execução
+        List<Lancamento> salvos = gravarSimultaneamente(LancamentoRepositoryTest.criarLancamento(),
+                                                        LancamentoRepositoryTest.criarLancamento(),
+                                                        LancamentoRepositoryTest.criarLancamento());
+
+        //verificação
+        Assertions.assertThat(salvos).extracting(Lancamento::getId).containsExactlyInAnyOrder(1l, 2l, 3l);
+        Mockito.verify(gravacao, Mockito.times(1)).inserir(Mockito.anyList());
+    }
+
+    @Test
+    public void deveGravarUmAUmQuandoOLoteFalhaEEntregarOErroSoAoRecusado() throws Exception {
+        //cenário
+        Lancamento aceito = LancamentoRepositoryTest.criarLancamento();
+        Lancamento recusado = LancamentoRepositoryTest.criarLancamento();
+        recusado.setDescricao("recusado");
+        Mockito.when(gravacao.inserir(Mockito.anyList())).thenAnswer(invocacao -> {
+            List<Lancamento> lancamentos = invocacao.getArgument(0);
+            if (lancamentos.stream().anyMatch(lancamento -> "recusado".equals(lancamento.getDescricao()))) {
+                throw new DataIntegrityViolationException("recusado");
+            }
+            lancamentos.forEach(lancamento -> lancamento.setId(1l));
+            return lancamentos;
+        });
+
+        //execução
+        ExecutorService chamadores = Executors.newFixedThreadPool(2);
+        Future<Lancamento> resultadoAceito = chamadores.submit(() -> fila.gravar(aceito));
+        Future<Lancamento> resultadoRecusado = chamadores.submit(() -> fila.gravar(recusado));
+        chamadores.shutdown();
+
+        //verificação
+        Assertions.assertThat(resultadoAceito.get().getId()).isEqualTo(1l);
+        Assertions.assertThatThrownBy(resultadoRecusado::get)
+                  .isInstanceOf(ExecutionException.class)
+                  .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        Mockito.verify(gravacao).inserir(ArgumentMatchers.argThat(lancamentos -> lancamentos.size() == 2));
+        Mockito.verify(gravacao, Mockito.times(2)).inserir(ArgumentMatchers.argThat(lancamentos -> lancamentos.size() == 1));
+    }
+
+    @Test
+    public void deveContinuarGravandoDepoisDeUmErroGraveNoLote() throws Exception {
+        //cenário
+        Mockito.when(gravacao.inserir(Mockito.anyList()))
+               .thenThrow(new StackOverflowError())
+               .thenAnswer(invocacao -> {
+                   List<Lancamento> lancamentos = invocacao.getArgument(0);
+                   lancamentos.forEach(lancamento -> lancamento.setId(2l));
+                   return lancamentos;
+               });
+
+        //execução
+        Throwable erro = Assertions.catchThrowable(() -> fila.gravar(LancamentoRepositoryTest.criarLancamento()));
+        Lancamento salvo = fila.gravar(LancamentoRepositoryTest.criarLancamento());
+
+        //verificação
+        Assertions.assertThat(erro).isInstanceOf(IllegalStateException.class).hasCauseInstanceOf(StackOverflowError.class);
+        Assertions.assertThat(salvo.getId()).isEqualTo(2l);
+    }
+
+    @Test
+    public void deveRecusarComIndisponibilidadeQuandoAGravacaoPassaDoPrazo() throws Exception {
+        //cenário
+        CountDownLatch emGravacao = new CountDownLatch(1);
+        CountDownLatch liberacao = new CountDownLatch(1);
+        Mockito.when(gravacao.inserir(Mockito.anyList())).thenAnswer(invocacao -> {
+            emGravacao.countDown();
+            liberacao.await();
+            return invocacao.getArgument(0);
+        });
+        ExecutorService chamadores = Executors.newSingleThreadExecutor();
+        Future<Lancamento> emAndamento = chamadores.submit(() -> fila.gravar(LancamentoRepositoryTest.criarLancamento()));
+        emGravacao.await();
+
+        //execução
+        Throwable naFila = Assertions.catchThrowable(() -> fila.gravar(LancamentoRepositoryTest.criarLancamento()));
+        Throwable gravando = Assertions.catchThrowable(emAndamento::get);
+        liberacao.countDown();
+        chamadores.shutdown();
+
+        //verificação
+        Assertions.assertThat(naFila).isInstanceOf(GravacaoIndisponivelException.class)
+                  .hasMessageStartingWith("Muitas gravações simultâneas");
+        Assertions.assertThat(gravando).hasCauseInstanceOf(GravacaoIndisponivelException.class)
+                  .hasMessageContaining("ainda pode ser concluída");
+        Mockito.verify(gravacao, Mockito.after(500).times(1)).inserir(Mockito.anyList());
+    }
+
+    private List<Lancamento> gravarSimultaneamente(Lancamento... lancamentos) throws Exception {
+        ExecutorService chamadores = Executors.newFixedThreadPool(lancamentos.length);
+        List<Future<Lancamento>> resultados = new ArrayList<>();
+        for (Lancamento lancamento : lancamentos) {
+            resultados.add(chamadores.submit(() -> fila.gravar(lancamento)));
+        }
+        chamadores.shutdown();
+
+        List<Lancamento> salvos = new ArrayList<>();
+        for (Future<Lancamento> resultado : resultados) {
+            salvos.add(resultado.get());
+        }
+        return salvos;
+    }
+}
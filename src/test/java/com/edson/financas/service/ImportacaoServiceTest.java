@@ -0,0 +1,210 @@
+package com.edson.financas.service;
+
+import com.edson.financas.exception.RegraNegocioException;
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.enums.FormatoExtrato;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.importacao.ResultadoImportacao;
+import com.edson.financas.service.impl.ImportacaoServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "financas.importacao.maximo-linhas=3")
+public class ImportacaoServiceTest {
+
+    @SpyBean
+    ImportacaoServiceImpl service;
+
+    @MockBean
+    LancamentoService lancamentoService;
+
+    @MockBean
+    LancamentoRepository repository;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    @MockBean
+    EntityManager entityManager;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deveImportarUmExtratoCsv(){
+        //cenário
+        Usuario usuario = Usuario.builder().id(1l).build();
+        Mockito.when(repository.buscarHashesImportados(Mockito.eq(1l), Mockito.anyCollection())).thenReturn(Collections.emptySet());
+
+        //execução
+        ResultadoImportacao resultado = service.importar(usuario, FormatoExtrato.CSV, arquivo(
+                "data;descricao;valor\n"
+               +"05/01/2021;Salario;3.500,00\n"
+               +"2021-01-10;Mercado;-250,40\n"));
+
+        //verificação
+        ArgumentCaptor<List<Lancamento>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(lancamentoService).salvarTodos(captor.capture());
+
+        List<Lancamento> lancamentos = captor.getValue();
+        Assertions.assertThat(lancamentos).hasSize(2);
+        Assertions.assertThat(lancamentos.get(0).getTipo()).isEqualTo(TipoLancamento.RECEITA);
+        Assertions.assertThat(lancamentos.get(0).getValor()).isEqualByComparingTo(Dinheiro.de(3500));
+        Assertions.assertThat(lancamentos.get(1).getTipo()).isEqualTo(TipoLancamento.DESPESA);
+        Assertions.assertThat(lancamentos.get(1).getValor()).isEqualByComparingTo(Dinheiro.de("250.40"));
+        Assertions.assertThat(lancamentos.get(1).getMes()).isEqualTo(1);
+        Assertions.assertThat(resultado.getLidas()).isEqualTo(2);
+        Assertions.assertThat(resultado.getImportadas()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deveIgnorarLancamentosJaImportados(){
+        //cenário
+        Usuario usuario = Usuario.builder().id(1l).build();
+        String extrato = "<OFX><BANKTRANLIST>\n"
+                        +"<STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20210115120000<TRNAMT>-12.50<FITID>A1<MEMO>Padaria</STMTTRN>\n"
+                        +"<STMTTRN>\n<DTPOSTED>20210116\n<TRNAMT>-7.00\n<FITID>A2\n<MEMO>Cafe\n</STMTTRN>\n"
+                        +"</BANKTRANLIST></OFX>";
+
+        ArgumentCaptor<List<Lancamento>> captor = ArgumentCaptor.forClass(List.class);
+        service.importar(usuario, FormatoExtrato.OFX, arquivo(extrato));
+        Mockito.verify(lancamentoService).salvarTodos(captor.capture());
+        String hashJaImportado = captor.getValue().get(0).getHashImportacao();
+
+        Mockito.reset(lancamentoService);
+        Mockito.when(repository.buscarHashesImportados(Mockito.eq(1l), Mockito.anyCollection()))
+               .thenReturn(new HashSet<>(Collections.singletonList(hashJaImportado)));
+
+        //execução
+        ResultadoImportacao resultado = service.importar(usuario, FormatoExtrato.OFX, arquivo(extrato));
+
+        //verificação
+        Mockito.verify(lancamentoService).salvarTodos(captor.capture());
+        Assertions.assertThat(captor.getValue()).hasSize(1);
+        Assertions.assertThat(captor.getValue().get(0).getDescricao()).isEqualTo("Cafe");
+        Assertions.assertThat(resultado.getImportadas()).isEqualTo(1);
+        Assertions.assertThat(resultado.getDuplicadas()).isEqualTo(1);
+    }
+
+    @Test
+    public void deveReportarAsLinhasRejeitadas(){
+        //cenário
+        Usuario usuario = Usuario.builder().id(1l).build();
+        Mockito.when(repository.buscarHashesImportados(Mockito.eq(1l), Mockito.anyCollection())).thenReturn(Collections.emptySet());
+        Mockito.doThrow(new RegraNegocioException("Informe uma Descrição válida."))
+               .when(lancamentoService).validar(Mockito.argThat(lancamento -> lancamento.getDescricao().isEmpty()));
+
+        //execução
+        ResultadoImportacao resultado = service.importar(usuario, FormatoExtrato.CSV, arquivo(
+                "data,descricao,valor\n"
+               +"2021-01-05,Salario,100\n"
+               +"data invalida,Mercado,-10\n"
+               +"2021-01-07,,-10\n"));
+
+        //verificação
+        Assertions.assertThat(resultado.getLidas()).isEqualTo(3);
+        Assertions.assertThat(resultado.getImportadas()).isEqualTo(1);
+        Assertions.assertThat(resultado.getRejeitadas()).isEqualTo(2);
+        Assertions.assertThat(resultado.getErros()).extracting(ResultadoImportacao.ErroImportacao::getLinha).containsExactly(3l, 4l);
+    }
+
+    @Test
+    public void deveLancarErroQuandoOCabecalhoDoCsvForInvalido(){
+        //cenário
+        Usuario usuario = Usuario.builder().id(1l).build();
+
+        //execução e verificação
+        Throwable erro = Assertions.catchThrowable(() -> service.importar(usuario, FormatoExtrato.CSV, arquivo("a;b;c\n1;2;3\n")));
+        Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class);
+        Mockito.verify(lancamentoService, Mockito.never()).salvarTodos(Mockito.any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deveLerCamposEntreAspasNoCsv(){
+        //cenário
+        Usuario usuario = Usuario.builder().id(1l).build();
+        Mockito.when(repository.buscarHashesImportados(Mockito.eq(1l), Mockito.anyCollection())).thenReturn(Collections.emptySet());
+
+        //execução
+        ResultadoImportacao resultado = service.importar(usuario, FormatoExtrato.CSV, arquivo(
+                "data,descricao,valor\n"
+               +"2021-01-05,\"Mercado, padaria\",\"-1.250,40\"\n"
+               +"2021-01-06,\"Loja \"\"Central\"\"\nfilial 2\",-10\n"));
+
+        //verificação
+        ArgumentCaptor<List<Lancamento>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(lancamentoService).salvarTodos(captor.capture());
+        Assertions.assertThat(captor.getValue()).extracting(Lancamento::getDescricao)
+                  .containsExactly("Mercado, padaria", "Loja \"Central\"\nfilial 2");
+        Assertions.assertThat(captor.getValue().get(0).getValor()).isEqualByComparingTo(Dinheiro.de("1250.40"));
+        Assertions.assertThat(resultado.getImportadas()).isEqualTo(2);
+    }
+
+    @Test
+    public void deveInterromperAImportacaoQuandoOExtratoPassarDoLimiteDeLinhas(){
+        //cenário
+        Usuario usuario = Usuario.builder().id(1l).build();
+        Mockito.when(repository.buscarHashesImportados(Mockito.eq(1l), Mockito.anyCollection())).thenReturn(Collections.emptySet());
+
+        //execução
+        ResultadoImportacao resultado = service.importar(usuario, FormatoExtrato.CSV, arquivo(
+                "data,descricao,valor\n"
+               +"2021-01-05,Padaria,-1\n"
+               +"2021-01-05,Padaria,-1\n"
+               +"2021-01-05,Padaria,-1\n"
+               +"2021-01-05,Padaria,-1\n"
+               +"2021-01-05,Padaria,-1\n"));
+
+        //verificação
+        Assertions.assertThat(resultado.getLidas()).isEqualTo(3);
+        Assertions.assertThat(resultado.getImportadas()).isEqualTo(3);
+        Assertions.assertThat(resultado.getErros()).extracting(ResultadoImportacao.ErroImportacao::getLinha).containsExactly(5l);
+    }
+
+    @Test
+    public void naoDeveExporOErroDoBancoAoRejeitarUmLote(){
+        //cenário
+        Usuario usuario = Usuario.builder().id(1l).build();
+        Mockito.when(repository.buscarHashesImportados(Mockito.eq(1l), Mockito.anyCollection())).thenReturn(Collections.emptySet());
+        Mockito.when(lancamentoService.salvarTodos(Mockito.anyList()))
+               .thenThrow(new DataIntegrityViolationException("could not execute statement; constraint [uq_lancamento_usuario_hash]"));
+
+        //execução
+        ResultadoImportacao resultado = service.importar(usuario, FormatoExtrato.CSV, arquivo(
+                "data,descricao,valor\n"
+               +"2021-01-05,Padaria,-1\n"));
+
+        //verificação
+        Assertions.assertThat(resultado.getRejeitadas()).isEqualTo(1);
+        Assertions.assertThat(resultado.getErros().get(0).getMensagem())
+                  .startsWith("Lote não gravado: outra importação")
+                  .doesNotContain("uq_lancamento_usuario_hash");
+    }
+
+    private InputStream arquivo(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,143 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.entity.TrigramaDescricao;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.CursorLancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.LancamentoVisao;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.repository.LancamentoRepositoryTest;
+import com.edson.financas.model.repository.TrigramaDescricaoRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.impl.IndiceDescricaoTrigrama;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class IndiceDescricaoTrigramaTest {
+
+    @SpyBean
+    IndiceDescricaoTrigrama indice;
+
+    @MockBean
+    TrigramaDescricaoRepository repository;
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @Test
+    public void deveBuscarPelosTrigramasEDescartarFalsosPositivos(){
+        //cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setDescricao("Aluguel Apartamento");
+        LancamentoVisao aluguel = LancamentoVisao.of(lancamento);
+        lancamento.setDescricao("guel alu");
+        LancamentoVisao falsoPositivo = LancamentoVisao.of(lancamento);
+
+        Mockito.when(lancamentoRepository.buscarPorTrigramas(Mockito.eq(1l), Mockito.anyCollection(), Mockito.eq(5l),
+                                                             Mockito.isNull(), Mockito.isNull()))
+               .thenReturn(Arrays.asList(aluguel, falsoPositivo));
+
+        //execução
+        List<LancamentoVisao> resultado = indice.buscar(1l, "ALUGUEL", null, null);
+
+        //verificação
+        Assertions.assertThat(resultado).containsExactly(aluguel);
+    }
+
+    @Test
+    public void deveUsarABuscaPorDescricaoQuandoOTermoForMenorQueUmTrigrama(){
+        //execução
+        indice.buscar(1l, "Al", 2021, 1);
+
+        //verificação
+        Mockito.verify(lancamentoRepository).buscarPorDescricao(1l, "%al%", 2021, 1);
+        Mockito.verify(lancamentoRepository, Mockito.never())
+               .buscarPorTrigramas(Mockito.any(), Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void deveEscaparOsCuringasDoTermoCurto(){
+        //execução
+        indice.buscar(1l, "5%", null, null);
+
+        //verificação
+        Mockito.verify(lancamentoRepository).buscarPorDescricao(1l, "%5\\%%", null, null);
+    }
+
+    @Test
+    public void deveBuscarAPaginaPelosTrigramasComOTrechoEscapado(){
+        //execução
+        indice.buscarAposCursor(1l, " Mercado_ ", 2021, null, CursorLancamento.INICIO, 51);
+
+        //verificação
+        Mockito.verify(lancamentoRepository).buscarPorTrigramasAposCursor(Mockito.eq(1l), Mockito.anyCollection(), Mockito.eq(6l),
+                                                                          Mockito.eq("%mercado\\_%"), Mockito.eq(2021), Mockito.isNull(),
+                                                                          Mockito.eq(Integer.MIN_VALUE), Mockito.eq(Integer.MIN_VALUE),
+                                                                          Mockito.eq(Long.MIN_VALUE), Mockito.eq(PageRequest.of(0, 51)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deveReindexarQuandoADescricaoMudar(){
+        //cenário
+        LancamentoEstado anterior = criarEstado("luz");
+        LancamentoEstado atual = criarEstado("agua");
+
+        //execução
+        indice.aoAlterarLancamento(new LancamentoAlteradoEvent(anterior, atual));
+
+        //verificação
+        ArgumentCaptor<Collection<TrigramaDescricao>> captor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(repository).excluirPorLancamento(1l);
+        Mockito.verify(repository).saveAll(captor.capture());
+        Assertions.assertThat(captor.getValue().stream().map(TrigramaDescricao::getTrigrama).collect(Collectors.toList()))
+                  .containsExactly("agu", "gua");
+    }
+
+    @Test
+    public void naoDeveReindexarQuandoADescricaoNaoMudar(){
+        //execução
+        indice.aoAlterarLancamento(new LancamentoAlteradoEvent(criarEstado("luz"), criarEstado("luz")));
+
+        //verificação
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void deveIndexarOsPendentesEDevolverOUltimoIdDoLote(){
+        //cenário
+        Mockito.when(lancamentoRepository.listarEstadosSemTrigramasAposId(Mockito.eq(0L), Mockito.any()))
+               .thenReturn(Arrays.asList(criarEstado("luz")));
+
+        //execução
+        Long ultimoId = indice.indexarPendentes(0L);
+        Long semPendentes = indice.indexarPendentes(ultimoId);
+
+        //verificação
+        Assertions.assertThat(ultimoId).isEqualTo(1l);
+        Assertions.assertThat(semPendentes).isNull();
+        Mockito.verify(repository).saveAll(Mockito.anyCollection());
+    }
+
+    private LancamentoEstado criarEstado(String descricao) {
+        return new LancamentoEstado(1l, 1l, descricao, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, Dinheiro.de(10));
+    }
+}
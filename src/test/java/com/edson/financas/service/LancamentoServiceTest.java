@@ -4,26 +4,45 @@ import com.edson.financas.exception.RegraNegocioException;
 import com.edson.financas.model.entity.Lancamento;
 import com.edson.financas.model.entity.Usuario;
 import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.CursorLancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.LancamentoVisao;
+import com.edson.financas.model.projection.PaginaLancamentos;
+import com.edson.financas.model.projection.PainelUsuario;
+import com.edson.financas.model.projection.ResumoCalculado;
+import com.edson.financas.model.projection.TotalPorStatus;
 import com.edson.financas.model.repository.LancamentoRepository;
 import com.edson.financas.model.repository.LancamentoRepositoryTest;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.impl.GravacaoLancamentos;
+import com.edson.financas.service.event.StatusLancamentosAlteradoEvent;
 import com.edson.financas.service.impl.LancamentoServiceImpl;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
-import org.springframework.data.domain.Example;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
-import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("teste")
+@RecordApplicationEvents
+@TestPropertySource(properties = "financas.lancamento.busca.maximo=2")
 public class LancamentoServiceTest {
 
     @SpyBean
@@ -32,6 +51,18 @@ public class LancamentoServiceTest {
     @MockBean
     LancamentoRepository repository;
 
+    @MockBean
+    SaldoService saldoService;
+
+    @MockBean
+    IndiceDescricao indiceDescricao;
+
+    @SpyBean
+    GravacaoLancamentos gravacao;
+
+    @Autowired
+    ApplicationEvents eventos;
+
     @Test
     public void deveSalvarUmLancamento(){
         //cenário
@@ -64,6 +95,24 @@ public class LancamentoServiceTest {
 
     }
 
+    @Test
+    public void deveSalvarVariosLancamentosComoPendentes(){
+        //cenário
+        Lancamento primeiro = LancamentoRepositoryTest.criarLancamento();
+        Lancamento segundo = LancamentoRepositoryTest.criarLancamento();
+        segundo.setStatus(StatusLancamento.EFETIVADO);
+        Mockito.doNothing().when(service).validar(Mockito.any(Lancamento.class));
+        Mockito.when(repository.save(Mockito.any(Lancamento.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        //execução
+        List<Lancamento> salvos = service.salvarTodos(Arrays.asList(primeiro, segundo));
+
+        //verificação
+        Assertions.assertThat(salvos).extracting(Lancamento::getStatus)
+                  .containsExactly(StatusLancamento.PENDENTE, StatusLancamento.PENDENTE);
+        Mockito.verify(repository, Mockito.times(2)).save(Mockito.any(Lancamento.class));
+    }
+
     @Test
     public void deveAtualizarUmLancamento(){
         //cenário
@@ -82,6 +131,22 @@ public class LancamentoServiceTest {
         Mockito.verify(repository, Mockito.times(1)).save(lancamento);
     }
 
+    @Test
+    public void deveAssumirAVersaoGravadaAoAtualizarUmLancamentoSemVersao(){
+        //cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1l);
+        Mockito.doNothing().when(service).validar((lancamento));
+        Mockito.when(repository.obterVersao(1l)).thenReturn(Optional.of(3l));
+        Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+
+        //execução
+        service.atualizar(lancamento);
+
+        //verificação
+        Assertions.assertThat(lancamento.getVersao()).isEqualTo(3l);
+    }
+
     @Test
     public void deveLancarErroAoTentarAtualizarUmLancamentoQueAindaNaoFoiSalvo(){
         //cenário
@@ -122,19 +187,134 @@ public class LancamentoServiceTest {
         //cenário
         Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
         lancamento.setId(1l);
+        lancamento.setUsuario(Usuario.builder().id(1l).build());
 
-        List<Lancamento> lista = Arrays.asList(lancamento);
-        Mockito.when(repository.findAll(Mockito.any(Example.class))).thenReturn(lista);
+        Lancamento filtro = new Lancamento();
+        filtro.setAno(2021);
+        filtro.setMes(1);
+        filtro.setUsuario(lancamento.getUsuario());
+
+        List<LancamentoVisao> lista = Arrays.asList(LancamentoVisao.of(lancamento));
+        Mockito.when(repository.listarVisoes(Mockito.eq(1l), Mockito.eq(2021), Mockito.eq(1), Mockito.any())).thenReturn(lista);
 
         //execução
-        List<Lancamento> resultado = service.buscar(lancamento);
+        List<LancamentoVisao> resultado = service.buscar(filtro);
 
         //verificação
         Assertions.assertThat(resultado)
                   .isNotEmpty()
                   .hasSize(1)
-                  .contains(lancamento);
+                  .contains(LancamentoVisao.of(lancamento));
+
+    }
 
+    @Test
+    public void deveRecusarABuscaSemPaginacaoAcimaDoLimite(){
+        //cenário
+        Lancamento filtro = new Lancamento();
+        filtro.setAno(2021);
+        filtro.setUsuario(Usuario.builder().id(1l).build());
+        LancamentoVisao lancamento = LancamentoVisao.of(LancamentoRepositoryTest.criarLancamento());
+        Mockito.when(repository.listarVisoes(Mockito.eq(1l), Mockito.eq(2021), Mockito.isNull(), Mockito.any()))
+               .thenReturn(Arrays.asList(lancamento, lancamento, lancamento));
+
+        //execução
+        Throwable erro = Assertions.catchThrowable(() -> service.buscar(filtro));
+
+        //verificação
+        Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessageContaining("/api/lancamentos/pagina");
+        Mockito.verify(repository).listarVisoes(1l, 2021, null, PageRequest.of(0, 3));
+    }
+
+    @Test
+    public void deveBuscarAPaginaPelaDescricaoUsandoOIndice(){
+        //cenário
+        Lancamento filtro = new Lancamento();
+        filtro.setDescricao("mercado");
+        filtro.setUsuario(Usuario.builder().id(1l).build());
+        LancamentoVisao lancamento = criarVisao(1l);
+        Mockito.when(indiceDescricao.buscarAposCursor(1l, "mercado", null, null, CursorLancamento.INICIO, 3))
+               .thenReturn(Arrays.asList(lancamento));
+
+        //execução
+        PaginaLancamentos pagina = service.buscarPagina(filtro, null, 2);
+
+        //verificação
+        Assertions.assertThat(pagina.getItens()).containsExactly(lancamento);
+        Mockito.verify(repository, Mockito.never()).buscarAposCursor(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                                                                    Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void deveBuscarPelaDescricaoUsandoOIndice(){
+        //cenário
+        Lancamento filtro = new Lancamento();
+        filtro.setDescricao("salario");
+        filtro.setAno(2021);
+        filtro.setUsuario(Usuario.builder().id(1l).build());
+
+        LancamentoVisao lancamento = LancamentoVisao.of(LancamentoRepositoryTest.criarLancamento());
+        Mockito.when(indiceDescricao.buscar(1l, "salario", 2021, null)).thenReturn(Arrays.asList(lancamento));
+
+        //execução
+        List<LancamentoVisao> resultado = service.buscar(filtro);
+
+        //verificação
+        Assertions.assertThat(resultado).containsExactly(lancamento);
+        Mockito.verify(repository, Mockito.never()).listarVisoes(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void deveRetornarUmaPaginaComCursorDeContinuacao(){
+        //cenário
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(Usuario.builder().id(1l).build());
+
+        LancamentoVisao primeiro = criarVisao(1l);
+        LancamentoVisao segundo = criarVisao(2l);
+        LancamentoVisao terceiro = criarVisao(3l);
+
+        Mockito.when(repository.buscarAposCursor(Mockito.eq(1l), Mockito.any(), Mockito.any(), Mockito.any(),
+                                                 Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(PageRequest.of(0, 3))))
+               .thenReturn(Arrays.asList(primeiro, segundo, terceiro));
+
+        //execução
+        PaginaLancamentos pagina = service.buscarPagina(filtro, null, 2);
+
+        //verificação
+        Assertions.assertThat(pagina.getItens()).containsExactly(primeiro, segundo);
+        Assertions.assertThat(CursorLancamento.decodificar(pagina.getProximoCursor()))
+                  .isEqualTo(new CursorLancamento(2021, 1, 2l));
+    }
+
+    @Test
+    public void naoDeveRetornarCursorNaUltimaPagina(){
+        //cenário
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(Usuario.builder().id(1l).build());
+        LancamentoVisao lancamento = criarVisao(5l);
+
+        Mockito.when(repository.buscarAposCursor(Mockito.eq(1l), Mockito.any(), Mockito.any(), Mockito.any(),
+                                                 Mockito.eq(2021), Mockito.eq(1), Mockito.eq(4l), Mockito.any()))
+               .thenReturn(Arrays.asList(lancamento));
+
+        //execução
+        PaginaLancamentos pagina = service.buscarPagina(filtro, new CursorLancamento(2021, 1, 4l).codificar(), 2);
+
+        //verificação
+        Assertions.assertThat(pagina.getItens()).containsExactly(lancamento);
+        Assertions.assertThat(pagina.getProximoCursor()).isNull();
+    }
+
+    @Test
+    public void deveLancarErroAoBuscarPaginaComCursorInvalido(){
+        //cenário
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(Usuario.builder().id(1l).build());
+
+        //execução e verificação
+        Throwable erro = Assertions.catchThrowable(() -> service.buscarPagina(filtro, "invalido", 10));
+        Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Cursor de paginação inválido.");
     }
 
     @Test
@@ -244,12 +424,12 @@ public class LancamentoServiceTest {
         erro = Assertions.catchThrowable(() -> service.validar(lancamento));
         Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um Valor válido.");
 
-        lancamento.setValor(BigDecimal.ZERO);
+        lancamento.setValor(Dinheiro.ZERO);
 
         erro = Assertions.catchThrowable(() -> service.validar(lancamento));
         Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um Valor válido.");
 
-        lancamento.setValor(BigDecimal.valueOf(1));
+        lancamento.setValor(Dinheiro.de(1));
 
         erro = Assertions.catchThrowable(() -> service.validar(lancamento));
         Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um Tipo de Lançamento.");
@@ -257,4 +437,114 @@ public class LancamentoServiceTest {
 
     }
 
+    @Test
+    public void deveAtualizarOStatusDosLancamentosInformadosNumUnicoUpdate(){
+        //cenário
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(Usuario.builder().id(1l).build());
+        List<Long> ids = Arrays.asList(1l, 2l, 3l);
+        Mockito.when(repository.travarLotePorIds(1l, ids, StatusLancamento.EFETIVADO))
+               .thenReturn(Arrays.asList(estadoPendente(1l, 10), estadoPendente(2l, 20), estadoPendente(3l, 30)));
+        Mockito.when(repository.atualizarStatusDoLotePorIds(1l, ids, StatusLancamento.EFETIVADO)).thenReturn(3);
+
+        //execução
+        int atualizados = service.atualizarStatusEmLote(filtro, ids, StatusLancamento.EFETIVADO);
+
+        //verificação
+        Assertions.assertThat(atualizados).isEqualTo(3);
+        List<ResumoCalculado> anteriores = eventos.stream(StatusLancamentosAlteradoEvent.class)
+                                                  .findFirst().get().getAnteriores();
+        Assertions.assertThat(anteriores).hasSize(1);
+        Assertions.assertThat(anteriores.get(0).getTotal()).isEqualByComparingTo(Dinheiro.de(60));
+        Assertions.assertThat(anteriores.get(0).getQuantidade()).isEqualTo(3l);
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(Lancamento.class));
+    }
+
+    @Test
+    public void deveAtualizarOStatusPeloFiltroEmPartesDosIdsTravados(){
+        //cenário
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(Usuario.builder().id(1l).build());
+        filtro.setAno(2021);
+        filtro.setMes(1);
+        List<LancamentoEstado> travados = new ArrayList<>();
+        for (long id = 1; id <= 1001; id++){
+            travados.add(estadoPendente(id, 1));
+        }
+        Mockito.when(repository.travarLote(1l, 2021, 1, null, StatusLancamento.EFETIVADO)).thenReturn(travados);
+        Mockito.when(repository.atualizarStatusDoLotePorIds(Mockito.eq(1l), Mockito.anyList(), Mockito.eq(StatusLancamento.EFETIVADO)))
+               .thenAnswer(invocacao -> invocacao.<List<Long>>getArgument(1).size());
+
+        //execução
+        int atualizados = service.atualizarStatusEmLote(filtro, null, StatusLancamento.EFETIVADO);
+
+        //verificação
+        Assertions.assertThat(atualizados).isEqualTo(1001);
+        Mockito.verify(repository, Mockito.times(2))
+               .atualizarStatusDoLotePorIds(Mockito.eq(1l), Mockito.anyList(), Mockito.eq(StatusLancamento.EFETIVADO));
+    }
+
+    @Test
+    public void naoDeveAtualizarOStatusEmLoteSemFiltro(){
+        //cenário
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(Usuario.builder().id(1l).build());
+
+        //execução
+        Throwable erro = Assertions.catchThrowable(() -> service.atualizarStatusEmLote(filtro, Collections.emptyList(),
+                                                                                        StatusLancamento.EFETIVADO));
+
+        //verificação
+        Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class);
+        Mockito.verify(repository, Mockito.never()).travarLote(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                                                               Mockito.any());
+    }
+
+    @Test
+    public void naoDeveAtualizarOStatusEmLoteSemUsuario(){
+        //cenário
+        Lancamento filtro = new Lancamento();
+
+        //execução e verificação
+        Assertions.catchThrowableOfType(() -> service.atualizarStatusEmLote(filtro, null, StatusLancamento.EFETIVADO),
+                                        RegraNegocioException.class);
+        Mockito.verify(repository, Mockito.never()).travarLote(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                                                               Mockito.any());
+    }
+
+    @Test
+    public void deveMontarOPainelSomandoOsTotaisDeTodosOsStatus(){
+        //cenário
+        YearMonth referencia = YearMonth.of(2021, 1);
+        Mockito.when(repository.totalizarPorStatus(1l, 2021, 1)).thenReturn(Arrays.asList(
+                new TotalPorStatus(StatusLancamento.PENDENTE, 2l, Dinheiro.de(20), Dinheiro.ZERO, Dinheiro.de(10), Dinheiro.ZERO),
+                new TotalPorStatus(StatusLancamento.EFETIVADO, 1l, Dinheiro.ZERO, Dinheiro.de(4), Dinheiro.ZERO, Dinheiro.de(4))));
+        List<LancamentoVisao> ultimos = Arrays.asList(criarVisao(3l), criarVisao(2l));
+        Mockito.when(repository.listarUltimasVisoes(1l, PageRequest.of(0, 10))).thenReturn(ultimos);
+
+        //execução
+        PainelUsuario painel = service.obterPainel(1l, referencia);
+
+        //verificação
+        Assertions.assertThat(painel.getSaldo()).isEqualByComparingTo(Dinheiro.de(16));
+        Assertions.assertThat(painel.getReceitasMes()).isEqualByComparingTo(Dinheiro.de(10));
+        Assertions.assertThat(painel.getDespesasMes()).isEqualByComparingTo(Dinheiro.de(4));
+        Assertions.assertThat(painel.getQuantidadePorStatus())
+                  .containsEntry(StatusLancamento.PENDENTE, 2l)
+                  .containsEntry(StatusLancamento.EFETIVADO, 1l)
+                  .containsEntry(StatusLancamento.CANCELADO, 0l);
+        Assertions.assertThat(painel.getUltimosLancamentos()).isEqualTo(ultimos);
+    }
+
+    private static LancamentoEstado estadoPendente(Long id, long valor) {
+        return new LancamentoEstado(id, 1l, "mercado", 2021, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE,
+                                    Dinheiro.de(valor));
+    }
+
+    private static LancamentoVisao criarVisao(Long id) {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(id);
+        return LancamentoVisao.of(lancamento);
+    }
+
 }
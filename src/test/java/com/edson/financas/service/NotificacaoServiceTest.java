@@ -0,0 +1,178 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.repository.LancamentoRepositoryTest;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.impl.NotificacaoServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"financas.notificacao.capacidade-buffer=1",
+                              "financas.notificacao.heartbeat-segundos=1",
+                              "financas.notificacao.timeout-envio-segundos=1"})
+public class NotificacaoServiceTest {
+
+    @SpyBean
+    NotificacaoServiceImpl service;
+
+    @MockBean
+    SaldoService saldoService;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void deveEnviarOSaldoAoInscreverEAAlteracaoComONovoSaldoDepoisDaEscrita() throws Exception {
+        //cenário
+        Mockito.when(saldoService.obterSaldo(1l)).thenReturn(Dinheiro.de(10), Dinheiro.de(20));
+        EmissorGravado emissor = new EmissorGravado();
+        service.inscrever(1l, emissor);
+        Assertions.assertThat(emissor.proximo()).contains("event:saldo").contains("10");
+
+        //execução
+        service.aoAlterarLancamento(LancamentoAlteradoEvent.inclusao(criarLancamento(1l)));
+        service.aoAlterarLancamento(LancamentoAlteradoEvent.inclusao(criarLancamento(3l)));
+
+        //verificação
+        Assertions.assertThat(emissor.proximo()).contains("event:lancamento").contains("operacao=INCLUSAO");
+        Assertions.assertThat(emissor.proximo()).contains("event:saldo").contains("20");
+        Mockito.verify(saldoService, Mockito.never()).obterSaldo(3l);
+    }
+
+    @Test
+    public void deveEncerrarAConexaoDoClienteQueNaoAcompanhaAsAlteracoes() throws Exception {
+        //cenário
+        Mockito.when(saldoService.obterSaldo(2l)).thenReturn(Dinheiro.de(10));
+        EmissorGravado emissor = new EmissorGravado();
+        emissor.bloquear();
+        service.inscrever(2l, emissor);
+        // o saldo inicial está preso no envio e a fila da conexão, com capacidade 1, está vazia
+        Assertions.assertThat(emissor.aguardarEnvio()).isTrue();
+
+        //execução
+        service.aoAlterarLancamento(LancamentoAlteradoEvent.inclusao(criarLancamento(2l)));
+        service.aoAlterarLancamento(LancamentoAlteradoEvent.inclusao(criarLancamento(2l)));
+
+        //verificação
+        Assertions.assertThat(emissor.aguardarEncerramento()).isTrue();
+        emissor.liberar();
+    }
+
+    @Test
+    public void deveContinuarEnviandoAosDemaisClientesEnquantoUmEstaPresoNaEscrita() throws Exception {
+        //cenário
+        Mockito.when(saldoService.obterSaldo(Mockito.anyLong())).thenReturn(Dinheiro.de(10));
+        EmissorGravado preso = new EmissorGravado();
+        preso.bloquear();
+        service.inscrever(4l, preso);
+        Assertions.assertThat(preso.aguardarEnvio()).isTrue();
+
+        //execução
+        EmissorGravado outro = new EmissorGravado();
+        service.inscrever(6l, outro);
+        EmissorGravado mesmoUsuario = new EmissorGravado();
+        service.inscrever(4l, mesmoUsuario);
+
+        //verificação
+        Assertions.assertThat(outro.proximo()).contains("event:saldo");
+        Assertions.assertThat(mesmoUsuario.proximo()).contains("event:saldo");
+        preso.liberar();
+    }
+
+    @Test
+    public void deveEncerrarAConexaoPresaNumaEscritaAlemDoTempoLimite() throws Exception {
+        //cenário
+        Mockito.when(saldoService.obterSaldo(7l)).thenReturn(Dinheiro.de(10));
+        EmissorGravado emissor = new EmissorGravado();
+        emissor.bloquear();
+
+        //execução
+        service.inscrever(7l, emissor);
+
+        //verificação
+        Assertions.assertThat(emissor.aguardarEnvio()).isTrue();
+        Assertions.assertThat(emissor.aguardarEncerramento()).isTrue();
+        emissor.liberar();
+    }
+
+    private static Lancamento criarLancamento(Long idUsuario) {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1l);
+        lancamento.setUsuario(Usuario.builder().id(idUsuario).build());
+        return lancamento;
+    }
+
+    static class EmissorGravado extends SseEmitter {
+
+        final BlockingQueue<String> eventos = new LinkedBlockingQueue<>();
+
+        final CountDownLatch emEnvio = new CountDownLatch(1);
+
+        final CountDownLatch encerramento = new CountDownLatch(1);
+
+        volatile CountDownLatch liberacao = new CountDownLatch(0);
+
+        void bloquear() {
+            liberacao = new CountDownLatch(1);
+        }
+
+        void liberar() {
+            liberacao.countDown();
+        }
+
+        boolean aguardarEnvio() throws InterruptedException {
+            return emEnvio.await(5, TimeUnit.SECONDS);
+        }
+
+        boolean aguardarEncerramento() throws InterruptedException {
+            return encerramento.await(10, TimeUnit.SECONDS);
+        }
+
+        String proximo() throws InterruptedException {
+            return eventos.poll(5, TimeUnit.SECONDS);
+        }
+
+        /**
+         * Os comentários do heartbeat não entram na sequência de eventos verificada pelos testes.
+         */
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            emEnvio.countDown();
+            try {
+                liberacao.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            StringBuilder texto = new StringBuilder();
+            evento.build().forEach(parte -> texto.append(parte.getData()));
+            if (!texto.toString().startsWith(":")) {
+                eventos.add(texto.toString());
+            }
+        }
+
+        @Override
+        public void complete() {
+            encerramento.countDown();
+            super.complete();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.edson.financas.service;
+
+import com.edson.financas.exception.RegraNegocioException;
+import com.edson.financas.model.entity.CheckpointRecorrencia;
+import com.edson.financas.model.entity.Lancamento;
+import com.edson.financas.model.entity.LancamentoRecorrente;
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.enums.Periodicidade;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.repository.CheckpointRecorrenciaRepository;
+import com.edson.financas.model.repository.LancamentoRecorrenteRepository;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.impl.GravacaoLancamentos;
+import com.edson.financas.service.impl.RecorrenciaServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class RecorrenciaServiceTest {
+
+    @SpyBean
+    RecorrenciaServiceImpl service;
+
+    @MockBean
+    LancamentoRecorrenteRepository repository;
+
+    @MockBean
+    CheckpointRecorrenciaRepository checkpointRepository;
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @MockBean
+    GravacaoLancamentos gravacao;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    @MockBean
+    EntityManager entityManager;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deveGerarOsLancamentosDoMesAPartirDoCheckpoint(){
+        //cenário
+        YearMonth competencia = YearMonth.of(2021, 2);
+        CheckpointRecorrencia checkpoint = CheckpointRecorrencia.builder().ano(2021).mes(2).faixa(0l)
+                                                                .ultimoIdRecorrente(5l).gerados(3l).build();
+        LancamentoRecorrente aluguel = criarRecorrente(6l, Periodicidade.MENSAL, 2020, 11);
+        aluguel.setDia(31);
+        LancamentoRecorrente seguro = criarRecorrente(7l, Periodicidade.ANUAL, 2020, 11);
+        LancamentoRecorrente salario = criarRecorrente(8l, Periodicidade.MENSAL, 2021, 1);
+
+        Mockito.when(repository.obterMenorIdUsuario()).thenReturn(Optional.of(1l));
+        Mockito.when(repository.obterMaiorIdUsuario()).thenReturn(Optional.of(1l));
+        Mockito.when(checkpointRepository.existsByAnoAndMesAndFaixa(2021, 2, 0l)).thenReturn(true);
+        Mockito.when(checkpointRepository.obterParaAtualizacao(2021, 2, 0l)).thenReturn(Optional.of(checkpoint));
+        Mockito.when(repository.listarDaFaixaAposId(Mockito.eq(0l), Mockito.eq(999l), Mockito.eq(5l), Mockito.any()))
+               .thenReturn(Arrays.asList(aluguel, seguro, salario));
+        Mockito.when(lancamentoRepository.buscarRecorrenciasGeradas(Arrays.asList(6l, 7l, 8l), 2021, 2))
+               .thenReturn(Collections.singleton(8l));
+
+        //execução
+        long gerados = service.gerar(competencia);
+
+        //verificação
+        ArgumentCaptor<List<Lancamento>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(gravacao).inserir(captor.capture());
+        Assertions.assertThat(captor.getValue()).hasSize(1);
+        Lancamento lancamento = captor.getValue().get(0);
+        Assertions.assertThat(lancamento.getIdRecorrente()).isEqualTo(6l);
+        Assertions.assertThat(lancamento.getMes()).isEqualTo(2);
+        Assertions.assertThat(lancamento.getAno()).isEqualTo(2021);
+        Assertions.assertThat(lancamento.getDataCadastro()).isEqualTo(LocalDate.of(2021, 2, 28));
+        Assertions.assertThat(lancamento.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+        Assertions.assertThat(gerados).isEqualTo(1);
+        Assertions.assertThat(checkpoint.getUltimoIdRecorrente()).isEqualTo(8l);
+        Assertions.assertThat(checkpoint.getGerados()).isEqualTo(4l);
+    }
+
+    @Test
+    public void deveGerarCadaFaixaDeUsuariosComSeuCheckpoint(){
+        //cenário
+        Mockito.when(repository.obterMenorIdUsuario()).thenReturn(Optional.of(10l));
+        Mockito.when(repository.obterMaiorIdUsuario()).thenReturn(Optional.of(2500l));
+        Mockito.when(checkpointRepository.obterParaAtualizacao(Mockito.eq(2021), Mockito.eq(3), Mockito.anyLong()))
+               .thenAnswer(invocacao -> Optional.of(CheckpointRecorrencia.builder().faixa(invocacao.getArgument(2))
+                                                                         .ultimoIdRecorrente(0l).gerados(0l).build()));
+        Mockito.when(repository.listarDaFaixaAposId(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyLong(), Mockito.any()))
+               .thenReturn(Collections.emptyList());
+
+        //execução
+        long gerados = service.gerar(YearMonth.of(2021, 3));
+
+        //verificação
+        Assertions.assertThat(gerados).isZero();
+        Mockito.verify(checkpointRepository, Mockito.times(3)).save(Mockito.any(CheckpointRecorrencia.class));
+        Mockito.verify(repository).listarDaFaixaAposId(Mockito.eq(0l), Mockito.eq(999l), Mockito.eq(0l), Mockito.any());
+        Mockito.verify(repository).listarDaFaixaAposId(Mockito.eq(1000l), Mockito.eq(1999l), Mockito.eq(0l), Mockito.any());
+        Mockito.verify(repository).listarDaFaixaAposId(Mockito.eq(2000l), Mockito.eq(2999l), Mockito.eq(0l), Mockito.any());
+        Mockito.verify(gravacao, Mockito.never()).inserir(Mockito.anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deveGerarSoOsModelosDoUsuarioQueVencemNoMes(){
+        //cenário
+        YearMonth competencia = YearMonth.of(2021, 2);
+        LancamentoRecorrente aluguel = criarRecorrente(6l, Periodicidade.MENSAL, 2020, 11);
+        LancamentoRecorrente seguro = criarRecorrente(7l, Periodicidade.ANUAL, 2020, 11);
+        LancamentoRecorrente salario = criarRecorrente(8l, Periodicidade.MENSAL, 2021, 1);
+
+        Mockito.when(repository.findByUsuarioIdOrderById(1l)).thenReturn(Arrays.asList(aluguel, seguro, salario));
+        Mockito.when(lancamentoRepository.buscarRecorrenciasGeradas(Arrays.asList(6l, 8l), 2021, 2))
+               .thenReturn(Collections.singleton(8l));
+
+        //execução
+        long gerados = service.gerar(1l, competencia);
+
+        //verificação
+        ArgumentCaptor<List<Lancamento>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(gravacao).inserir(captor.capture());
+        Assertions.assertThat(captor.getValue()).extracting(Lancamento::getIdRecorrente).containsExactly(6l);
+        Assertions.assertThat(gerados).isEqualTo(1);
+        Mockito.verifyNoInteractions(checkpointRepository);
+    }
+
+    @Test
+    public void naoDeveSalvarUmModeloSemPeriodicidade(){
+        //cenário
+        LancamentoRecorrente recorrente = criarRecorrente(null, null, 2021, 1);
+
+        //execução e verificação
+        Assertions.assertThatThrownBy(() -> service.salvar(recorrente))
+                  .isInstanceOf(RegraNegocioException.class)
+                  .hasMessage("Informe uma Periodicidade.");
+        Mockito.verify(repository, Mockito.never()).save(recorrente);
+    }
+
+    private static LancamentoRecorrente criarRecorrente(Long id, Periodicidade periodicidade, int anoInicio, int mesInicio){
+        return LancamentoRecorrente.builder()
+                                   .id(id)
+                                   .descricao("recorrente " + id)
+                                   .valor(Dinheiro.de(100))
+                                   .tipo(TipoLancamento.DESPESA)
+                                   .dia(5)
+                                   .periodicidade(periodicidade)
+                                   .anoInicio(anoInicio)
+                                   .mesInicio(mesInicio)
+                                   .usuario(Usuario.builder().id(1l).build())
+                                   .build();
+    }
+}
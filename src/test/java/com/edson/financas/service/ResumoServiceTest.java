@@ -0,0 +1,141 @@
+package com.edson.financas.service;
+
+import com.edson.financas.service.event.StatusLancamentosAlteradoEvent;
+import com.edson.financas.model.entity.ResumoMensal;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.ResumoCalculado;
+import com.edson.financas.model.projection.ResumoMes;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.repository.ResumoMensalRepository;
+import com.edson.financas.model.repository.UsuarioRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.impl.ResumoServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ResumoServiceTest {
+
+    @SpyBean
+    ResumoServiceImpl service;
+
+    @MockBean
+    ResumoMensalRepository repository;
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @MockBean
+    UsuarioRepository usuarioRepository;
+
+    @Test
+    public void deveMontarASerieDeDozeMeses(){
+        //cenário
+        Mockito.when(repository.findByIdUsuarioAndAno(1l, 2021)).thenReturn(Arrays.asList(
+                criarResumo(3, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100, 1),
+                criarResumo(3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 40, 2)));
+
+        //execução
+        List<ResumoMes> meses = service.obterResumoAnual(1l, 2021);
+
+        //verificação
+        Assertions.assertThat(meses).hasSize(12);
+        Assertions.assertThat(meses.get(0).getSaldo()).isEqualByComparingTo(Dinheiro.ZERO);
+        Assertions.assertThat(meses.get(2).getReceitas()).isEqualByComparingTo(Dinheiro.de(100));
+        Assertions.assertThat(meses.get(2).getSaldo()).isEqualByComparingTo(Dinheiro.de(60));
+        Assertions.assertThat(meses.get(2).getQuantidadeLancamentos()).isEqualTo(3);
+        Assertions.assertThat(meses.get(2).getQuantidadePendentes()).isEqualTo(2);
+    }
+
+    @Test
+    public void deveMoverOTotalEntreStatusAoAlterarUmLancamento(){
+        //cenário
+        LancamentoEstado anterior = criarEstado(StatusLancamento.PENDENTE);
+        LancamentoEstado atual = criarEstado(StatusLancamento.EFETIVADO);
+        Mockito.when(repository.acumular(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                                         Mockito.any(), Mockito.any())).thenReturn(1);
+
+        //execução
+        service.aoAlterarLancamento(new LancamentoAlteradoEvent(anterior, atual));
+
+        //verificação
+        Mockito.verify(repository).acumular(Mockito.eq(1l), Mockito.eq(2021), Mockito.eq(1), Mockito.eq(TipoLancamento.RECEITA),
+                                            Mockito.eq(StatusLancamento.PENDENTE),
+                                            Mockito.argThat(valor -> valor.compareTo(Dinheiro.de(-10)) == 0),
+                                            Mockito.eq(-1l));
+        Mockito.verify(repository).acumular(Mockito.eq(1l), Mockito.eq(2021), Mockito.eq(1), Mockito.eq(TipoLancamento.RECEITA),
+                                            Mockito.eq(StatusLancamento.EFETIVADO),
+                                            Mockito.argThat(valor -> valor.compareTo(Dinheiro.de(10)) == 0),
+                                            Mockito.eq(1l));
+    }
+
+    @Test
+    public void deveInicializarOResumoAPartirDosLancamentosQuandoNaoExistir(){
+        //cenário
+        Mockito.when(repository.acumular(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                                         Mockito.any(), Mockito.any())).thenReturn(0);
+        Mockito.when(lancamentoRepository.calcularResumo(1l, 2021, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE))
+               .thenReturn(Optional.of(new ResumoCalculado(1l, 2021, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+                                                           Dinheiro.de(30), 3l)));
+
+        //execução
+        service.aoAlterarLancamento(new LancamentoAlteradoEvent(null, criarEstado(StatusLancamento.PENDENTE)));
+
+        //verificação
+        Mockito.verify(repository).saveAndFlush(Mockito.argThat(resumo -> resumo.getQuantidade() == 3l
+                                                                  && resumo.getTotal().compareTo(Dinheiro.de(30)) == 0));
+    }
+
+
+    @Test
+    public void deveMoverOsGruposDoLoteParaONovoStatus(){
+        //cenário
+        ResumoCalculado pendentes = new ResumoCalculado(1l, 2021, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+                                                        Dinheiro.de(30), 3l);
+        Mockito.when(repository.acumular(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                                         Mockito.any(), Mockito.any())).thenReturn(1);
+
+        //execução
+        service.aoAlterarStatus(new StatusLancamentosAlteradoEvent(Arrays.asList(pendentes), StatusLancamento.EFETIVADO));
+
+        //verificação
+        Mockito.verify(repository).acumular(Mockito.eq(1l), Mockito.eq(2021), Mockito.eq(1), Mockito.eq(TipoLancamento.RECEITA),
+                                            Mockito.eq(StatusLancamento.PENDENTE),
+                                            Mockito.argThat(valor -> valor.compareTo(Dinheiro.de(-30)) == 0),
+                                            Mockito.eq(-3l));
+        Mockito.verify(repository).acumular(Mockito.eq(1l), Mockito.eq(2021), Mockito.eq(1), Mockito.eq(TipoLancamento.RECEITA),
+                                            Mockito.eq(StatusLancamento.EFETIVADO),
+                                            Mockito.argThat(valor -> valor.compareTo(Dinheiro.de(30)) == 0),
+                                            Mockito.eq(3l));
+    }
+
+    private ResumoMensal criarResumo(int mes, TipoLancamento tipo, StatusLancamento status, int total, long quantidade) {
+        return ResumoMensal.builder()
+                           .idUsuario(1l)
+                           .ano(2021)
+                           .mes(mes)
+                           .tipo(tipo)
+                           .status(status)
+                           .total(Dinheiro.de(total))
+                           .quantidade(quantidade)
+                           .build();
+    }
+
+    private LancamentoEstado criarEstado(StatusLancamento status) {
+        return new LancamentoEstado(1l, 1l, "lancamento", 2021, 1, TipoLancamento.RECEITA, status, Dinheiro.de(10));
+    }
+}
@@ -0,0 +1,136 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.entity.SaldoUsuario;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.DivergenciaSaldo;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.SaldoCalculado;
+import com.edson.financas.model.repository.LancamentoRepository;
+import com.edson.financas.model.repository.SaldoUsuarioRepository;
+import com.edson.financas.model.repository.UsuarioRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.LancamentosIncluidosEvent;
+import com.edson.financas.service.impl.SaldoServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class SaldoServiceTest {
+
+    @SpyBean
+    SaldoServiceImpl service;
+
+    @MockBean
+    SaldoUsuarioRepository repository;
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @MockBean
+    UsuarioRepository usuarioRepository;
+
+    @Test
+    public void deveObterOSaldoMaterializado(){
+        //cenário
+        SaldoUsuario saldo = new SaldoUsuario(1l, Dinheiro.de(100), Dinheiro.de(30));
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(saldo));
+
+        //execução
+        Dinheiro resultado = service.obterSaldo(1l);
+
+        //verificação
+        Assertions.assertThat(resultado).isEqualByComparingTo(Dinheiro.de(70));
+        Mockito.verify(lancamentoRepository, Mockito.never()).calcularSaldoDoUsuario(Mockito.anyLong());
+    }
+
+    @Test
+    public void deveAcumularADiferencaAoAlterarUmLancamento(){
+        //cenário
+        LancamentoEstado anterior = criarEstado(TipoLancamento.RECEITA, Dinheiro.de(10));
+        LancamentoEstado atual = criarEstado(TipoLancamento.DESPESA, Dinheiro.de(4));
+        Mockito.when(repository.acumular(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(1);
+
+        //execução
+        service.aoAlterarLancamento(new LancamentoAlteradoEvent(anterior, atual));
+
+        //verificação
+        Mockito.verify(repository).acumular(Mockito.eq(1l),
+                                            Mockito.argThat(valor -> valor.compareTo(Dinheiro.de(-10)) == 0),
+                                            Mockito.argThat(valor -> valor.compareTo(Dinheiro.de(4)) == 0));
+        Mockito.verify(repository, Mockito.never()).saveAndFlush(Mockito.any());
+    }
+
+    @Test
+    public void deveAcumularOLoteIncluidoNumaUnicaAtualizacaoPorUsuario(){
+        //cenário
+        List<LancamentoEstado> incluidos = Arrays.asList(criarEstado(TipoLancamento.RECEITA, Dinheiro.de(10)),
+                                                         criarEstado(TipoLancamento.DESPESA, Dinheiro.de(4)),
+                                                         criarEstado(TipoLancamento.RECEITA, Dinheiro.de(5)));
+        Mockito.when(repository.acumular(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(1);
+
+        //execução
+        service.aoIncluirLancamentos(new LancamentosIncluidosEvent(incluidos));
+
+        //verificação
+        Mockito.verify(repository, Mockito.times(1)).acumular(Mockito.eq(1l),
+                                            Mockito.argThat(valor -> valor.compareTo(Dinheiro.de(15)) == 0),
+                                            Mockito.argThat(valor -> valor.compareTo(Dinheiro.de(4)) == 0));
+    }
+
+    @Test
+    public void deveInicializarOSaldoComOUsuarioTravadoQuandoNaoMaterializado(){
+        //cenário
+        LancamentoEstado atual = criarEstado(TipoLancamento.RECEITA, Dinheiro.de(10));
+        Mockito.when(repository.acumular(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(0);
+        Mockito.when(lancamentoRepository.calcularSaldoDoUsuario(1l))
+               .thenReturn(Optional.of(new SaldoCalculado(1l, Dinheiro.de(25), Dinheiro.de(5))));
+
+        //execução
+        service.aoAlterarLancamento(new LancamentoAlteradoEvent(null, atual));
+
+        //verificação
+        InOrder ordem = Mockito.inOrder(usuarioRepository, repository);
+        ordem.verify(usuarioRepository).travar(Collections.singleton(1l));
+        ordem.verify(repository).acumular(Mockito.eq(1l), Mockito.any(), Mockito.any());
+        ordem.verify(repository).saveAndFlush(new SaldoUsuario(1l, Dinheiro.de(25), Dinheiro.de(5)));
+    }
+
+    @Test
+    public void deveReportarECorrigirSaldosDivergentes(){
+        //cenário
+        Mockito.when(lancamentoRepository.calcularSaldos())
+               .thenReturn(Arrays.asList(new SaldoCalculado(1l, Dinheiro.de(50), Dinheiro.ZERO),
+                                         new SaldoCalculado(2l, Dinheiro.de(10), Dinheiro.ZERO)));
+        Mockito.when(repository.findAll())
+               .thenReturn(Arrays.asList(new SaldoUsuario(1l, Dinheiro.de(50), Dinheiro.ZERO),
+                                         new SaldoUsuario(2l, Dinheiro.de(12), Dinheiro.ZERO)));
+
+        //execução
+        List<DivergenciaSaldo> divergencias = service.verificarSaldos(true);
+
+        //verificação
+        Assertions.assertThat(divergencias).hasSize(1);
+        Assertions.assertThat(divergencias.get(0).getIdUsuario()).isEqualTo(2l);
+        Mockito.verify(usuarioRepository).travarTodos();
+        Mockito.verify(repository).saveAll(Collections.singletonList(new SaldoUsuario(2l, Dinheiro.de(10), Dinheiro.ZERO)));
+    }
+
+    private LancamentoEstado criarEstado(TipoLancamento tipo, Dinheiro valor) {
+        return new LancamentoEstado(1l, 1l, "lancamento", 2021, 1, tipo, StatusLancamento.PENDENTE, valor);
+    }
+}
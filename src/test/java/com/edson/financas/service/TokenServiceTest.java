@@ -0,0 +1,81 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.entity.Usuario;
+import com.edson.financas.model.projection.SessaoUsuario;
+import com.edson.financas.service.impl.TokenServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class TokenServiceTest {
+
+    @SpyBean
+    TokenServiceImpl service;
+
+    @BeforeEach
+    public void setUp(){
+        ReflectionTestUtils.setField(service, "expiracaoMinutos", 60L);
+    }
+
+    @Test
+    public void deveValidarOTokenEmitido(){
+        //cenário
+        Usuario usuario = Usuario.builder().id(7L).nome("nome").email("email@email.com").build();
+
+        //execução
+        Optional<SessaoUsuario> sessao = service.validar(service.emitir(usuario));
+
+        //verificação
+        assertThat(sessao).isPresent();
+        assertThat(sessao.get().getId()).isEqualTo(7L);
+        assertThat(sessao.get().getNome()).isEqualTo("nome");
+        assertThat(sessao.get().getEmail()).isEqualTo("email@email.com");
+    }
+
+    @Test
+    public void naoDeveValidarTokenAdulterado(){
+        //cenário
+        String token = service.emitir(Usuario.builder().id(7L).build());
+        String outro = service.emitir(Usuario.builder().id(8L).build());
+        String[] partes = token.split("\\.");
+        String adulterado = partes[0] + "." + outro.split("\\.")[1] + "." + partes[2];
+
+        //execução e verificação
+        assertThat(service.validar(adulterado)).isEmpty();
+        assertThat(service.validar("abc")).isEmpty();
+        assertThat(service.validar(null)).isEmpty();
+    }
+
+    @Test
+    public void naoDeveValidarTokenExpirado(){
+        //cenário
+        ReflectionTestUtils.setField(service, "expiracaoMinutos", -1L);
+
+        //execução
+        String token = service.emitir(Usuario.builder().id(7L).build());
+
+        //verificação
+        assertThat(service.validar(token)).isEmpty();
+    }
+
+    @Test
+    public void deveRecusarUmSegredoCurtoNaInicializacao(){
+        //cenário
+        TokenServiceImpl comSegredoCurto = new TokenServiceImpl();
+        ReflectionTestUtils.setField(comSegredoCurto, "segredo", "curto");
+
+        //execução e verificação
+        assertThatThrownBy(comSegredoCurto::iniciar).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -5,10 +5,12 @@ import com.edson.financas.exception.RegraNegocioException;
 import com.edson.financas.model.entity.Usuario;
 import com.edson.financas.model.repository.UsuarioRepository;
 import com.edson.financas.service.impl.UsuarioServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
@@ -33,6 +35,11 @@ public class UsuarioServiceTest {
     @MockBean
     UsuarioRepository repository;
 
+    @BeforeEach
+    public void setUp(){
+        service.iniciarCache(new SimpleMeterRegistry());
+    }
+
     @Test
     public void deveSalvarUmUsuario(){
         //cenário
@@ -91,6 +98,38 @@ public class UsuarioServiceTest {
         org.assertj.core.api.Assertions.assertThat(result).isNotNull();
     }
 
+    @Test
+    public void deveRecodificarSenhaLegadaAoAutenticar(){
+        //cenário
+        String email = "email@email.com";
+        Usuario usuario = Usuario.builder().email(email).senha("senha").id(1L).build();
+        Mockito.when(repository.findByEmail(email)).thenReturn(Optional.of(usuario));
+
+        //ação
+        service.autenticar(email, "senha");
+
+        //verificação
+        ArgumentCaptor<Usuario> captor = ArgumentCaptor.forClass(Usuario.class);
+        Mockito.verify(repository).save(captor.capture());
+        org.assertj.core.api.Assertions.assertThat(captor.getValue().getSenha()).startsWith("pbkdf2$");
+        org.assertj.core.api.Assertions.assertThat(service.autenticar(email, "senha")).isNotNull();
+        Mockito.verify(repository, Mockito.times(1)).save(Mockito.any(Usuario.class));
+    }
+
+    @Test
+    public void deveCodificarASenhaAoSalvarUsuario(){
+        //cenário
+        Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+        Usuario usuario = Usuario.builder().nome("nome").email("email@email.com").senha("senha").build();
+        Mockito.when(repository.save(Mockito.any(Usuario.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        //ação
+        Usuario usuarioSalvo = service.salvarUsuario(usuario);
+
+        //verificação
+        org.assertj.core.api.Assertions.assertThat(usuarioSalvo.getSenha()).startsWith("pbkdf2$").doesNotContain("senha");
+    }
+
     @Test
     public void deveLancarErroQuandoNaoEncontrarUsuarioCadastradoComOEmailInformado(){
         //cenário
@@ -118,6 +157,90 @@ public class UsuarioServiceTest {
         org.assertj.core.api.Assertions.assertThat(runtimeException).isInstanceOf(ErroAutenticacao.class).hasMessage("Senha inválida!");
     }
 
+    @Test
+    public void deveReutilizarOUsuarioConsultadoPorId(){
+        //cenário
+        Usuario usuario = Usuario.builder().id(1L).email("email@email.com").build();
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.of(usuario));
+
+        //ação
+        service.obterPorId(1L);
+        Optional<Usuario> result = service.obterPorId(1L);
+
+        //verificação
+        org.assertj.core.api.Assertions.assertThat(result).contains(usuario);
+        Mockito.verify(repository, Mockito.times(1)).findById(1L);
+    }
+
+    @Test
+    public void naoDeveExporASenhaNemCompartilharOUsuarioGuardadoNoCache(){
+        //cenário
+        Usuario usuario = Usuario.builder().id(1L).nome("nome").email("email@email.com").senha("pbkdf2$hash").build();
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.of(usuario));
+
+        //ação
+        service.obterPorId(1L).get().setNome("alterado");
+        Optional<Usuario> result = service.obterPorId(1L);
+
+        //verificação
+        org.assertj.core.api.Assertions.assertThat(result.get().getNome()).isEqualTo("nome");
+        org.assertj.core.api.Assertions.assertThat(result.get().getSenha()).isNull();
+        Mockito.verify(repository, Mockito.times(1)).findById(1L);
+    }
+
+    @Test
+    public void naoDeveGuardarOUsuarioLidoAntesDeUmaGravacaoConcorrente(){
+        //cenário
+        Usuario anterior = Usuario.builder().id(1L).nome("nome").email("email@email.com").build();
+        Usuario alterado = Usuario.builder().id(1L).nome("outro").email("email@email.com").build();
+        Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+        Mockito.when(repository.save(Mockito.any(Usuario.class))).thenReturn(alterado);
+        Mockito.when(repository.findById(1L)).thenAnswer(invocacao -> {
+            service.salvarUsuario(alterado);
+            return Optional.of(anterior);
+        }).thenReturn(Optional.of(alterado));
+
+        //ação
+        service.obterPorId(1L);
+        Optional<Usuario> result = service.obterPorId(1L);
+
+        //verificação
+        org.assertj.core.api.Assertions.assertThat(result.get().getNome()).isEqualTo("outro");
+    }
+
+    @Test
+    public void naoDeveGuardarUsuarioNaoEncontrado(){
+        //cenário
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.empty());
+
+        //ação
+        service.obterPorId(1L);
+        Optional<Usuario> result = service.obterPorId(1L);
+
+        //verificação
+        org.assertj.core.api.Assertions.assertThat(result).isEmpty();
+        Mockito.verify(repository, Mockito.times(2)).findById(1L);
+    }
+
+    @Test
+    public void deveInvalidarOCacheAoSalvarUsuario(){
+        //cenário
+        Usuario usuario = Usuario.builder().id(1L).nome("nome").email("email@email.com").build();
+        Usuario alterado = Usuario.builder().id(1L).nome("outro").email("email@email.com").build();
+        Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.of(usuario), Optional.of(alterado));
+        Mockito.when(repository.save(Mockito.any(Usuario.class))).thenReturn(alterado);
+        service.obterPorId(1L);
+
+        //ação
+        service.salvarUsuario(alterado);
+        Optional<Usuario> result = service.obterPorId(1L);
+
+        //verificação
+        org.assertj.core.api.Assertions.assertThat(result.get().getNome()).isEqualTo("outro");
+        Mockito.verify(repository, Mockito.times(2)).findById(1L);
+    }
+
     @Test
     public void deveValidarEmail(){
         //cenário
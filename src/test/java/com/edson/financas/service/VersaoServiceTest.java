@@ -0,0 +1,96 @@
+package com.edson.financas.service;
+
+import com.edson.financas.model.entity.VersaoUsuario;
+import com.edson.financas.model.enums.StatusLancamento;
+import com.edson.financas.model.enums.TipoLancamento;
+import com.edson.financas.model.projection.LancamentoEstado;
+import com.edson.financas.model.projection.ResumoCalculado;
+import com.edson.financas.model.repository.UsuarioRepository;
+import com.edson.financas.model.repository.VersaoUsuarioRepository;
+import com.edson.financas.model.valor.Dinheiro;
+import com.edson.financas.service.event.LancamentoAlteradoEvent;
+import com.edson.financas.service.event.StatusLancamentosAlteradoEvent;
+import com.edson.financas.service.impl.VersaoServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class VersaoServiceTest {
+
+    @SpyBean
+    VersaoServiceImpl service;
+
+    @MockBean
+    VersaoUsuarioRepository repository;
+
+    @MockBean
+    UsuarioRepository usuarioRepository;
+
+    @Test
+    public void deveObterVersaoZeroParaUsuarioSemEscritas(){
+        //cenário
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.empty());
+
+        //execução e verificação
+        Assertions.assertThat(service.obterVersao(1l)).isEqualTo(0l);
+    }
+
+    @Test
+    public void deveIncrementarAVersaoDosDoisUsuariosAoTrocarODono(){
+        //cenário
+        Mockito.when(repository.incrementar(Mockito.anyLong())).thenReturn(1);
+
+        //execução
+        service.aoAlterarLancamento(new LancamentoAlteradoEvent(criarEstado(1l), criarEstado(2l)));
+
+        //verificação
+        Mockito.verify(repository).incrementar(1l);
+        Mockito.verify(repository).incrementar(2l);
+        Mockito.verify(repository, Mockito.never()).saveAndFlush(Mockito.any());
+    }
+
+    @Test
+    public void deveCriarAVersaoNaPrimeiraEscritaDoUsuario(){
+        //cenário
+        Mockito.when(repository.incrementar(1l)).thenReturn(0);
+
+        //execução
+        service.aoAlterarLancamento(new LancamentoAlteradoEvent(null, criarEstado(1l)));
+
+        //verificação
+        InOrder ordem = Mockito.inOrder(usuarioRepository, repository);
+        ordem.verify(usuarioRepository).travar(Collections.singleton(1l));
+        ordem.verify(repository).incrementar(1l);
+        ordem.verify(repository).saveAndFlush(new VersaoUsuario(1l, 1l));
+    }
+
+    @Test
+    public void deveIncrementarAVersaoUmaVezPorLote(){
+        //cenário
+        Mockito.when(repository.incrementar(1l)).thenReturn(1);
+        ResumoCalculado janeiro = new ResumoCalculado(1l, 2021, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, Dinheiro.de(10), 2l);
+        ResumoCalculado fevereiro = new ResumoCalculado(1l, 2021, 2, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, Dinheiro.de(10), 1l);
+
+        //execução
+        service.aoAlterarStatus(new StatusLancamentosAlteradoEvent(Arrays.asList(janeiro, fevereiro), StatusLancamento.EFETIVADO));
+
+        //verificação
+        Mockito.verify(repository, Mockito.times(1)).incrementar(1l);
+    }
+
+    private LancamentoEstado criarEstado(Long idUsuario) {
+        return new LancamentoEstado(1l, idUsuario, "lancamento", 2021, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, Dinheiro.de(10));
+    }
+}